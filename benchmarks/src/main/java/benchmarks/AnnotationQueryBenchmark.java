@@ -0,0 +1,77 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import structures.Annotation;
+import structures.AnnotationIndex;
+import structures.AnnotationStore;
+import tools.GffGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the annotations that hit a node, as done for every node of a sub graph
+ * when the annotations are projected.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnnotationQueryBenchmark {
+
+    private static final int RANGES = 1024;
+    private static final int GENOME_LENGTH = 50000000;
+
+    @Param({"100000", "1000000"})
+    public int annotations;
+
+    @Param({"100", "10000"})
+    public int rangeLength;
+
+    private final int[] starts = new int[RANGES];
+    private AnnotationIndex index;
+    private int next;
+
+    /**
+     * Generates the annotations and picks random ranges.
+     *
+     * @throws IOException when the annotations can not be written.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        File file = Fixtures.file("query-" + annotations + ".gff");
+        new GffGenerator("genome", GENOME_LENGTH, Fixtures.SEED).write(file, annotations);
+        AnnotationStore.Builder parsed = new AnnotationStore.Builder();
+        for (String line : Files.readAllLines(file.toPath())) {
+            String[] data = line.split("\t");
+            parsed.add(Integer.parseInt(data[3]), Integer.parseInt(data[4]), data[8]);
+        }
+        index = new AnnotationIndex(parsed.build());
+        Random random = new Random(Fixtures.SEED);
+        for (int i = 0; i < RANGES; i++) {
+            starts[i] = random.nextInt(GENOME_LENGTH - rangeLength);
+        }
+    }
+
+    @Benchmark
+    public List<Annotation> query() {
+        next = (next + 1) % RANGES;
+        return index.query(starts[next], starts[next] + rangeLength);
+    }
+}
@@ -0,0 +1,69 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import parser.GffParser;
+import structures.AnnotationSearch;
+import structures.AnnotationStore;
+import tools.GffGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures searching the annotation table, for a short prefix, a gene name, a part of a
+ * product and a coordinate, and building the search index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnnotationSearchBenchmark {
+
+    private static final int GENOME_LENGTH = 50000000;
+
+    @Param({"100000", "1000000"})
+    public int annotations;
+
+    @Param({"ge", "gene4711", "rotei", "4711"})
+    public String query;
+
+    private AnnotationStore store;
+    private AnnotationSearch search;
+
+    /**
+     * Parses the generated annotations and builds their search index.
+     *
+     * @throws IOException when the annotations can not be written or read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        File file = Fixtures.file("search-" + annotations + ".gff");
+        new GffGenerator("genome", GENOME_LENGTH, Fixtures.SEED).write(file, annotations);
+        store = new GffParser(file.getAbsolutePath(), null, null).parseGff().getStore();
+        search = store.getSearch();
+    }
+
+    @Benchmark
+    public BitSet find() {
+        return search.find(query);
+    }
+
+    @Benchmark
+    public AnnotationSearch build() {
+        return new AnnotationSearch(store);
+    }
+}
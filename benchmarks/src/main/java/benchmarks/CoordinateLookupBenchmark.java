@@ -0,0 +1,58 @@
+package benchmarks;
+
+import graph.GenomeCoordinateIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the node of a genome coordinate with the GenomeCoordinateIndex,
+ * which is used to go to annotations and genome coordinates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CoordinateLookupBenchmark {
+
+    private static final int COORDINATES = 1024;
+    // The search never reaches the last node, so stay clear of the end of the genome.
+    private static final double COORDINATE_FRACTION = 0.99;
+
+    private final int[] coordinates = new int[COORDINATES];
+    private GenomeCoordinateIndex index;
+    private int next;
+
+    /**
+     * Creates the index and picks random coordinates on the first genome.
+     *
+     * @param imported The imported graph.
+     */
+    @Setup
+    public void setUp(ImportedGraph imported) {
+        index = new GenomeCoordinateIndex(imported.parser.getStore());
+        Random random = new Random(Fixtures.SEED);
+        int range = (int) (imported.genomeLength * COORDINATE_FRACTION);
+        for (int i = 0; i < COORDINATES; i++) {
+            coordinates[i] = random.nextInt(range);
+        }
+    }
+
+    @Benchmark
+    public int find() {
+        next = (next + 1) % COORDINATES;
+        return index.find(coordinates[next], 0);
+    }
+}
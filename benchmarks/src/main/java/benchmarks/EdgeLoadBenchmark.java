@@ -0,0 +1,33 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading the parent and child edge arrays of an imported graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EdgeLoadBenchmark {
+
+    @Benchmark
+    public int[] parentArray(ImportedGraph graph) throws IOException {
+        return graph.parser.getParentArray();
+    }
+
+    @Benchmark
+    public int[] childArray(ImportedGraph graph) throws IOException {
+        return graph.parser.getChildArray();
+    }
+}
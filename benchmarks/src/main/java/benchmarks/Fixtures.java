@@ -0,0 +1,47 @@
+package benchmarks;
+
+import parser.GraphCache;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Files for the benchmarks. The graphs and annotations are written by the generators
+ * in the tools package, with their default settings and the same seed every run.
+ */
+public final class Fixtures {
+
+    static final long SEED = 42;
+    private static final String DIRECTORY = "target/jmh-fixtures";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Gives the file of a fixture.
+     *
+     * @param name The name of the fixture.
+     * @return The file in the fixture directory.
+     */
+    public static File file(String name) {
+        File directory = new File(DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Can not create " + directory);
+        }
+        return new File(directory, name);
+    }
+
+    /**
+     * Removes the database and edge files of an imported fixture from the cache,
+     * so it is parsed again the next time.
+     *
+     * @param file The fixture.
+     */
+    public static void deleteDatabase(File file) {
+        try {
+            GraphCache.getDefault().remove(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not delete the database of " + file, e);
+        }
+    }
+}
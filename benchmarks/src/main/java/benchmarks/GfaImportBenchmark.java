@@ -0,0 +1,89 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import parser.GfaParser;
+import store.StoreFormat;
+import tools.GfaGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures importing a GFA file into a new database.
+ * Every iteration imports the file once, from scratch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GfaImportBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int nodes;
+
+    @Param({"8"})
+    public int genomes;
+
+    @Param({"MAPDB", "FLAT"})
+    public StoreFormat format;
+
+    private File file;
+    private GfaParser parser;
+
+    /**
+     * Generates the graph.
+     *
+     * @throws IOException when the graph can not be written.
+     */
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        file = Fixtures.file("import-" + nodes + "-" + genomes + ".gfa");
+        new GfaGenerator(nodes, genomes, Fixtures.SEED).write(file);
+    }
+
+    /**
+     * Makes sure the next import starts without a database.
+     */
+    @Setup(Level.Iteration)
+    public void clean() {
+        Fixtures.deleteDatabase(file);
+    }
+
+    /**
+     * Imports the graph.
+     *
+     * @return The parser, so the import is not optimised away.
+     */
+    @Benchmark
+    public GfaParser importGfa() {
+        parser = new GfaParser(file.getAbsolutePath(), format);
+        parser.run();
+        return parser;
+    }
+
+    /**
+     * Closes the database of the import.
+     */
+    @TearDown(Level.Iteration)
+    public void close() {
+        if (parser != null) {
+            parser.close();
+        }
+        Fixtures.deleteDatabase(file);
+    }
+}
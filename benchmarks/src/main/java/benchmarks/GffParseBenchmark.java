@@ -0,0 +1,98 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import parser.GffParser;
+import structures.Annotation;
+import structures.AnnotationIndex;
+import tools.GfaGenerator;
+import tools.GffGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a GFF file into an annotation index, with its chunks parsed by one or
+ * more threads, and opening the index that was kept in the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GffParseBenchmark {
+
+    private static final int WINDOW = 100000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int annotations;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private File file;
+    private ImportedGraph imported;
+    private ExecutorService executor;
+
+    /**
+     * Generates the annotations on the imported graph.
+     *
+     * @param imported The imported graph.
+     * @throws IOException when the annotations can not be written.
+     */
+    @Setup
+    public void generate(ImportedGraph imported) throws IOException {
+        this.imported = imported;
+        file = Fixtures.file("annotations-" + annotations + ".gff");
+        new GffGenerator(GfaGenerator.genomeName(0), imported.genomeLength, Fixtures.SEED)
+                .write(file, annotations);
+        executor = Executors.newFixedThreadPool(threads);
+        GffParser parser = new GffParser(file.getAbsolutePath(), imported.parser);
+        parser.parseGff(executor, threads);
+        parser.close();
+    }
+
+    @TearDown
+    public void shutdown() {
+        executor.shutdown();
+        Fixtures.deleteDatabase(file);
+    }
+
+    @Benchmark
+    public AnnotationIndex parseGff() throws IOException {
+        return new GffParser(file.getAbsolutePath(), imported.parser, null)
+                .parseGff(executor, threads);
+    }
+
+    /**
+     * Opens the annotations that were parsed in the set up from the cache, and finds the
+     * annotations of the start of the genome, like the first frame does.
+     *
+     * @return the annotations at the start of the genome.
+     * @throws IOException when the annotations can not be read.
+     */
+    @Benchmark
+    public List<Annotation> reopenGff() throws IOException {
+        GffParser parser = new GffParser(file.getAbsolutePath(), imported.parser);
+        try {
+            return parser.parseGff().query(0, WINDOW);
+        } finally {
+            parser.close();
+        }
+    }
+}
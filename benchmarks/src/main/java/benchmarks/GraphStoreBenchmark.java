@@ -0,0 +1,70 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import store.GraphStore;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares random node lookups in the MapDB and the flat store,
+ * as done for every node of a sub graph and for the sequence of a clicked node.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GraphStoreBenchmark {
+
+    private static final int IDS = 4096;
+
+    private final int[] ids = new int[IDS];
+    private GraphStore store;
+    private int next;
+
+    /**
+     * Picks random node ids.
+     *
+     * @param imported The imported graph.
+     */
+    @Setup
+    public void setUp(ImportedGraph imported) {
+        store = imported.parser.getStore();
+        Random random = new Random(Fixtures.SEED);
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = 1 + random.nextInt(store.getMaxNodeId());
+        }
+    }
+
+    private int nextId() {
+        next = (next + 1) % IDS;
+        return ids[next];
+    }
+
+    @Benchmark
+    public String sequence() {
+        return store.getSequence(nextId());
+    }
+
+    @Benchmark
+    public int sequenceLength() {
+        return store.getSequenceLength(nextId());
+    }
+
+    @Benchmark
+    public int genomesAndOffsets() {
+        int id = nextId();
+        return store.getGenomes(id).length + store.getOffsets(id).length;
+    }
+}
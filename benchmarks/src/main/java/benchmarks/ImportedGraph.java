@@ -0,0 +1,71 @@
+package benchmarks;
+
+import graph.SequenceGraph;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import parser.GfaParser;
+import store.StoreFormat;
+import tools.GfaGenerator;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A synthetic graph that is generated and imported once per trial.
+ */
+@State(Scope.Benchmark)
+public class ImportedGraph {
+
+    @Param({"200000"})
+    public int nodes;
+
+    @Param({"8"})
+    public int genomes;
+
+    @Param({"MAPDB", "FLAT"})
+    public StoreFormat format;
+
+    public File file;
+    public GfaParser parser;
+    public int[] parentArray;
+    public int[] childArray;
+    public int genomeLength;
+
+    /**
+     * Generates and imports the graph.
+     *
+     * @throws IOException when the graph can not be written or read.
+     */
+    @Setup(Level.Trial)
+    public void importGraph() throws IOException {
+        file = Fixtures.file("graph-" + nodes + "-" + genomes + ".gfa");
+        GfaGenerator generator = new GfaGenerator(nodes, genomes, Fixtures.SEED);
+        generator.write(file);
+        genomeLength = (int) generator.getGenomeLength(0);
+        Fixtures.deleteDatabase(file);
+        parser = new GfaParser(file.getAbsolutePath(), format);
+        parser.run();
+        parentArray = parser.getParentArray();
+        childArray = parser.getChildArray();
+    }
+
+    /**
+     * @return A new graph on the imported data, without a sub graph.
+     */
+    public SequenceGraph newGraph() {
+        return new SequenceGraph(parentArray, childArray, parser.getStore());
+    }
+
+    /**
+     * Closes and removes the database.
+     */
+    @TearDown(Level.Trial)
+    public void close() {
+        parser.close();
+        Fixtures.deleteDatabase(file);
+    }
+}
@@ -0,0 +1,45 @@
+package benchmarks;
+
+import graph.SequenceGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating a sub graph around the middle of the graph, at the RENDER_RANGE
+ * the application uses and at smaller and larger ranges.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SubGraphBenchmark {
+
+    @Param({"1000", "4000", "16000"})
+    public int range;
+
+    private SequenceGraph graph;
+
+    @Setup
+    public void setUp(ImportedGraph imported) {
+        graph = imported.newGraph();
+    }
+
+    @Benchmark
+    public SequenceGraph createSubGraph(ImportedGraph imported) {
+        graph.createSubGraph(imported.nodes / 2, range);
+        return graph;
+    }
+}
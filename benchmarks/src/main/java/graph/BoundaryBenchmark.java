@@ -0,0 +1,38 @@
+package graph;
+
+import benchmarks.ImportedGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the boundary of a sub graph in the edge arrays.
+ * Lives in the graph package because Boundary is package private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BoundaryBenchmark {
+
+    @Param({"1000", "4000", "16000"})
+    public int range;
+
+    @Benchmark
+    public int boundary(ImportedGraph graph) {
+        Boundary boundary = new Boundary(graph.nodes / 2, range,
+                graph.parentArray, graph.childArray);
+        return boundary.getRightBoundIndex() - boundary.getLeftBoundIndex();
+    }
+}
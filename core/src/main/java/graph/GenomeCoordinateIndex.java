@@ -0,0 +1,96 @@
+package graph;
+
+import perf.FlightEvents;
+import store.GraphStore;
+
+/**
+ * Finds the node that contains a coordinate of a genome.
+ * <p>
+ * The coordinates of a genome increase with the node ids, so the nodes are searched
+ * by halving the range of ids. Nodes that the genome does not go through are skipped.
+ */
+public class GenomeCoordinateIndex {
+
+    private final GraphStore store;
+
+    private int genome;
+    private int lookups;
+
+    /**
+     * Constructor.
+     *
+     * @param store the store with the genomes, coordinates and sequences of every node.
+     */
+    public GenomeCoordinateIndex(GraphStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Finds the node that contains a coordinate.
+     *
+     * @param coordinate the coordinate on the genome.
+     * @param genomeID   the id of the genome.
+     * @return the id of the node.
+     * @throws StackOverflowError when the graph is too complex to find the node.
+     */
+    public synchronized int find(int coordinate, int genomeID) throws StackOverflowError {
+        genome = genomeID;
+        long start = System.nanoTime();
+        lookups = 0;
+        int node = divideAndConquer(1, store.getMaxNodeId(), coordinate, 0);
+        FlightEvents.mapLookups("genome coordinate search", lookups, System.nanoTime() - start);
+        return node;
+    }
+
+    /**
+     * Searches the nodes between lower and upper.
+     *
+     * @param lower      the lowest node id.
+     * @param upper      the highest node id.
+     * @param coordinate the coordinate on the genome.
+     * @param offSet     the number of nodes after the median without the genome.
+     * @return the id of the node.
+     */
+    private int divideAndConquer(int lower, int upper, int coordinate, int offSet) {
+        int median = ((lower + upper) / 2) + offSet;
+        lookups++;
+        int[] offSets = store.getOffsets(median);
+        int[] genomes = store.getGenomes(median);
+        int index = indexOf(genomes, genome);
+        if (index < 0) {
+            return divideAndConquer(lower, upper, coordinate, offSet + 1);
+        }
+
+        if (genomes.length != offSets.length) {
+            index = 0;
+        }
+
+        if (offSets[index] <= coordinate && offSets[index]
+                + store.getSequenceLength(median) >= coordinate) {
+            return median;
+        } else if (offSets[index] > coordinate) {
+            // The nodes skipped by offSet do not contain the genome, so search left of them.
+            return divideAndConquer(lower, median - offSet, coordinate, 0);
+        } else {
+            return divideAndConquer(median, upper, coordinate, 0);
+        }
+    }
+
+    /**
+     * Finds the position of a genome in the genomes of a node.
+     *
+     * @param genomes the genomes of the node.
+     * @param genome  the genome to find.
+     * @return the position, or -1 if the node does not contain the genome.
+     */
+    private static int indexOf(int[] genomes, int genome) {
+        if (genomes != null) {
+            for (int i = 0; i < genomes.length; i++) {
+                if (genomes[i] == genome) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -1,6 +1,9 @@
 package graph;
 
-import org.mapdb.BTreeMap;
+import perf.FlightEvents;
+import perf.PerformanceMonitor;
+import perf.Phase;
+import store.GraphStore;
 
 import java.util.ArrayList;
 import java.util.Map;
@@ -22,9 +25,7 @@ public class SequenceGraph {
     private int dummyNodeIDCounter = -1;
     private int maxColumnSize;
     private Boundary boundaries;
-    private BTreeMap<Long, String> sequenceHashMap;
-    private BTreeMap<Integer, int[]> offSetsMap;
-    private BTreeMap<Integer, int[]> genomesMap;
+    private GraphStore store;
 
     private TreeMap<Integer, SequenceNode> nodes;
     private ArrayList<ArrayList<SequenceNode>> columns;
@@ -34,15 +35,12 @@ public class SequenceGraph {
      *
      * @param parentArray     - the parent array for edges.
      * @param childArray      - the child array for edges.
-     * @param sequenceHashMap - the sequenceHashMap.
+     * @param store       - the store with the sequences, genomes and offsets of the nodes.
      */
-    public SequenceGraph(final int[] parentArray, final int[] childArray,
-                         BTreeMap<Long, String> sequenceHashMap, BTreeMap<Integer, int[]> offSetsMap, BTreeMap<Integer, int[]> genomesMap) {
-        this.sequenceHashMap = sequenceHashMap;
+    public SequenceGraph(final int[] parentArray, final int[] childArray, GraphStore store) {
+        this.store = store;
         this.parentArray = parentArray;
         this.childArray = childArray;
-        this.offSetsMap = offSetsMap;
-        this.genomesMap = genomesMap;
     }
 
     /**
@@ -73,43 +71,62 @@ public class SequenceGraph {
         this.nodes = new TreeMap<>();
         this.columns = new ArrayList<>();
 
+        long start = System.nanoTime();
         Boundary boundary = new Boundary(centerNodeID, range, parentArray, childArray);
         this.centerNodeID = centerNodeID;
         this.boundaries = boundary;
         initNodes();
+        long genomeStart = System.nanoTime();
         initGenomes();
+        long layoutStart = System.nanoTime();
         findLongestPath();
         addDummies();
         this.columns = initColumns();
+        long lengthStart = System.nanoTime();
         assignSequenceLenghts();
+        long end = System.nanoTime();
+
+        PerformanceMonitor monitor = PerformanceMonitor.getInstance();
+        monitor.record(Phase.GENOME_LOAD, layoutStart - genomeStart);
+        monitor.record(Phase.LAYOUT, lengthStart - layoutStart);
+        monitor.record(Phase.SUBGRAPH, end - start);
+        FlightEvents.subGraph(centerNodeID, range, nodes.size(), genomeStart - start,
+                layoutStart - genomeStart, lengthStart - layoutStart, end - lengthStart);
     }
 
     /**
      * Initialize the genomes.
      */
     private void initGenomes() {
+        long start = System.nanoTime();
         for (Object o : nodes.entrySet()) {
             Map.Entry pair = (Map.Entry) o;
             SequenceNode node = (SequenceNode) pair.getValue();
-            node.setOffSets(offSetsMap.get(node.getId()));
-            node.setGenomes(genomesMap.get(node.getId()));
+            node.setOffSets(store.getOffsets(node.getId()));
+            node.setGenomes(store.getGenomes(node.getId()));
         }
+        FlightEvents.mapLookups("genomes and offSets", 2 * nodes.size(),
+                System.nanoTime() - start);
     }
 
     /**
      * Assign the sequence lengths.
      */
     private void assignSequenceLenghts() {
+        long start = System.nanoTime();
+        int lookups = 0;
         for (Object o : nodes.entrySet()) {
             Map.Entry pair = (Map.Entry) o;
             SequenceNode node = (SequenceNode) pair.getValue();
             if (!node.isDummy()) {
-                String sequence = sequenceHashMap.get((long) node.getId());
-                if (sequence != null) {
-                    node.setSequenceLength(sequence.length());
+                int length = store.getSequenceLength(node.getId());
+                lookups++;
+                if (length >= 0) {
+                    node.setSequenceLength(length);
                 }
             }
         }
+        FlightEvents.mapLookups("sequence", lookups, System.nanoTime() - start);
     }
 
     /**
@@ -311,12 +328,12 @@ public class SequenceGraph {
     }
 
     /**
-     * Make a copy of the graph with the values of parrentArray, childArray and sequenceHashMap.
+     * Make a copy of the graph with the values of parrentArray, childArray and store.
      *
      * @return Copy of the graph.
      */
     public SequenceGraph copy() {
-        return new SequenceGraph(parentArray, childArray, sequenceHashMap, offSetsMap, genomesMap);
+        return new SequenceGraph(parentArray, childArray, store);
     }
 
 
@@ -377,14 +394,7 @@ public class SequenceGraph {
         return maxColumnSize;
     }
 
-    public BTreeMap<Integer, int[]> getOffSetsMap() {
-        return offSetsMap;
-    }
-
-    public BTreeMap<Integer, int[]> getGenomesMap() {
-        return genomesMap;
-    }
-    public BTreeMap<Long, String> getSequenceHashMap() {
-        return sequenceHashMap;
+    public GraphStore getStore() {
+        return store;
     }
 }
@@ -1,8 +1,8 @@
 package graph;
 
-import gui.DrawableCanvas;
-
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * Class Node2, which represents sequences of DNA. A sequence is a part of a genome.
@@ -222,14 +222,25 @@ public class SequenceNode {
      * Forms a string of the sequence node.
      *
      * @param sequence With it's sequence which we do not constantly want in memory
-     * @return A string representation of the node.
+     * @return A string representation of the node, with the ids of its genomes.
      */
     public String toString(String sequence) {
+        return toString(sequence, Collections.emptyMap());
+    }
+
+    /**
+     * Forms a string of the sequence node.
+     *
+     * @param sequence    With it's sequence which we do not constantly want in memory
+     * @param genomeNames The names of the genomes by id, genomes without a name show their id.
+     * @return A string representation of the node.
+     */
+    public String toString(String sequence, Map<Integer, String> genomeNames) {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append("Node ID:\t\t\t").append(this.id).append("\n");
         stringBuilder.append("SequenceLength:\t").append(this.sequenceLength).append("\n");
         appendSequence(sequence, stringBuilder);
-        appendGenomes(stringBuilder);
+        appendGenomes(stringBuilder, genomeNames);
         appendGenomeCoords(stringBuilder);
         return stringBuilder.toString();
     }
@@ -252,12 +263,14 @@ public class SequenceNode {
     /**
      * Appends genomes to a string builder.
      * @param stringBuilder string builder to append to.
+     * @param genomeNames the names of the genomes by id.
      */
-    private void appendGenomes(StringBuilder stringBuilder) {
+    private void appendGenomes(StringBuilder stringBuilder, Map<Integer, String> genomeNames) {
         if (this.getGenomes().length != 0) {
             stringBuilder.append("Genomes:\t\t");
             for (Integer i: this.getGenomes()) {
-                stringBuilder.append(DrawableCanvas.getInstance().getAllGenomesReversed().get(i)).append(" ");
+                String name = genomeNames.get(i);
+                stringBuilder.append(name == null ? String.valueOf(i) : name).append(" ");
             }
             stringBuilder.append("\n");
         }
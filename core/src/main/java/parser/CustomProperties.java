@@ -1,9 +1,10 @@
-package gui;
+package parser;
 
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * Created by Jip on 7-6-2017.
@@ -14,6 +15,11 @@ import java.io.IOException;
 public class CustomProperties extends java.util.Properties {
 
     private static final String PROPERY_FILENAME = "properties.txt";
+    /**
+     * Graphs can be imported in parallel, so reading and writing the file is done by one
+     * thread at a time.
+     */
+    private static final Object FILE_LOCK = new Object();
 
     /**
      * Constructor of the customProperties to put and get from.
@@ -27,6 +33,15 @@ public class CustomProperties extends java.util.Properties {
      * Does so by loading the appropriate file.
      */
     public void updateProperties() {
+        synchronized (FILE_LOCK) {
+            loadProperties();
+        }
+    }
+
+    /**
+     * Loads the file into this object.
+     */
+    private void loadProperties() {
         try {
             FileReader fileReader = new FileReader(PROPERY_FILENAME);
             try {
@@ -49,6 +64,29 @@ public class CustomProperties extends java.util.Properties {
      * Does so by storing it to the appropriate file
      */
     public void saveProperties() {
+        synchronized (FILE_LOCK) {
+            storeProperties();
+        }
+    }
+
+    /**
+     * Reloads the file, sets the given properties and saves the file, without other threads
+     * changing the file in between. Properties other threads saved in the meantime are kept.
+     *
+     * @param changes the properties to set.
+     */
+    public void saveProperties(Map<String, String> changes) {
+        synchronized (FILE_LOCK) {
+            loadProperties();
+            putAll(changes);
+            storeProperties();
+        }
+    }
+
+    /**
+     * Stores this object in the file.
+     */
+    private void storeProperties() {
         try {
             FileWriter fileWriter = new FileWriter(PROPERY_FILENAME);
             try {
@@ -0,0 +1,496 @@
+package parser;
+
+import perf.FlightEvents;
+import perf.PerformanceMonitor;
+import perf.Phase;
+import store.GraphStore;
+import store.MemoryGraphStore;
+import store.StorageMode;
+import store.StoreFormat;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Observable;
+import java.util.regex.Pattern;
+
+/**
+ * This class contains a parser to parse a .gfa file into our data structure.
+ * The graph is stored in a GraphStore in the entry of the file in a GraphCache, the default
+ * one unless another is given, or in memory when the file is small or memory is asked for.
+ */
+public class GfaParser extends Observable implements Runnable {
+    private static final int PROGRESS_LINES = 100000;
+
+    private GraphStore store;
+    private OverviewPyramid overview;
+
+    private String filePath;
+
+    private String partPath;
+    private GraphCache.Entry entry;
+    private StoreFormat format;
+    private final StorageMode mode;
+    private final GraphCache cache;
+    private int maxCor = -1;
+
+    private HashMap<String, Integer> genomesMap;
+    private HashMap<Integer, String> reversedGenomesMap;
+
+    /**
+     * Constructor.
+     *
+     * @param absolutePath The path location of the file.
+     */
+    public GfaParser(String absolutePath) {
+        this(absolutePath, StorageMode.AUTO, null, GraphCache.getDefault());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param absolutePath The path location of the file.
+     * @param mode         Where to keep the graph.
+     */
+    public GfaParser(String absolutePath, StorageMode mode) {
+        this(absolutePath, mode, null, GraphCache.getDefault());
+    }
+
+    /**
+     * Constructor, keeps the graph on disk.
+     *
+     * @param absolutePath The path location of the file.
+     * @param format       The format to store the graph in when it is imported,
+     *                     or null for the format of the GraphCache.
+     */
+    public GfaParser(String absolutePath, StoreFormat format) {
+        this(absolutePath, StorageMode.DISK, format);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param absolutePath The path location of the file.
+     * @param mode         Where to keep the graph.
+     * @param format       The format to store the graph in when it is imported on disk,
+     *                     or null for the format of the GraphCache.
+     */
+    public GfaParser(String absolutePath, StorageMode mode, StoreFormat format) {
+        this(absolutePath, mode, format, GraphCache.getDefault());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param absolutePath The path location of the file.
+     * @param mode         Where to keep the graph.
+     * @param cache        The cache to keep the graph in.
+     */
+    public GfaParser(String absolutePath, StorageMode mode, GraphCache cache) {
+        this(absolutePath, mode, null, cache);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param absolutePath The path location of the file.
+     * @param mode         Where to keep the graph.
+     * @param format       The format to store the graph in when it is imported on disk,
+     *                     or null for the format of the cache.
+     * @param cache        The cache to keep the graph in.
+     */
+    public GfaParser(String absolutePath, StorageMode mode, StoreFormat format,
+                     GraphCache cache) {
+        filePath = absolutePath;
+        this.mode = mode;
+        this.format = format;
+        this.cache = cache;
+    }
+
+    /**
+     * Getter for the path the file is stored.
+     *
+     * @return the Path.
+     */
+    public String getPartPath() {
+        return this.partPath;
+    }
+
+    @Override
+    public void run() {
+        try {
+            parse();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Opens the database of the file, and creates it first if the file was not imported yet.
+     *
+     * @throws IOException when the file can not be read or the database can not be written.
+     */
+    public void parse() throws IOException {
+        parseGraph(filePath);
+    }
+
+    /**
+     * Getter for the filePath.
+     *
+     * @return the filePath.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Getter for the store of the graph, which is available after parsing.
+     *
+     * @return the store.
+     */
+    public synchronized GraphStore getStore() {
+        return store;
+    }
+
+    /**
+     * Getter for the entry of the file in the cache, which is opened on first use.
+     *
+     * @return the entry.
+     * @throws IOException when the file can not be read.
+     */
+    public synchronized GraphCache.Entry getCacheEntry() throws IOException {
+        if (entry == null) {
+            entry = cache.open(new File(filePath));
+        }
+        return entry;
+    }
+
+    /**
+     * @return The cache the graph is kept in.
+     */
+    public GraphCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return The highest coordinate of the graph, or -1 if unknown.
+     */
+    public synchronized int getMaxCor() {
+        return maxCor;
+    }
+
+    /**
+     * Resolves the storage mode. AUTO keeps files below the memory threshold of the
+     * cache in memory.
+     *
+     * @return True if the graph is kept in memory, without an entry in the GraphCache.
+     */
+    public boolean isInMemory() {
+        if (mode == StorageMode.AUTO) {
+            return new File(filePath).length() < cache.getMemoryThreshold();
+        }
+        return mode == StorageMode.MEMORY;
+    }
+
+    /**
+     * Closes the store and releases the entry of the file, so it can be evicted.
+     */
+    public synchronized void close() {
+        if (store != null) {
+            store.close();
+        }
+        if (entry != null) {
+            cache.release(entry);
+        }
+    }
+
+
+    /**
+     * This method parses the file specified in filepath into a sequence graph.
+     *
+     * @param filePath A string specifying where the file is stored.
+     * @throws IOException For instance when the file is not found
+     */
+    @SuppressWarnings("Since15")
+    private synchronized void parseGraph(String filePath) throws IOException {
+        String pattern = Pattern.quote(System.getProperty("file.separator"));
+        String[] partPaths = filePath.split(pattern);
+        partPath = partPaths[partPaths.length - 1];
+        if (isInMemory()) {
+            store = new MemoryGraphStore();
+            parseHeaders();
+            long start = PerformanceMonitor.getInstance().start();
+            parseSpecific(filePath);
+            PerformanceMonitor.getInstance().stop(Phase.PARSE, start);
+            notifyParsed();
+            return;
+        }
+        GraphCache.Entry cacheEntry = getCacheEntry();
+        if (cacheEntry.isComplete() || cacheEntry.isInterrupted()) {
+            format = cacheEntry.getFormat();
+        } else if (format == null) {
+            format = cache.getFormat();
+        }
+        store = format.open(cacheEntry.getDirectory(), partPath);
+        if (store.isImported()) {
+            overview = OverviewPyramid.load(store);
+            maxCor = cacheEntry.getMaxCor();
+            parseHeaders();
+        } else {
+            cacheEntry.markStarted(format);
+            parseHeaders();
+            long start = PerformanceMonitor.getInstance().start();
+            int edges = parseSpecific(filePath);
+            PerformanceMonitor.getInstance().stop(Phase.PARSE, start);
+            cacheEntry.markComplete(edges, maxCor);
+            cache.evict();
+        }
+        notifyParsed();
+    }
+
+    /**
+     * Tells the observers that the graph can be drawn.
+     */
+    private void notifyParsed() {
+        this.setChanged();
+        this.notifyObservers(1);
+        this.setChanged();
+        this.notifyObservers(partPath);
+    }
+
+    private void parseHeaders() throws IOException {
+        InputStream in = new FileInputStream(filePath);
+        BufferedReader br = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        String line;
+        while ((line = br.readLine()) != null) {
+            if (line.startsWith("H")) {
+                String header = line.split("\t")[1];
+                if (header.startsWith("ORI:Z:")) {
+                    String allGenomes = header.split(":")[2];
+                    setAllGenomesMap(allGenomes);
+                }
+            }
+            if (line.startsWith("S")) {
+                break;
+            }
+        }
+        in.close();
+        br.close();
+    }
+
+    /**
+     * Getter for the overview of the whole graph.
+     * Databases created before the overview existed get it built and stored on first use.
+     *
+     * @return The overview pyramid.
+     * @throws IOException when the edges can not be read.
+     */
+    public synchronized OverviewPyramid getOverview() throws IOException {
+        if (overview == null) {
+            overview = OverviewPyramid.build(store);
+            overview.store(store);
+            store.commit();
+        }
+        return overview;
+    }
+
+    /**
+     * Parses the file into the store. Creates the Graph
+     *
+     * @param filePath The file to parse/
+     * @return The number of edges.
+     * @throws IOException Reader.
+     */
+    private synchronized int parseSpecific(String filePath) throws IOException {
+        InputStream in = new FileInputStream(filePath);
+        BufferedReader br = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        String line;
+        int sizeOfFile = 0;
+        int segments = 0;
+        int lines = 0;
+        long bytes = 0;
+        int maxCor = Integer.MIN_VALUE;
+        OverviewPyramid.Builder overviewBuilder = new OverviewPyramid.Builder();
+        while ((line = br.readLine()) != null) {
+            bytes += line.length() + 1;
+            if (++lines % PROGRESS_LINES == 0) {
+                FlightEvents.parseProgress(filePath, bytes, segments, sizeOfFile, false);
+            }
+            if (line.startsWith("S")) {
+                segments++;
+                String[] data = line.split(("\t"));
+                int id = Integer.parseInt(data[1]);
+                int[] genomeInts = null;
+                int[] offSetInts = null;
+                for (String aData : data) {
+                    if (aData.startsWith("ORI:Z:")) {
+                        genomeInts = parseGenomes(aData.split(":")[2].split(";"));
+                    } else if (aDataStartsWithCorrect(aData)) {
+                        String offSets = aData.split(":")[2];
+                        String[] offSetStrings = offSets.split(";");
+                        offSetInts = new int[offSetStrings.length];
+                        maxCor = getMaxCor(maxCor, offSetStrings);
+                        for (int i = 0; i < offSetStrings.length; i++) {
+                            offSetInts[i] = Integer.parseInt(offSetStrings[i]);
+                        }
+                    }
+                }
+                store.putNode(id, data[2], genomeInts, offSetInts);
+                overviewBuilder.addSegment(id, genomeInts == null ? 0 : genomeInts.length,
+                        data[2].length());
+
+            } else if (line.startsWith("L")) {
+                overviewBuilder.addLink(writeEdge(line));
+                sizeOfFile++;
+            }
+        }
+        in.close();
+        br.close();
+        FlightEvents.parseProgress(filePath, bytes, segments, sizeOfFile, true);
+        overview = overviewBuilder.build();
+        overview.store(store);
+        store.commit();
+        this.maxCor = maxCor;
+        return sizeOfFile;
+    }
+
+    /**
+     * checks if aData starts with the correct strings.
+     *
+     * @param aData - the data string
+     * @return - boolean true or false
+     */
+    private boolean aDataStartsWithCorrect(String aData) {
+        return aData.startsWith("START:Z:")
+                || aData.startsWith("OFFSETS:i:")
+                || aData.startsWith("OFFSETS:Z:");
+    }
+
+    /**
+     * Writes an edge to the store.
+     *
+     * @param line         - line to write
+     * @return - the id of the parent of the edge
+     * @throws IOException if something goes wrong with the store.
+     */
+    private int writeEdge(String line) throws IOException {
+        String[] edgeDataString = line.split("\t");
+        int parentId = Integer.parseInt(edgeDataString[1]);
+        int childId = Integer.parseInt(edgeDataString[3]);
+        store.putEdge(parentId, childId);
+        return parentId;
+    }
+
+    /**
+     * Get the highest coordinate from the offsets.
+     *
+     * @param maxCor        - the current highest coord.
+     * @param offSetStrings - the strings which are compared.
+     * @return - the max coordinate.
+     */
+    private int getMaxCor(int maxCor, String[] offSetStrings) {
+        int tempOffSetInt;
+        for (String singleOffSet : offSetStrings) {
+            tempOffSetInt = Integer.parseInt(singleOffSet);
+            if (tempOffSetInt > maxCor) {
+                maxCor = tempOffSetInt;
+            }
+        }
+        return maxCor;
+    }
+
+    /**
+     * Converts the genomes of a node to their ids.
+     *
+     * @param genomes - the names of the genomes
+     * @return - the ids of the genomes
+     */
+    private int[] parseGenomes(String[] genomes) {
+        int[] genomeInts = new int[genomes.length];
+        for (int i = 0; i < genomes.length; i++) {
+            String[] name = genomes[i].split("\\.");
+            String nameGenome = "";
+            for (int j = 0; j < name.length - 1; j++) {
+                nameGenome = nameGenome.concat(name[j]);
+            }
+            if (genomesMap.get(nameGenome) != null) {
+                genomeInts[i] = genomesMap.get(nameGenome);
+            } else {
+                genomeInts[i] = Integer.parseInt(genomes[i]);
+            }
+        }
+        return genomeInts;
+    }
+
+    /**
+     * Reads the parents or children of all edges from the store.
+     *
+     * @param isParent - is parent boolean
+     * @return - the int[]
+     * @throws IOException - when the store can not be read.
+     */
+    private int[] read(boolean isParent) throws IOException {
+        long start = PerformanceMonitor.getInstance().start();
+        int[] nodeArray = isParent ? store.getParentArray() : store.getChildArray();
+        if (nodeArray != null) {
+            PerformanceMonitor.getInstance().stop(Phase.EDGE_LOAD, start);
+        }
+        return nodeArray;
+    }
+
+    /**
+     * Wrapper for read function to get the childArray.
+     *
+     * @return the childArray.
+     * @throws IOException - reads a file, so it might cause IO Exceptions.
+     */
+    public int[] getParentArray() throws IOException {
+        return read(true);
+    }
+
+    /**
+     * wrapper for read function to get the parentArray.
+     *
+     * @return the parentArray
+     * @throws IOException - reads a file, so it might cause IO Exceptions
+     */
+    public int[] getChildArray() throws IOException {
+        return read(false);
+    }
+
+    /**
+     * puts the genomes in maps with indices.
+     *
+     * @param allGenomes - string containing genomes.
+     */
+    private void setAllGenomesMap(String allGenomes) {
+        String[] strNums = allGenomes.split(";");
+        this.genomesMap = new HashMap<String, Integer>();
+        this.reversedGenomesMap = new HashMap<Integer, String>();
+        for (int i = 0; i < strNums.length; i++) {
+            String[] nameGenomes = strNums[i].split("\\.");
+            String nameGenome = "";
+            for (int j = 0; j < nameGenomes.length - 1; j++) {
+                nameGenome = nameGenome.concat(nameGenomes[j]);
+            }
+            if (nameGenomes.length == 1) {
+                nameGenome = nameGenomes[0];
+            }
+            this.genomesMap.put(nameGenome, i);
+            this.reversedGenomesMap.put(i, nameGenome);
+        }
+    }
+
+    public HashMap<String, Integer> getAllGenomesMap() {
+        return genomesMap;
+    }
+
+    /**
+     * @return The map with the genomes.
+     */
+    public HashMap<Integer, String> getAllGenomesMapReversed() {
+        return reversedGenomesMap;
+    }
+
+}
@@ -0,0 +1,188 @@
+package parser;
+
+import structures.AnnotationStore;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.concurrent.Callable;
+
+/**
+ * Parses a chunk of whole lines of a Gff file into annotations.
+ * <p>
+ * The lines are read as bytes, without splitting them into Strings. Tabs, dots and
+ * semicolons are ASCII, so they can not be part of a multi byte UTF-8 character.
+ */
+@SuppressWarnings("MagicNumber") //Because it is a parser we know what kind of file we expect and how its built.
+final class GffChunk implements Callable<GffChunk> {
+
+    private static final int COLUMNS = 9;
+
+    private final byte[] bytes;
+    private final int length;
+    private final int[] columns = new int[COLUMNS];
+    private final LinkedHashSet<String> genomes = new LinkedHashSet<>();
+    private byte[] info = new byte[256];
+    private byte[] lastSequence;
+
+    private AnnotationStore annotations;
+
+    /**
+     * Constructor.
+     *
+     * @param bytes  the chunk, which ends at the end of a line or of the file.
+     * @param length  the number of bytes of the chunk.
+     */
+    GffChunk(byte[] bytes, int length) {
+        this.bytes = bytes;
+        this.length = length;
+    }
+
+    @Override
+    public GffChunk call() throws IOException {
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        int position = 0;
+        while (position < length) {
+            int end = position;
+            while (end < length && bytes[end] != '\n') {
+                end++;
+            }
+            int lineEnd = end > position && bytes[end - 1] == '\r' ? end - 1 : end;
+            if (lineEnd > position && bytes[position] != '#') {
+                parseLine(position, lineEnd, builder);
+            }
+            position = end + 1;
+        }
+        annotations = builder.build();
+        return this;
+    }
+
+    /**
+     * Adds the annotation on a line.
+     *
+     * @param from    the first byte of the line.
+     * @param to      the end of the line, exclusive.
+     * @param builder the builder to add the annotation to.
+     * @throws IOException if the line does not have all columns.
+     */
+    private void parseLine(int from, int to, AnnotationStore.Builder builder) throws IOException {
+        int column = 0;
+        columns[column++] = from;
+        for (int i = from; i < to && column < COLUMNS; i++) {
+            if (bytes[i] == '\t') {
+                columns[column++] = i + 1;
+            }
+        }
+        if (column < COLUMNS) {
+            throw new IOException("Not an annotation: "
+                    + new String(bytes, from, to - from, StandardCharsets.UTF_8));
+        }
+        int infoEnd = columns[8];
+        while (infoEnd < to && bytes[infoEnd] != '\t') {
+            infoEnd++;
+        }
+
+        useGenome(columns[0], columns[1] - 1);
+        int start = parseInt(columns[3], columns[4] - 1);
+        int end = parseInt(columns[4], columns[5] - 1);
+        builder.add(start, end, attributes(columns[8], infoEnd), 0, infoEnd - columns[8]);
+    }
+
+    /**
+     * Moves the genome of a sequence id to the end of the genomes. The lines of a file are
+     * mostly about the same sequence, so the last one is remembered.
+     *
+     * @param from the first byte of the sequence id.
+     * @param to   the end of the sequence id, exclusive.
+     */
+    private void useGenome(int from, int to) {
+        if (lastSequence == null || !sameAsLast(from, to)) {
+            lastSequence = Arrays.copyOfRange(bytes, from, to);
+            String name = genomeName(new String(lastSequence, StandardCharsets.UTF_8));
+            genomes.remove(name);
+            genomes.add(name);
+        }
+    }
+
+    /**
+     * The name of the genome of a sequence id, which is the id without its version.
+     *
+     * @param sequence the sequence id.
+     * @return the name of the genome.
+     */
+    private static String genomeName(String sequence) {
+        String[] nameGenomes = sequence.split("\\.");
+        StringBuilder nameGenome = new StringBuilder();
+        for (int i = 0; i < nameGenomes.length - 1; i++) {
+            nameGenome.append(nameGenomes[i]);
+        }
+        return nameGenome.toString();
+    }
+
+    private boolean sameAsLast(int from, int to) {
+        if (lastSequence.length != to - from) {
+            return false;
+        }
+        for (int i = 0; i < lastSequence.length; i++) {
+            if (lastSequence[i] != bytes[from + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseInt(int from, int to) {
+        if (from == to) {
+            throw new NumberFormatException("Empty coordinate");
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Not a coordinate: "
+                        + new String(bytes, from, to - from, StandardCharsets.UTF_8));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Copies the attribute column, with tabs instead of the semicolons between attributes.
+     *
+     * @param from the first byte of the column.
+     * @param to   the end of the column, exclusive.
+     * @return a buffer that starts with the attributes.
+     */
+    private byte[] attributes(int from, int to) {
+        if (to - from > info.length) {
+            info = new byte[to - from];
+        }
+        for (int i = from; i < to; i++) {
+            info[i - from] = bytes[i] == ';' ? (byte) '\t' : bytes[i];
+        }
+        return info;
+    }
+
+    /**
+     * @return the number of bytes of the chunk.
+     */
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * @return the annotations of the chunk, once it is parsed.
+     */
+    AnnotationStore getAnnotations() {
+        return annotations;
+    }
+
+    /**
+     * @return the names of the genomes of the lines, ordered by the last line that named them.
+     */
+    LinkedHashSet<String> getGenomes() {
+        return genomes;
+    }
+}
@@ -0,0 +1,343 @@
+package parser;
+
+import structures.AnnotationIndex;
+import structures.AnnotationStore;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Created by lex_b on 12/06/2017.
+ *
+ * A Gff file parser that can parse the data into annotations.
+ * <p>
+ * The file is read in chunks of whole lines, which can be parsed in parallel. The chunks are
+ * added in the order of the file, so the ids of the annotations do not depend on the threads.
+ * While parsing, the observers are notified of the progress as a Double between 0 and 1,
+ * and of the annotations so far as an AnnotationIndex, every time their number doubled
+ * and once at the end. These indices share whether their annotations are selected.
+ * <p>
+ * The parsed annotations are written to the entry of the file in the GraphCache, with the
+ * genomes the file names, and are then mapped from there, so the annotations of many files
+ * can be loaded without keeping them on the heap. The next time the file is opened, the index
+ * is mapped right away, so only the annotations that are looked at are read. Which genome
+ * is suggested is decided against the graph every time, so the entry does not depend on the
+ * graph. The entry stays open while the mapped annotations are used, so it is not evicted,
+ * until the parser is closed. Several parsers can run at the same time, on the same executor.
+ */
+public class GffParser extends Observable {
+    private static final int CHUNK_SIZE = 1 << 22;
+    private static final int FIRST_UPDATE = 4096;
+    private static final String ANNOTATIONS = "annotations.idx";
+    private static final String GENOMES = "genomes.txt";
+
+    private String filePath;
+    private GfaParser graph;
+    private GraphCache cache;
+    private GraphCache.Entry entry;
+    private volatile int suggestedGenome;
+    private long parsedBytes;
+    private int publishedSize;
+    private LinkedHashSet<String> genomes;
+
+    /**
+     * Constructor, keeps the annotations in the cache of the graph, or in the default
+     * GraphCache if there is no graph.
+     *
+     * @param absolutePath The path location of the file.
+     * @param graph        The parser of the graph the annotations belong to.
+     */
+    public GffParser(String absolutePath, GfaParser graph) {
+        this(absolutePath, graph, graph == null ? GraphCache.getDefault() : graph.getCache());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param absolutePath The path location of the file.
+     * @param graph        The parser of the graph the annotations belong to.
+     * @param cache        The cache to keep the annotations in, or null to always parse.
+     */
+    public GffParser(String absolutePath, GfaParser graph, GraphCache cache) {
+        filePath = absolutePath;
+        this.graph = graph;
+        this.cache = cache;
+    }
+
+    /**
+     * Parses the file on this thread.
+     *
+     * @return an index of the Annotations.
+     * @throws IOException If it goes wrong.
+     */
+    public AnnotationIndex parseGff() throws IOException {
+        return parseGff(Runnable::run, 1);
+    }
+
+    /**
+     * Parses the chunks of the file on an executor and adds them together on this thread.
+     * The parser has to be closed when the annotations are no longer used.
+     *
+     * @param executor the executor to parse the chunks on.
+     * @param threads  the number of chunks that are parsed at the same time.
+     * @return an index of the Annotations.
+     * @throws IOException If it goes wrong, or if this thread is interrupted.
+     */
+    public AnnotationIndex parseGff(Executor executor, int threads) throws IOException {
+        genomes = new LinkedHashSet<>();
+        AnnotationIndex index = cache == null ? null : openCached();
+        if (index == null) {
+            index = parse(executor, threads);
+            if (cache != null) {
+                index = store(index);
+            }
+        }
+        suggestedGenome = suggestGenome();
+        notifyParsed(1.0);
+        notifyParsed(index);
+        return index;
+    }
+
+    private AnnotationIndex parse(Executor executor, int threads) throws IOException {
+        AnnotationStore.Builder annotations = new AnnotationStore.Builder();
+        Deque<FutureTask<GffChunk>> pending = new ArrayDeque<>();
+        long total = new File(filePath).length();
+        parsedBytes = 0;
+        publishedSize = 0;
+        try (InputStream in = new FileInputStream(filePath)) {
+            ChunkReader reader = new ChunkReader(in);
+            GffChunk next = reader.next();
+            while (next != null || !pending.isEmpty()) {
+                if (next != null && pending.size() < threads) {
+                    FutureTask<GffChunk> task = new FutureTask<>(next);
+                    pending.add(task);
+                    executor.execute(task);
+                    next = reader.next();
+                } else {
+                    add(await(pending.poll()), annotations, total);
+                }
+            }
+        } finally {
+            for (FutureTask<GffChunk> task : pending) {
+                task.cancel(false);
+            }
+        }
+        return new AnnotationIndex(annotations.build());
+    }
+
+    /**
+     * Maps the annotations of the file if they were parsed before.
+     *
+     * @return the annotations, or null if they have to be parsed.
+     */
+    private AnnotationIndex openCached() {
+        GraphCache.Entry opened = null;
+        try {
+            opened = cache.open(new File(filePath));
+            File annotations = opened.getFile(ANNOTATIONS);
+            if (!annotations.exists()) {
+                return null;
+            }
+            genomes.addAll(Files.readAllLines(opened.getFile(GENOMES).toPath(),
+                    StandardCharsets.UTF_8));
+            AnnotationIndex index = AnnotationIndex.open(annotations);
+            keep(opened);
+            opened = null;
+            return index;
+        } catch (IOException e) {
+            System.err.println("Can not open the annotations of " + filePath + ": "
+                    + e.getMessage());
+            return null;
+        } finally {
+            if (opened != null) {
+                cache.release(opened);
+            }
+        }
+    }
+
+    /**
+     * Writes the annotations to the entry of the file and maps them again. The index is
+     * written last and moved into place, so an interrupted write is parsed again.
+     *
+     * @param index the annotations.
+     * @return the mapped annotations, which are selected together with the given ones,
+     * or the given annotations if they could not be written.
+     */
+    private AnnotationIndex store(AnnotationIndex index) {
+        AnnotationIndex mapped = index;
+        GraphCache.Entry opened = null;
+        try {
+            opened = cache.open(new File(filePath));
+            Files.write(opened.getFile(GENOMES).toPath(), genomes, StandardCharsets.UTF_8);
+            File written = opened.getFile(ANNOTATIONS + ".tmp");
+            index.write(written);
+            Files.move(written.toPath(), opened.getFile(ANNOTATIONS).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            mapped = AnnotationIndex.open(opened.getFile(ANNOTATIONS), index.getStore());
+            keep(opened);
+            opened = null;
+        } catch (IOException e) {
+            System.err.println("Can not keep the annotations of " + filePath + ": "
+                    + e.getMessage());
+        } finally {
+            if (opened != null) {
+                cache.release(opened);
+            }
+        }
+        cache.evict();
+        return mapped;
+    }
+
+    /**
+     * Keeps an entry open while its mapped annotations are used, instead of the entry
+     * that was kept before.
+     *
+     * @param opened the entry.
+     */
+    private synchronized void keep(GraphCache.Entry opened) {
+        close();
+        entry = opened;
+    }
+
+    /**
+     * Releases the entry of the mapped annotations, so it can be evicted. Called when the
+     * annotations of this parser are replaced or no longer shown.
+     */
+    public synchronized void close() {
+        if (entry != null) {
+            cache.release(entry);
+            entry = null;
+        }
+    }
+
+    /**
+     * @return the genome of the last line that named a genome of the graph, or -1 if none did.
+     */
+    private int suggestGenome() {
+        Map<String, Integer> graphGenomes = graph == null ? null : graph.getAllGenomesMap();
+        if (graphGenomes == null) {
+            return -1;
+        }
+        List<String> names = new ArrayList<>(genomes);
+        for (int i = names.size() - 1; i >= 0; i--) {
+            //If it is an actual genome we want to suggest it
+            Integer genome = graphGenomes.get(names.get(i));
+            if (genome != null) {
+                return genome;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a parsed chunk to the annotations, and tells the observers.
+     *
+     * @param chunk       the parsed chunk.
+     * @param annotations the annotations of the chunks before it.
+     * @param total       the size of the file.
+     */
+    private void add(GffChunk chunk, AnnotationStore.Builder annotations, long total) {
+        annotations.addAll(chunk.getAnnotations());
+        for (String genome : chunk.getGenomes()) {
+            genomes.remove(genome);
+            genomes.add(genome);
+        }
+        parsedBytes += chunk.getLength();
+        notifyParsed((double) parsedBytes / Math.max(total, 1));
+        if (annotations.size() >= Math.max(FIRST_UPDATE, publishedSize * 2)) {
+            publishedSize = annotations.size();
+            suggestedGenome = suggestGenome();
+            notifyParsed(new AnnotationIndex(annotations.build()));
+        }
+    }
+
+    private static GffChunk await(FutureTask<GffChunk> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while parsing annotations");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void notifyParsed(Object arg) {
+        setChanged();
+        notifyObservers(arg);
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * The genome the annotations were made on, according to the lines parsed so far.
+     *
+     * @return the id of the genome, -1 if the file did not name a genome of the graph.
+     */
+    public int getSuggestedGenome() {
+        return suggestedGenome;
+    }
+
+    /**
+     * Cuts a file into chunks that end at the end of a line.
+     */
+    private static final class ChunkReader {
+        private final InputStream in;
+        private byte[] rest = new byte[0];
+        private boolean done;
+
+        ChunkReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * @return the next chunk, or null at the end of the file.
+         * @throws IOException if the file can not be read.
+         */
+        GffChunk next() throws IOException {
+            byte[] buffer = Arrays.copyOf(rest, Math.max(CHUNK_SIZE, rest.length * 2));
+            int filled = rest.length;
+            while (!done) {
+                int read = in.read(buffer, filled, buffer.length - filled);
+                if (read < 0) {
+                    done = true;
+                    break;
+                }
+                filled += read;
+                if (filled == buffer.length) {
+                    int end = filled;
+                    while (end > 0 && buffer[end - 1] != '\n') {
+                        end--;
+                    }
+                    if (end > 0) {
+                        rest = Arrays.copyOfRange(buffer, end, filled);
+                        return new GffChunk(buffer, end);
+                    }
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            rest = new byte[0];
+            return filled == 0 ? null : new GffChunk(buffer, filled);
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package parser;
+
+import store.StoreFormat;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The directory with the databases and edge files of imported graphs.
+ * <p>
+ * Every imported file gets its own directory, named after a fingerprint of the file:
+ * its size, its last modification time and a hash of samples spread over the file.
+ * So files with the same name do not share a database, and a file that was changed is
+ * imported again. When the cache grows beyond its budget, the graphs that were used
+ * least recently are removed, except the graphs that are open.
+ * <p>
+ * The directory and budget are read from properties.txt, as cacheDirectory and
+ * cacheBudget in megabytes. By default the cache is the directory "cache" in the
+ * working directory, with a budget of 10 GB. New graphs are stored in the format
+ * storeFormat, FLAT unless configured otherwise. Graphs of files smaller than memoryThreshold
+ * megabytes, 32 by default, are kept in memory instead when the GfaParser chooses automatically.
+ */
+public final class GraphCache {
+
+    public static final String DIRECTORY_PROPERTY = "cacheDirectory";
+    public static final String BUDGET_PROPERTY = "cacheBudget";
+    public static final String FORMAT_PROPERTY = "storeFormat";
+    public static final String THRESHOLD_PROPERTY = "memoryThreshold";
+
+    private static final String DEFAULT_DIRECTORY = "cache";
+    private static final long DEFAULT_BUDGET_MB = 10240;
+    private static final long DEFAULT_THRESHOLD_MB = 32;
+    private static final long BYTES_PER_MB = 1024 * 1024;
+    private static final int SAMPLES = 16;
+    private static final int SAMPLE_SIZE = 64 * 1024;
+    private static final int KEY_BYTES = 8;
+
+    private static GraphCache defaultCache;
+
+    private final File directory;
+    private final long budget;
+    private final StoreFormat format;
+    private final long memoryThreshold;
+    private final HashMap<String, Integer> open = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param directory The directory of the cache.
+     * @param budget    The number of bytes the cache may use.
+     */
+    public GraphCache(File directory, long budget) {
+        this(directory, budget, StoreFormat.FLAT, DEFAULT_THRESHOLD_MB * BYTES_PER_MB);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param directory       The directory of the cache.
+     * @param budget          The number of bytes the cache may use.
+     * @param format          The format of graphs that are imported.
+     * @param memoryThreshold The size in bytes below which files are kept in memory.
+     */
+    public GraphCache(File directory, long budget, StoreFormat format, long memoryThreshold) {
+        this.directory = directory;
+        this.budget = budget;
+        this.format = format;
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    /**
+     * Getter for the cache configured in properties.txt.
+     *
+     * @return the cache.
+     */
+    public static synchronized GraphCache getDefault() {
+        if (defaultCache == null) {
+            CustomProperties properties = new CustomProperties();
+            properties.updateProperties();
+            File directory = new File(properties.getProperty(DIRECTORY_PROPERTY,
+                    DEFAULT_DIRECTORY));
+            long budget = Long.parseLong(properties.getProperty(BUDGET_PROPERTY,
+                    Long.toString(DEFAULT_BUDGET_MB)));
+            StoreFormat format = StoreFormat.valueOf(properties.getProperty(FORMAT_PROPERTY,
+                    StoreFormat.FLAT.name()));
+            long threshold = Long.parseLong(properties.getProperty(THRESHOLD_PROPERTY,
+                    Long.toString(DEFAULT_THRESHOLD_MB)));
+            defaultCache = new GraphCache(directory, budget * BYTES_PER_MB, format,
+                    threshold * BYTES_PER_MB);
+        }
+        return defaultCache;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public StoreFormat getFormat() {
+        return format;
+    }
+
+    public long getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    /**
+     * Opens the entry of a file and marks it as used, so it is not evicted until it is
+     * released. An entry that is opened several times has to be released as many times.
+     * The entry is empty if the file was not imported before.
+     *
+     * @param file The GFA file.
+     * @return The entry.
+     * @throws IOException when the file can not be read or the entry can not be created.
+     */
+    public synchronized Entry open(File file) throws IOException {
+        String key = key(file);
+        File entryDirectory = new File(directory, key);
+        if (!entryDirectory.isDirectory() && !entryDirectory.mkdirs()) {
+            throw new IOException("Can not create " + entryDirectory);
+        }
+        if (!entryDirectory.setLastModified(System.currentTimeMillis())) {
+            System.err.println("Can not mark " + entryDirectory + " as used.");
+        }
+        open.merge(key, 1, Integer::sum);
+        return new Entry(key, entryDirectory, file);
+    }
+
+    /**
+     * Marks an entry as no longer used by one of the times it was opened, so it can be
+     * evicted when all of them released it.
+     *
+     * @param entry The entry.
+     */
+    public synchronized void release(Entry entry) {
+        open.computeIfPresent(entry.key, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Removes the entry of a file, so it is imported again the next time it is opened.
+     *
+     * @param file The GFA file.
+     * @throws IOException when the file can not be read or the entry can not be removed.
+     */
+    public synchronized void remove(File file) throws IOException {
+        String key = key(file);
+        if (open.containsKey(key)) {
+            throw new IOException(file + " is still open");
+        }
+        delete(new File(directory, key));
+    }
+
+    /**
+     * Removes the least recently used entries that are not open,
+     * until the cache fits in its budget.
+     */
+    public synchronized void evict() {
+        File[] entries = directory.listFiles(File::isDirectory);
+        if (entries == null) {
+            return;
+        }
+        Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+        long used = 0;
+        long[] sizes = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            sizes[i] = size(entries[i]);
+            used += sizes[i];
+        }
+        for (int i = 0; i < entries.length && used > budget; i++) {
+            if (!open.containsKey(entries[i].getName())) {
+                try {
+                    delete(entries[i]);
+                    used -= sizes[i];
+                } catch (IOException e) {
+                    System.err.println("Can not evict " + entries[i] + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the key of a file: its name followed by its fingerprint.
+     *
+     * @param file The file.
+     * @return The key.
+     * @throws IOException when the file can not be read.
+     */
+    public static String key(File file) throws IOException {
+        byte[] fingerprint = fingerprint(file);
+        StringBuilder key = new StringBuilder(file.getName().replaceAll("[^\\w.-]", "_"));
+        key.append('-');
+        for (int i = 0; i < KEY_BYTES; i++) {
+            key.append(String.format("%02x", fingerprint[i]));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Hashes the size, the modification time and SAMPLES samples spread evenly over the file,
+     * including its start and end. Small files are hashed completely.
+     *
+     * @param file The file.
+     * @return The hash.
+     * @throws IOException when the file can not be read.
+     */
+    private static byte[] fingerprint(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        long size = file.length();
+        digest.update(ByteBuffer.allocate(2 * Long.BYTES).putLong(size)
+                .putLong(file.lastModified()).array());
+        byte[] sample = new byte[SAMPLE_SIZE];
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            if (size <= (long) SAMPLES * SAMPLE_SIZE) {
+                int read;
+                while ((read = in.read(sample)) > 0) {
+                    digest.update(sample, 0, read);
+                }
+            } else {
+                for (int i = 0; i < SAMPLES; i++) {
+                    in.seek((size - SAMPLE_SIZE) * i / (SAMPLES - 1));
+                    in.readFully(sample);
+                    digest.update(sample);
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * @param entry The directory of an entry.
+     * @return The number of bytes of the files in the entry.
+     */
+    private static long size(File entry) {
+        long size = 0;
+        File[] files = entry.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                size += file.length();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Deletes the directory of an entry with all its files.
+     *
+     * @param entry The directory.
+     * @throws IOException when a file can not be deleted.
+     */
+    private static void delete(File entry) throws IOException {
+        File[] files = entry.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    throw new IOException("Can not delete " + file);
+                }
+            }
+        }
+        if (entry.exists() && !entry.delete()) {
+            throw new IOException("Can not delete " + entry);
+        }
+    }
+
+    /**
+     * The files of one imported graph. Whether the import finished, the format, the number
+     * of edges and the highest coordinate are kept in the file entry.properties.
+     */
+    public static final class Entry {
+
+        private static final String PROPERTIES = "entry.properties";
+        private static final String COMPLETE = "complete";
+        private static final String EDGES = "edges";
+        private static final String MAX_COR = "maxCor";
+        private static final String SOURCE = "source";
+        private static final String FORMAT = "format";
+
+        private final String key;
+        private final File directory;
+        private final File source;
+        private final Properties properties = new Properties();
+
+        /**
+         * Constructor, loads the properties of the entry if there are any.
+         *
+         * @param key       The key of the entry.
+         * @param directory The directory of the entry.
+         * @param source    The GFA file.
+         * @throws IOException when the properties can not be read.
+         */
+        private Entry(String key, File directory, File source) throws IOException {
+            this.key = key;
+            this.directory = directory;
+            this.source = source;
+            File file = getFile(PROPERTIES);
+            if (file.exists()) {
+                try (InputStream in = new FileInputStream(file)) {
+                    properties.load(in);
+                }
+            }
+        }
+
+        public File getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Gives a file of the entry.
+         *
+         * @param name The name of the file.
+         * @return The file in the directory of the entry.
+         */
+        public File getFile(String name) {
+            return new File(directory, name);
+        }
+
+        /**
+         * @return True if the import started but did not finish.
+         */
+        public boolean isInterrupted() {
+            return "false".equals(properties.getProperty(COMPLETE));
+        }
+
+        /**
+         * @return True if the graph was imported completely.
+         */
+        public boolean isComplete() {
+            return "true".equals(properties.getProperty(COMPLETE));
+        }
+
+        /**
+         * @return The highest coordinate of the graph, or -1 if unknown.
+         */
+        public int getMaxCor() {
+            return Integer.parseInt(properties.getProperty(MAX_COR, "-1"));
+        }
+
+        /**
+         * Entries that were imported before the format was recorded are MapDB databases.
+         *
+         * @return The format the graph is stored in.
+         */
+        public StoreFormat getFormat() {
+            return StoreFormat.valueOf(properties.getProperty(FORMAT, StoreFormat.MAPDB.name()));
+        }
+
+        /**
+         * @return The number of edges of the graph, or -1 if unknown.
+         */
+        public int getEdgeCount() {
+            return Integer.parseInt(properties.getProperty(EDGES, "-1"));
+        }
+
+        /**
+         * Marks the start of an import, so an interrupted import can be recognised.
+         *
+         * @param format The format the graph is stored in.
+         * @throws IOException when the properties can not be written.
+         */
+        void markStarted(StoreFormat format) throws IOException {
+            properties.clear();
+            properties.setProperty(SOURCE, source.getAbsolutePath());
+            properties.setProperty(FORMAT, format.name());
+            properties.setProperty(COMPLETE, "false");
+            save();
+        }
+
+        /**
+         * Marks the end of an import.
+         *
+         * @param edges  The number of edges.
+         * @param maxCor The highest coordinate.
+         * @throws IOException when the properties can not be written.
+         */
+        void markComplete(int edges, int maxCor) throws IOException {
+            properties.setProperty(EDGES, Integer.toString(edges));
+            properties.setProperty(MAX_COR, Integer.toString(maxCor));
+            properties.setProperty(COMPLETE, "true");
+            save();
+        }
+
+        /**
+         * Removes the files of the entry, so the graph is imported again.
+         * The entry must not be opened by a GfaParser.
+         *
+         * @throws IOException when a file can not be removed.
+         */
+        public void clear() throws IOException {
+            List<File> failed = new ArrayList<>();
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (!file.delete()) {
+                        failed.add(file);
+                    }
+                }
+            }
+            properties.clear();
+            if (!failed.isEmpty()) {
+                throw new IOException("Can not delete " + failed);
+            }
+        }
+
+        /**
+         * Writes the properties of the entry.
+         *
+         * @throws IOException when the properties can not be written.
+         */
+        private void save() throws IOException {
+            try (OutputStream out = new FileOutputStream(getFile(PROPERTIES))) {
+                properties.store(out, "Imported graph for Dynamite and Butterflies");
+            }
+        }
+    }
+}
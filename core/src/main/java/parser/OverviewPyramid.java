@@ -0,0 +1,237 @@
+package parser;
+
+import store.GraphStore;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A summary of the whole graph at several resolutions.
+ * <p>
+ * For every bin of 1000, 10000 and 100000 node ids it stores the number of nodes,
+ * the number of bubbles (nodes with more than one outgoing edge), the genome coverage
+ * (the sum of the number of genomes going through each node) and the total sequence length.
+ * It is built while a gfa file is parsed and stored as the arrays "overview" in the GraphStore,
+ * so an overview of the whole graph can be drawn without loading it.
+ */
+public class OverviewPyramid {
+
+    /**
+     * The number of node ids per bin for each level, from fine to coarse.
+     */
+    static final int[] LEVELS = {1000, 10000, 100000};
+
+    public static final int NODES = 0;
+    public static final int BUBBLES = 1;
+    public static final int COVERAGE = 2;
+    public static final int LENGTH = 3;
+    private static final int FIELDS = 4;
+    private static final int MAX_ID_KEY = 0;
+    private static final String ARRAYS = "overview";
+
+    private final int maxNodeId;
+    private final long[][] levels;
+
+    /**
+     * Constructor.
+     *
+     * @param maxNodeId the highest node id in the graph.
+     * @param levels    per level the summaries of all bins, FIELDS values per bin.
+     */
+    private OverviewPyramid(int maxNodeId, long[][] levels) {
+        this.maxNodeId = maxNodeId;
+        this.levels = levels;
+    }
+
+    /**
+     * Loads a pyramid from the store.
+     *
+     * @param store the store of the graph.
+     * @return the pyramid, or null if it has not been stored for this graph.
+     * @throws IOException when the store can not be read.
+     */
+    public static OverviewPyramid load(GraphStore store) throws IOException {
+        long[] maxId = store.getLongs(ARRAYS, MAX_ID_KEY);
+        if (maxId == null) {
+            return null;
+        }
+        long[][] levels = new long[LEVELS.length][];
+        for (int i = 0; i < LEVELS.length; i++) {
+            levels[i] = store.getLongs(ARRAYS, LEVELS[i]);
+            if (levels[i] == null) {
+                return null;
+            }
+        }
+        return new OverviewPyramid((int) maxId[0], levels);
+    }
+
+    /**
+     * Stores the pyramid in the store. The caller has to commit.
+     *
+     * @param store the store of the graph.
+     * @throws IOException when the store can not be written.
+     */
+    public void store(GraphStore store) throws IOException {
+        for (int i = 0; i < LEVELS.length; i++) {
+            store.putLongs(ARRAYS, LEVELS[i], levels[i]);
+        }
+        store.putLongs(ARRAYS, MAX_ID_KEY, new long[]{maxNodeId});
+    }
+
+    /**
+     * Builds the pyramid of a graph that has already been imported.
+     * Used for databases that were created before the pyramid existed.
+     *
+     * @param store the store of the graph.
+     * @return the pyramid.
+     * @throws IOException when the edges can not be read.
+     */
+    public static OverviewPyramid build(GraphStore store) throws IOException {
+        Builder builder = new Builder();
+        int maxNodeId = store.getMaxNodeId();
+        for (int id = 0; id <= maxNodeId; id++) {
+            int length = store.getSequenceLength(id);
+            if (length >= 0) {
+                int[] nodeGenomes = store.getGenomes(id);
+                builder.addSegment(id, nodeGenomes == null ? 0 : nodeGenomes.length, length);
+            }
+        }
+        int[] parentArray = store.getParentArray();
+        if (parentArray != null) {
+            for (int parent : parentArray) {
+                builder.addLink(parent);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Summarises a range of node ids in a number of equally sized bins.
+     * Uses the coarsest level of which the bins are not larger than the requested bins.
+     * A stored bin that covers several requested bins is divided evenly over them, with the
+     * remainder going to the first of them, so no count is lost and sparse bins stay visible.
+     *
+     * @param from the first node id, inclusive.
+     * @param to   the last node id, exclusive.
+     * @param bins the number of bins.
+     * @return per bin the NODES, BUBBLES, COVERAGE and LENGTH summaries.
+     */
+    public long[][] query(int from, int to, int bins) {
+        long[][] result = new long[Math.max(bins, 0)][FIELDS];
+        if (bins <= 0 || to <= from) {
+            return result;
+        }
+        double idsPerBin = (to - from) / (double) bins;
+        int level = 0;
+        while (level + 1 < LEVELS.length && LEVELS[level + 1] <= idsPerBin) {
+            level++;
+        }
+        int binSize = LEVELS[level];
+        long[] summaries = levels[level];
+        int first = Math.max(from / binSize, 0);
+        int last = Math.min((to - 1) / binSize, summaries.length / FIELDS - 1);
+        for (int bin = first; bin <= last; bin++) {
+            int start = (int) ((Math.max(bin * binSize, from) - from) / idsPerBin);
+            int end = (int) Math.ceil((Math.min((bin + 1) * binSize, to) - from) / idsPerBin);
+            start = Math.min(start, bins - 1);
+            end = Math.max(Math.min(end, bins), start + 1);
+            int spread = end - start;
+            for (int field = 0; field < FIELDS; field++) {
+                long value = summaries[bin * FIELDS + field];
+                long remainder = value % spread;
+                for (int target = start; target < end; target++) {
+                    result[target][field] += value / spread + (target - start < remainder ? 1 : 0);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the highest node id in the graph.
+     */
+    public int getMaxNodeId() {
+        return maxNodeId;
+    }
+
+    /**
+     * Collects the summaries of the finest level while a graph is read
+     * and derives the coarser levels from it.
+     */
+    public static class Builder {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] bins = new long[INITIAL_CAPACITY * FIELDS];
+        private byte[] outDegree = new byte[INITIAL_CAPACITY];
+        private int maxNodeId;
+
+        /**
+         * Adds a node.
+         *
+         * @param id          the id of the node.
+         * @param genomeCount the number of genomes going through the node.
+         * @param length      the length of the sequence of the node.
+         */
+        public void addSegment(int id, int genomeCount, int length) {
+            int offset = ensureBin(id) * FIELDS;
+            bins[offset + NODES]++;
+            bins[offset + COVERAGE] += genomeCount;
+            bins[offset + LENGTH] += length;
+            maxNodeId = Math.max(maxNodeId, id);
+        }
+
+        /**
+         * Adds an edge. A node becomes a bubble when its second outgoing edge is added.
+         *
+         * @param parentId the id of the node the edge starts at.
+         */
+        public void addLink(int parentId) {
+            if (parentId < 0) {
+                return;
+            }
+            if (parentId >= outDegree.length) {
+                outDegree = Arrays.copyOf(outDegree, Math.max(parentId + 1, outDegree.length * 2));
+            }
+            if (outDegree[parentId] < 2) {
+                outDegree[parentId]++;
+                if (outDegree[parentId] == 2) {
+                    bins[ensureBin(parentId) * FIELDS + BUBBLES]++;
+                }
+            }
+        }
+
+        /**
+         * Makes sure the bin of a node id exists.
+         *
+         * @param id the node id.
+         * @return the bin of the node id.
+         */
+        private int ensureBin(int id) {
+            int bin = Math.max(id, 0) / LEVELS[0];
+            if ((bin + 1) * FIELDS > bins.length) {
+                bins = Arrays.copyOf(bins, Math.max((bin + 1) * FIELDS, bins.length * 2));
+            }
+            return bin;
+        }
+
+        /**
+         * @return the pyramid with all levels.
+         */
+        public OverviewPyramid build() {
+            long[][] levels = new long[LEVELS.length][];
+            int binCount = maxNodeId / LEVELS[0] + 1;
+            levels[0] = Arrays.copyOf(bins, binCount * FIELDS);
+            for (int level = 1; level < LEVELS.length; level++) {
+                int factor = LEVELS[level] / LEVELS[level - 1];
+                int coarseCount = maxNodeId / LEVELS[level] + 1;
+                levels[level] = new long[coarseCount * FIELDS];
+                for (int i = 0; i < levels[level - 1].length; i++) {
+                    int fine = i / FIELDS;
+                    levels[level][(fine / factor) * FIELDS + i % FIELDS] += levels[level - 1][i];
+                }
+            }
+            return new OverviewPyramid(maxNodeId, levels);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package perf;
+
+/**
+ * Emits the custom Flight Recorder events of the application.
+ * <p>
+ * The events are only created while a recording that enables them is running, so
+ * the calls cost next to nothing otherwise. On Java versions without jdk.jfr
+ * (Java 8 before update 262) nothing is emitted at all.
+ * Timings are passed in nanoseconds and stored in fields of the events.
+ */
+public final class FlightEvents {
+
+    private static final boolean AVAILABLE = isAvailable();
+    private static final String FX_THREAD = "JavaFX Application Thread";
+
+    private FlightEvents() {
+    }
+
+    /**
+     * @return true if the running JVM has the Flight Recorder event API.
+     */
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Emits the progress of parsing a GFA file.
+     *
+     * @param file     the file being parsed.
+     * @param bytes    the number of bytes parsed.
+     * @param segments the number of segments parsed.
+     * @param links    the number of links parsed.
+     * @param finished true if the whole file has been parsed.
+     */
+    public static void parseProgress(String file, long bytes, int segments, int links,
+                                     boolean finished) {
+        if (!AVAILABLE) {
+            return;
+        }
+        ParseProgressEvent event = new ParseProgressEvent();
+        if (event.shouldCommit()) {
+            event.file = file;
+            event.bytes = bytes;
+            event.segments = segments;
+            event.links = links;
+            event.finished = finished;
+            event.commit();
+        }
+    }
+
+    /**
+     * Emits the creation of a sub graph.
+     *
+     * @param centreNode      the centre of the window.
+     * @param range           the range of the window.
+     * @param nodes           the number of nodes in the sub graph.
+     * @param boundary        the time it took to find the boundary and the nodes.
+     * @param genomeLoad      the time it took to load the genomes and offsets.
+     * @param layout          the time it took to lay out the columns.
+     * @param sequenceLengths the time it took to load the sequence lengths.
+     */
+    public static void subGraph(int centreNode, int range, int nodes, long boundary,
+                                long genomeLoad, long layout, long sequenceLengths) {
+        if (!AVAILABLE) {
+            return;
+        }
+        SubGraphEvent event = new SubGraphEvent();
+        if (event.shouldCommit()) {
+            event.centreNode = centreNode;
+            event.range = range;
+            event.nodes = nodes;
+            event.boundary = boundary;
+            event.genomeLoad = genomeLoad;
+            event.layout = layout;
+            event.sequenceLengths = sequenceLengths;
+            event.total = boundary + genomeLoad + layout + sequenceLengths;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return true if a recording that records drawn frames is running.
+     */
+    public static boolean isFrameRecorded() {
+        return AVAILABLE && new FrameEvent().isEnabled();
+    }
+
+    /**
+     * Emits a drawn frame.
+     *
+     * @param frameTime     the time it took to draw the frame.
+     * @param zoomLevel     the zoom level.
+     * @param nodes         the number of nodes drawn.
+     * @param edges         the number of edges drawn.
+     * @param drawCalls     the number of shapes drawn.
+     * @param levelOfDetail true if the frame was drawn as density bars.
+     * @param background    true if the frame was drawn by the background renderer.
+     */
+    public static void frame(long frameTime, double zoomLevel, int nodes, int edges,
+                             int drawCalls, boolean levelOfDetail, boolean background) {
+        if (!AVAILABLE) {
+            return;
+        }
+        FrameEvent event = new FrameEvent();
+        if (event.shouldCommit()) {
+            event.frameTime = frameTime;
+            event.zoomLevel = zoomLevel;
+            event.nodes = nodes;
+            event.edges = edges;
+            event.drawCalls = drawCalls;
+            event.levelOfDetail = levelOfDetail;
+            event.background = background;
+            event.commit();
+        }
+    }
+
+    /**
+     * Emits database lookups, but only when they were done on the JavaFX thread,
+     * because only those make the user interface wait.
+     *
+     * @param map        the name of the map.
+     * @param lookups    the number of lookups.
+     * @param lookupTime the time the lookups took.
+     */
+    public static void mapLookups(String map, int lookups, long lookupTime) {
+        if (!AVAILABLE || !FX_THREAD.equals(Thread.currentThread().getName())) {
+            return;
+        }
+        MapLookupEvent event = new MapLookupEvent();
+        if (event.shouldCommit()) {
+            event.map = map;
+            event.lookups = lookups;
+            event.lookupTime = lookupTime;
+            event.commit();
+        }
+    }
+}
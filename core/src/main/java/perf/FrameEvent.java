@@ -0,0 +1,39 @@
+package perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a drawn frame of the graph.
+ */
+@Name("dynamite.Frame")
+@Label("Frame")
+@Category({"DynamiteAndButterflies", "Render"})
+@Description("A frame drawn on screen or by the background renderer")
+class FrameEvent extends jdk.jfr.Event {
+
+    @Label("Duration")
+    @Timespan
+    long frameTime;
+
+    @Label("Zoom Level")
+    double zoomLevel;
+
+    @Label("Nodes")
+    int nodes;
+
+    @Label("Edges")
+    int edges;
+
+    @Label("Draw Calls")
+    int drawCalls;
+
+    @Label("Level Of Detail")
+    boolean levelOfDetail;
+
+    @Label("Background")
+    boolean background;
+}
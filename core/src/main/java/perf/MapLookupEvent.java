@@ -0,0 +1,27 @@
+package perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for database lookups done on the JavaFX thread.
+ */
+@Name("dynamite.MapLookup")
+@Label("Map Lookup On UI Thread")
+@Category({"DynamiteAndButterflies", "Storage"})
+@Description("MapDB lookups that block the JavaFX application thread")
+class MapLookupEvent extends jdk.jfr.Event {
+
+    @Label("Map")
+    String map;
+
+    @Label("Lookups")
+    int lookups;
+
+    @Label("Duration")
+    @Timespan
+    long lookupTime;
+}
@@ -0,0 +1,33 @@
+package perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event with the progress of parsing a GFA file.
+ */
+@Name("dynamite.ParseProgress")
+@Label("GFA Parse Progress")
+@Category({"DynamiteAndButterflies", "Parser"})
+@Description("Bytes, segments and links parsed so far")
+class ParseProgressEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    String file;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Segments")
+    int segments;
+
+    @Label("Links")
+    int links;
+
+    @Label("Finished")
+    boolean finished;
+}
@@ -0,0 +1,217 @@
+package perf;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Collects timings of the stages of loading and drawing a graph.
+ * <p>
+ * The last SAMPLES timings of every phase are kept, so percentiles reflect recent behaviour.
+ * Timings that happen many times per frame, like drawing a single node, are summed and
+ * recorded once per frame. The monitor is disabled by default and enabled together with the
+ * performance overlay. When it is disabled start() returns 0 and nothing is recorded, so the
+ * instrumentation costs next to nothing.
+ */
+public final class PerformanceMonitor {
+
+    private static final PerformanceMonitor MONITOR = new PerformanceMonitor();
+
+    private static final int SAMPLES = 120;
+    private static final long ALLOCATION_INTERVAL = 500_000_000L;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final long[][] samples = new long[Phase.values().length][SAMPLES];
+    private final int[] sampleCount = new int[Phase.values().length];
+    private final long[] frameTotals = new long[Phase.values().length];
+
+    private volatile boolean enabled;
+    private volatile int frameNodes;
+    private volatile int frameEdges;
+    private volatile int frameDrawCalls;
+
+    private long lastAllocatedBytes;
+    private long lastAllocationTime;
+    private double allocationRate;
+
+    private PerformanceMonitor() {
+    }
+
+    /**
+     * Getter for the singleton PerformanceMonitor.
+     *
+     * @return the PerformanceMonitor.
+     */
+    public static PerformanceMonitor getInstance() {
+        return MONITOR;
+    }
+
+    /**
+     * Starts timing.
+     *
+     * @return the start time, or 0 if the monitor is disabled.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since start as one sample of a phase.
+     *
+     * @param phase the phase.
+     * @param start the value returned by start().
+     */
+    public void stop(Phase phase, long start) {
+        if (start != 0) {
+            addSample(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a duration that was measured elsewhere as one sample of a phase.
+     *
+     * @param phase the phase.
+     * @param nanos the duration in nanoseconds.
+     */
+    public void record(Phase phase, long nanos) {
+        if (enabled) {
+            addSample(phase, nanos);
+        }
+    }
+
+    /**
+     * Adds the time since start to the total of a phase in the current frame.
+     * Synchronized like ending and discarding the frame, which may happen on another thread.
+     *
+     * @param phase the phase.
+     * @param start the value returned by start().
+     */
+    public void accumulate(Phase phase, long start) {
+        if (start != 0) {
+            long nanos = System.nanoTime() - start;
+            synchronized (this) {
+                frameTotals[phase.ordinal()] += nanos;
+            }
+        }
+    }
+
+    /**
+     * Ends a frame. The summed phases are recorded as one sample each.
+     *
+     * @param nodes     the number of nodes drawn.
+     * @param edges     the number of edges drawn.
+     * @param drawCalls the number of draw calls.
+     */
+    public synchronized void endFrame(int nodes, int edges, int drawCalls) {
+        if (!enabled) {
+            return;
+        }
+        for (Phase phase : Phase.values()) {
+            if (frameTotals[phase.ordinal()] > 0) {
+                addSample(phase, frameTotals[phase.ordinal()]);
+                frameTotals[phase.ordinal()] = 0;
+            }
+        }
+        frameNodes = nodes;
+        frameEdges = edges;
+        frameDrawCalls = drawCalls;
+    }
+
+    /**
+     * Forgets the summed phases of a frame that was not finished.
+     */
+    public synchronized void discardFrame() {
+        Arrays.fill(frameTotals, 0);
+    }
+
+    /**
+     * Records a sample, overwriting the oldest one when SAMPLES have been recorded.
+     *
+     * @param phase the phase.
+     * @param nanos the duration in nanoseconds.
+     */
+    private synchronized void addSample(Phase phase, long nanos) {
+        int index = phase.ordinal();
+        samples[index][sampleCount[index] % SAMPLES] = nanos;
+        sampleCount[index]++;
+    }
+
+    /**
+     * Computes a percentile of the recent samples of a phase.
+     *
+     * @param phase      the phase.
+     * @param percentile the percentile, between 0 and 100.
+     * @return the percentile in milliseconds, or -1 if there are no samples.
+     */
+    public synchronized double percentile(Phase phase, double percentile) {
+        int count = Math.min(sampleCount[phase.ordinal()], SAMPLES);
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples[phase.ordinal()], count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Estimates the number of bytes allocated per second by all threads,
+     * measured over at least half a second.
+     *
+     * @return the allocation rate in bytes per second, or -1 if the JVM does not support it.
+     */
+    public synchronized double getAllocationRate() {
+        long now = System.nanoTime();
+        if (now - lastAllocationTime >= ALLOCATION_INTERVAL) {
+            long bytes = allocatedBytes();
+            if (bytes < 0) {
+                return -1;
+            }
+            if (lastAllocationTime != 0) {
+                allocationRate = Math.max(bytes - lastAllocatedBytes, 0)
+                        / ((now - lastAllocationTime) / NANOS_PER_SECOND);
+            }
+            lastAllocatedBytes = bytes;
+            lastAllocationTime = now;
+        }
+        return allocationRate;
+    }
+
+    /**
+     * @return the total number of bytes allocated by the live threads, or -1 if unknown.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        long[] allocated = ((com.sun.management.ThreadMXBean) bean)
+                .getThreadAllocatedBytes(bean.getAllThreadIds());
+        long total = 0;
+        for (long bytes : allocated) {
+            total += Math.max(bytes, 0);
+        }
+        return total;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getFrameNodes() {
+        return frameNodes;
+    }
+
+    public int getFrameEdges() {
+        return frameEdges;
+    }
+
+    public int getFrameDrawCalls() {
+        return frameDrawCalls;
+    }
+}
@@ -0,0 +1,27 @@
+package perf;
+
+/**
+ * The stages of loading and drawing a graph that are timed by the PerformanceMonitor.
+ */
+public enum Phase {
+    PARSE("Parse"),
+    EDGE_LOAD("Edge arrays"),
+    SUBGRAPH("Sub graph"),
+    GENOME_LOAD("Genome lookups"),
+    LAYOUT("Layout"),
+    COLUMN_WIDTHS("Column widths"),
+    FRAME("Frame"),
+    DRAW_NODES("Draw nodes"),
+    DRAW_EDGES("Draw edges"),
+    DRAW_ANNOTATIONS("Draw annotations");
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,46 @@
+package perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for creating a sub graph, with the time spent in every phase.
+ */
+@Name("dynamite.SubGraph")
+@Label("Create Sub Graph")
+@Category({"DynamiteAndButterflies", "Layout"})
+@Description("Window of the sub graph and the durations of its phases")
+class SubGraphEvent extends jdk.jfr.Event {
+
+    @Label("Centre Node")
+    int centreNode;
+
+    @Label("Range")
+    int range;
+
+    @Label("Nodes")
+    int nodes;
+
+    @Label("Boundary")
+    @Timespan
+    long boundary;
+
+    @Label("Genome Lookups")
+    @Timespan
+    long genomeLoad;
+
+    @Label("Layout")
+    @Timespan
+    long layout;
+
+    @Label("Sequence Lengths")
+    @Timespan
+    long sequenceLengths;
+
+    @Label("Total")
+    @Timespan
+    long total;
+}
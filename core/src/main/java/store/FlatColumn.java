@@ -0,0 +1,194 @@
+package store;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A value per node id, kept in two files: name.bin with the values one after another,
+ * and name.idx with per id the position of its value in name.bin and its length in bytes.
+ * The value of an id is found directly at id * ENTRY_BYTES in the index, without a search.
+ * Ids without a value have position -1.
+ */
+final class FlatColumn {
+
+    private static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final File index;
+    private final File payload;
+
+    private DataOutputStream out;
+    private long written;
+    private long[] positions;
+    private int[] lengths;
+    private int maxId = -1;
+
+    private MappedFile indexFile;
+    private MappedFile payloadFile;
+    private int entries;
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory of the files.
+     * @param name      the name of the column.
+     */
+    FlatColumn(File directory, String name) {
+        this.index = new File(directory, name + ".idx");
+        this.payload = new File(directory, name + ".bin");
+    }
+
+    /**
+     * @return true if the column was written completely.
+     */
+    boolean exists() {
+        return index.exists();
+    }
+
+    /**
+     * Adds the value of a node.
+     *
+     * @param id    the id of the node.
+     * @param value the value.
+     * @throws IOException when the value can not be written.
+     */
+    void put(int id, byte[] value) throws IOException {
+        if (out == null) {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(payload)));
+            positions = new long[INITIAL_CAPACITY];
+            lengths = new int[INITIAL_CAPACITY];
+            Arrays.fill(positions, -1);
+        }
+        if (id >= positions.length) {
+            int old = positions.length;
+            int capacity = Math.max(id + 1, old * 2);
+            positions = Arrays.copyOf(positions, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            Arrays.fill(positions, old, capacity, -1);
+        }
+        positions[id] = written;
+        lengths[id] = value.length;
+        maxId = Math.max(maxId, id);
+        out.write(value);
+        written += value.length;
+    }
+
+    /**
+     * Adds the value of a node.
+     *
+     * @param id     the id of the node.
+     * @param values the value.
+     * @throws IOException when the value can not be written.
+     */
+    void putInts(int id, int[] values) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(values.length * Integer.BYTES);
+        bytes.asIntBuffer().put(values);
+        put(id, bytes.array());
+    }
+
+    /**
+     * Writes the index and maps the column for reading.
+     *
+     * @throws IOException when the column can not be written.
+     */
+    void finish() throws IOException {
+        if (out == null) {
+            new FileOutputStream(payload).close();
+        } else {
+            out.close();
+            out = null;
+        }
+        try (DataOutputStream indexOut = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(index)))) {
+            for (int id = 0; id <= maxId; id++) {
+                indexOut.writeLong(positions[id]);
+                indexOut.writeInt(lengths[id]);
+            }
+        }
+        positions = null;
+        lengths = null;
+        open();
+    }
+
+    /**
+     * Maps the files of the column.
+     *
+     * @throws IOException when the files can not be mapped.
+     */
+    void open() throws IOException {
+        indexFile = new MappedFile(index);
+        payloadFile = new MappedFile(payload);
+        entries = (int) (indexFile.length() / ENTRY_BYTES);
+    }
+
+    /**
+     * @return the highest id with a value, or -1 if there are none.
+     */
+    int getMaxId() {
+        return entries - 1;
+    }
+
+    /**
+     * @param id the id of the node.
+     * @return the length of the value in bytes, or -1 if the node has none.
+     */
+    int length(int id) {
+        if (id < 0 || id >= entries || indexFile.getLong((long) id * ENTRY_BYTES) < 0) {
+            return -1;
+        }
+        return indexFile.getInt((long) id * ENTRY_BYTES + Long.BYTES);
+    }
+
+    /**
+     * @param id the id of the node.
+     * @return the value, or null if the node has none.
+     */
+    byte[] get(int id) {
+        if (id < 0 || id >= entries) {
+            return null;
+        }
+        long position = indexFile.getLong((long) id * ENTRY_BYTES);
+        if (position < 0) {
+            return null;
+        }
+        byte[] value = new byte[indexFile.getInt((long) id * ENTRY_BYTES + Long.BYTES)];
+        payloadFile.read(position, value, 0, value.length);
+        return value;
+    }
+
+    /**
+     * @param id the id of the node.
+     * @return the value, or null if the node has none.
+     */
+    int[] getInts(int id) {
+        byte[] value = get(id);
+        if (value == null) {
+            return null;
+        }
+        int[] values = new int[value.length / Integer.BYTES];
+        ByteBuffer.wrap(value).asIntBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Closes the file that is being written. Mapped files are unmapped by the garbage collector.
+     */
+    void close() {
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+        } catch (IOException e) {
+            System.err.println("Can not close " + payload + ": " + e.getMessage());
+        }
+        indexFile = null;
+        payloadFile = null;
+        entries = 0;
+    }
+}
@@ -0,0 +1,189 @@
+package store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores every node field as a FlatColumn, indexed directly by node id. The edges are
+ * kept as raw ints in parents.bin and children.bin.
+ * <p>
+ * Node ids in GFA files are dense, so a lookup is a read at a fixed position in a memory
+ * mapped index followed by one read in the payload, instead of a search through a B-tree.
+ * The length of a sequence is read from the index alone.
+ */
+public class FlatGraphStore implements GraphStore {
+
+    private final File directory;
+    private final FlatColumn sequences;
+    private final FlatColumn genomes;
+    private final FlatColumn offSets;
+    private DataOutputStream parentOut;
+    private DataOutputStream childOut;
+
+    /**
+     * Opens the store in a directory, which is empty until it is imported.
+     *
+     * @param directory the directory of the files.
+     * @throws IOException when the files of an imported store can not be mapped.
+     */
+    public FlatGraphStore(File directory) throws IOException {
+        this.directory = directory;
+        this.sequences = new FlatColumn(directory, "sequences");
+        this.genomes = new FlatColumn(directory, "genomes");
+        this.offSets = new FlatColumn(directory, "offsets");
+        if (isImported()) {
+            sequences.open();
+            genomes.open();
+            offSets.open();
+        }
+    }
+
+    /**
+     * The sequences are written last, so a store is imported when they exist.
+     *
+     * @return true if the store holds an imported graph.
+     */
+    @Override
+    public boolean isImported() {
+        return sequences.exists();
+    }
+
+    @Override
+    public void putNode(int id, String sequence, int[] nodeGenomes, int[] nodeOffsets)
+            throws IOException {
+        if (nodeGenomes != null) {
+            genomes.putInts(id, nodeGenomes);
+        }
+        if (nodeOffsets != null) {
+            offSets.putInts(id, nodeOffsets);
+        }
+        sequences.put(id, sequence.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Override
+    public void putEdge(int parent, int child) throws IOException {
+        if (parentOut == null) {
+            parentOut = edgeOutput("parents.bin");
+            childOut = edgeOutput("children.bin");
+        }
+        parentOut.writeInt(parent);
+        childOut.writeInt(child);
+    }
+
+    private DataOutputStream edgeOutput(String name) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(new File(directory, name))));
+    }
+
+    @Override
+    public void commit() throws IOException {
+        if (isImported()) {
+            return;
+        }
+        if (parentOut == null) {
+            parentOut = edgeOutput("parents.bin");
+            childOut = edgeOutput("children.bin");
+        }
+        parentOut.close();
+        childOut.close();
+        parentOut = null;
+        childOut = null;
+        genomes.finish();
+        offSets.finish();
+        sequences.finish();
+    }
+
+    @Override
+    public String getSequence(int id) {
+        byte[] sequence = sequences.get(id);
+        return sequence == null ? null : new String(sequence, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public int getSequenceLength(int id) {
+        return sequences.length(id);
+    }
+
+    @Override
+    public int[] getGenomes(int id) {
+        return genomes.getInts(id);
+    }
+
+    @Override
+    public int[] getOffsets(int id) {
+        return offSets.getInts(id);
+    }
+
+    @Override
+    public int getMaxNodeId() {
+        return Math.max(sequences.getMaxId(), 0);
+    }
+
+    @Override
+    public int[] getParentArray() throws IOException {
+        return readEdges("parents.bin");
+    }
+
+    @Override
+    public int[] getChildArray() throws IOException {
+        return readEdges("children.bin");
+    }
+
+    private int[] readEdges(String name) throws IOException {
+        MappedFile edges = new MappedFile(new File(directory, name));
+        return edges.length() == 0 ? null : edges.readInts();
+    }
+
+    @Override
+    public long[] getLongs(String name, int key) throws IOException {
+        File file = longsFile(name, key);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            long[] values = new long[in.readInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = in.readLong();
+            }
+            return values;
+        }
+    }
+
+    @Override
+    public void putLongs(String name, int key, long[] values) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(longsFile(name, key))))) {
+            out.writeInt(values.length);
+            for (long value : values) {
+                out.writeLong(value);
+            }
+        }
+    }
+
+    private File longsFile(String name, int key) {
+        return new File(directory, name + "-" + key + ".longs");
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (parentOut != null) {
+                parentOut.close();
+                childOut.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Can not close the edge files: " + e.getMessage());
+        }
+        sequences.close();
+        genomes.close();
+        offSets.close();
+    }
+}
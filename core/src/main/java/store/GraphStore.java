@@ -0,0 +1,115 @@
+package store;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Storage of an imported graph: the sequence, genomes and genome coordinates of every node,
+ * the edges, and named arrays of longs for summaries and indices.
+ * <p>
+ * A store is filled once while a file is imported, by putNode and putEdge followed by
+ * commit. After that it is only read, possibly by several threads at the same time.
+ * Nodes that were not put give null and -1.
+ */
+public interface GraphStore extends Closeable {
+
+    /**
+     * @return true if the store holds an imported graph, false if it still has to be filled.
+     */
+    boolean isImported();
+
+    /**
+     * Adds a node.
+     *
+     * @param id       the id of the node.
+     * @param sequence the sequence of the node.
+     * @param genomes  the genomes going through the node, or null.
+     * @param offsets  the coordinate of the node in each genome, or null.
+     * @throws IOException when the node can not be written.
+     */
+    void putNode(int id, String sequence, int[] genomes, int[] offsets) throws IOException;
+
+    /**
+     * Adds an edge. Edges have to be added grouped by parent, in increasing order.
+     *
+     * @param parent the id of the node the edge starts at.
+     * @param child  the id of the node the edge ends at.
+     * @throws IOException when the edge can not be written.
+     */
+    void putEdge(int parent, int child) throws IOException;
+
+    /**
+     * Finishes the import. Everything put before is stored after this returns.
+     *
+     * @throws IOException when the store can not be written.
+     */
+    void commit() throws IOException;
+
+    /**
+     * @param id the id of the node.
+     * @return the sequence of the node, or null.
+     */
+    String getSequence(int id);
+
+    /**
+     * @param id the id of the node.
+     * @return the length of the sequence of the node, or -1.
+     */
+    int getSequenceLength(int id);
+
+    /**
+     * @param id the id of the node.
+     * @return the genomes going through the node, or null.
+     */
+    int[] getGenomes(int id);
+
+    /**
+     * @param id the id of the node.
+     * @return the coordinate of the node in each of its genomes, or null.
+     */
+    int[] getOffsets(int id);
+
+    /**
+     * @return the highest node id, or 0 if there are no nodes.
+     */
+    int getMaxNodeId();
+
+    /**
+     * @return the parents of all edges, in the order they were put, or null if there are none.
+     * @throws IOException when the edges can not be read.
+     */
+    int[] getParentArray() throws IOException;
+
+    /**
+     * @return the children of all edges, in the order they were put, or null if there are none.
+     * @throws IOException when the edges can not be read.
+     */
+    int[] getChildArray() throws IOException;
+
+    /**
+     * Reads a named array of longs.
+     *
+     * @param name the name of the arrays.
+     * @param key  the key of the array.
+     * @return the array, or null if it was not stored.
+     * @throws IOException when the array can not be read.
+     */
+    long[] getLongs(String name, int key) throws IOException;
+
+    /**
+     * Stores a named array of longs, also after the import. Call commit to make sure it is
+     * written.
+     *
+     * @param name   the name of the arrays.
+     * @param key    the key of the array.
+     * @param values the array.
+     * @throws IOException when the array can not be written.
+     */
+    void putLongs(String name, int key, long[] values) throws IOException;
+
+    /**
+     * Releases the store. It can not be used afterwards.
+     */
+    @Override
+    void close();
+}
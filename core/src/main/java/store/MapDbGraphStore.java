@@ -0,0 +1,216 @@
+package store;
+
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores the nodes in MapDB B-trees and the edges as comma separated text files,
+ * parentArray.txt and childArray.txt.
+ */
+public class MapDbGraphStore implements GraphStore {
+
+    private static final int ALLOCATE_INCREMENT = 64 * 1024 * 1024;
+
+    private final DB db;
+    private final String name;
+    private final File directory;
+    private final BTreeMap<Long, String> sequenceMap;
+    private final BTreeMap<Integer, int[]> genomes;
+    private final BTreeMap<Integer, int[]> offSets;
+
+    private BufferedWriter parentWriter;
+    private BufferedWriter childWriter;
+
+    /**
+     * Constructor.
+     *
+     * @param db        the database of the nodes.
+     * @param name      the name of the graph in the database.
+     * @param directory the directory of the edge files.
+     */
+    public MapDbGraphStore(DB db, String name, File directory) {
+        this.db = db;
+        this.name = name;
+        this.directory = directory;
+        this.sequenceMap = db.treeMap(name + ".sequence.db").
+                keySerializer(Serializer.LONG).
+                valueSerializer(Serializer.STRING).createOrOpen();
+        this.genomes = db.treeMap(name + ".genomes.db").
+                keySerializer(Serializer.INTEGER).
+                valueSerializer(Serializer.INT_ARRAY).createOrOpen();
+        this.offSets = db.treeMap(name + ".offSets.db").
+                keySerializer(Serializer.INTEGER).
+                valueSerializer(Serializer.INT_ARRAY).createOrOpen();
+    }
+
+    /**
+     * Opens or creates the memory mapped database file graph.db in a directory.
+     *
+     * @param directory the directory.
+     * @param name      the name of the graph in the database.
+     * @return the store.
+     */
+    public static MapDbGraphStore open(File directory, String name) {
+        DB db = DBMaker.fileDB(new File(directory, "graph.db")).fileMmapEnable().
+                fileMmapPreclearDisable().
+                cleanerHackEnable().
+                allocateIncrement(ALLOCATE_INCREMENT).
+                closeOnJvmShutdown().checksumHeaderBypass().make();
+        return new MapDbGraphStore(db, name, directory);
+    }
+
+    @Override
+    public boolean isImported() {
+        return !sequenceMap.isEmpty();
+    }
+
+    @Override
+    public void putNode(int id, String sequence, int[] nodeGenomes, int[] nodeOffsets) {
+        if (nodeGenomes != null) {
+            genomes.put(id, nodeGenomes);
+        }
+        if (nodeOffsets != null) {
+            offSets.put(id, nodeOffsets);
+        }
+        sequenceMap.put((long) id, sequence);
+    }
+
+    @Override
+    public void putEdge(int parent, int child) throws IOException {
+        if (parentWriter == null) {
+            openEdgeWriters();
+        }
+        parentWriter.write(parent + ",");
+        childWriter.write(child + ",");
+    }
+
+    /**
+     * Creates the edge files.
+     *
+     * @throws IOException when the files can not be created.
+     */
+    private void openEdgeWriters() throws IOException {
+        parentWriter = new BufferedWriter(new FileWriter(new File(directory, "parentArray.txt")));
+        childWriter = new BufferedWriter(new FileWriter(new File(directory, "childArray.txt")));
+    }
+
+    @Override
+    public void commit() throws IOException {
+        if (parentWriter == null && !new File(directory, "parentArray.txt").exists()) {
+            openEdgeWriters();
+        }
+        if (parentWriter != null) {
+            parentWriter.close();
+            childWriter.close();
+            parentWriter = null;
+            childWriter = null;
+        }
+        db.commit();
+    }
+
+    @Override
+    public String getSequence(int id) {
+        return sequenceMap.get((long) id);
+    }
+
+    @Override
+    public int getSequenceLength(int id) {
+        String sequence = sequenceMap.get((long) id);
+        return sequence == null ? -1 : sequence.length();
+    }
+
+    @Override
+    public int[] getGenomes(int id) {
+        return genomes.get(id);
+    }
+
+    @Override
+    public int[] getOffsets(int id) {
+        return offSets.get(id);
+    }
+
+    @Override
+    public int getMaxNodeId() {
+        return sequenceMap.isEmpty() ? 0 : sequenceMap.lastKey().intValue();
+    }
+
+    @Override
+    public int[] getParentArray() throws IOException {
+        return read("parentArray.txt");
+    }
+
+    @Override
+    public int[] getChildArray() throws IOException {
+        return read("childArray.txt");
+    }
+
+    /**
+     * converts the array txt file to an int[].
+     *
+     * @param fileName - the name of the edge file.
+     * @return - the int[]
+     * @throws IOException - can throw IO exception due to using an inputstream.
+     */
+    private int[] read(String fileName) throws IOException {
+        try (InputStream in = new FileInputStream(new File(directory, fileName));
+             BufferedReader br = new BufferedReader(
+                     new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line = br.readLine();
+            if (line == null) {
+                return null;
+            }
+            String[] strNums = line.split(",");
+            int[] nodeArray = new int[strNums.length];
+            for (int i = 0; i < strNums.length; i++) {
+                nodeArray[i] = Integer.parseInt(strNums[i]);
+            }
+            return nodeArray;
+        }
+    }
+
+    @Override
+    public long[] getLongs(String arrays, int key) {
+        if (db.get(name + "." + arrays + ".db") == null) {
+            return null;
+        }
+        return longsMap(arrays).get(key);
+    }
+
+    @Override
+    public void putLongs(String arrays, int key, long[] values) {
+        longsMap(arrays).put(key, values);
+    }
+
+    private BTreeMap<Integer, long[]> longsMap(String arrays) {
+        return db.treeMap(name + "." + arrays + ".db")
+                .keySerializer(Serializer.INTEGER)
+                .valueSerializer(Serializer.LONG_ARRAY).createOrOpen();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (parentWriter != null) {
+                parentWriter.close();
+                childWriter.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Can not close the edge files: " + e.getMessage());
+        }
+        if (!db.isClosed()) {
+            db.close();
+        }
+    }
+}
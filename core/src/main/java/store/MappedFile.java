@@ -0,0 +1,112 @@
+package store;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file mapped into memory for reading, in chunks of 1 GB so files larger than 2 GB
+ * can be mapped. All reads are absolute, so a mapped file can be read by several threads.
+ */
+final class MappedFile {
+
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+
+    private final ByteBuffer[] chunks;
+    private final long length;
+
+    /**
+     * Maps a file.
+     *
+     * @param file the file.
+     * @throws IOException when the file can not be mapped.
+     */
+    MappedFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            length = channel.size();
+            chunks = new ByteBuffer[(int) ((length + CHUNK_SIZE - 1) >>> CHUNK_BITS)];
+            for (int i = 0; i < chunks.length; i++) {
+                long position = (long) i << CHUNK_BITS;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(CHUNK_SIZE, length - position));
+            }
+        }
+    }
+
+    /**
+     * @return the length of the file in bytes.
+     */
+    long length() {
+        return length;
+    }
+
+    /**
+     * Reads bytes, which may span two chunks.
+     *
+     * @param position the position in the file.
+     * @param target   the array to read into.
+     * @param offset   the position in the array.
+     * @param count    the number of bytes.
+     */
+    void read(long position, byte[] target, int offset, int count) {
+        while (count > 0) {
+            ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)].duplicate();
+            int inChunk = (int) (position & (CHUNK_SIZE - 1));
+            int part = Math.min(count, chunk.limit() - inChunk);
+            chunk.position(inChunk);
+            chunk.get(target, offset, part);
+            position += part;
+            offset += part;
+            count -= part;
+        }
+    }
+
+    /**
+     * @param position the position in the file.
+     * @return the int at the position.
+     */
+    int getInt(long position) {
+        ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+        int inChunk = (int) (position & (CHUNK_SIZE - 1));
+        if (inChunk + Integer.BYTES <= chunk.limit()) {
+            return chunk.getInt(inChunk);
+        }
+        byte[] bytes = new byte[Integer.BYTES];
+        read(position, bytes, 0, bytes.length);
+        return ByteBuffer.wrap(bytes).getInt();
+    }
+
+    /**
+     * @param position the position in the file.
+     * @return the long at the position.
+     */
+    long getLong(long position) {
+        ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+        int inChunk = (int) (position & (CHUNK_SIZE - 1));
+        if (inChunk + Long.BYTES <= chunk.limit()) {
+            return chunk.getLong(inChunk);
+        }
+        byte[] bytes = new byte[Long.BYTES];
+        read(position, bytes, 0, bytes.length);
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    /**
+     * Reads the whole file as ints.
+     *
+     * @return the ints.
+     */
+    int[] readInts() {
+        int[] values = new int[(int) (length / Integer.BYTES)];
+        int done = 0;
+        for (ByteBuffer chunk : chunks) {
+            int part = Math.min(chunk.limit() / Integer.BYTES, values.length - done);
+            chunk.duplicate().asIntBuffer().get(values, done, part);
+            done += part;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,112 @@
+package store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Keeps a graph on the heap, in arrays indexed by node id, without writing any file.
+ * Used for small graphs, which are parsed again faster than a database is created for them.
+ */
+public class MemoryGraphStore implements GraphStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private String[] sequences = new String[INITIAL_CAPACITY];
+    private int[][] genomes = new int[INITIAL_CAPACITY][];
+    private int[][] offSets = new int[INITIAL_CAPACITY][];
+    private int maxNodeId;
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] children = new int[INITIAL_CAPACITY];
+    private int edges;
+    private final HashMap<String, long[]> longs = new HashMap<>();
+    private boolean imported;
+
+    @Override
+    public boolean isImported() {
+        return imported;
+    }
+
+    @Override
+    public void putNode(int id, String sequence, int[] nodeGenomes, int[] nodeOffsets) {
+        if (id >= sequences.length) {
+            int capacity = Math.max(id + 1, sequences.length * 2);
+            sequences = Arrays.copyOf(sequences, capacity);
+            genomes = Arrays.copyOf(genomes, capacity);
+            offSets = Arrays.copyOf(offSets, capacity);
+        }
+        sequences[id] = sequence;
+        genomes[id] = nodeGenomes;
+        offSets[id] = nodeOffsets;
+        maxNodeId = Math.max(maxNodeId, id);
+    }
+
+    @Override
+    public void putEdge(int parent, int child) {
+        if (edges == parents.length) {
+            parents = Arrays.copyOf(parents, edges * 2);
+            children = Arrays.copyOf(children, edges * 2);
+        }
+        parents[edges] = parent;
+        children[edges] = child;
+        edges++;
+    }
+
+    @Override
+    public void commit() {
+        imported = true;
+    }
+
+    @Override
+    public String getSequence(int id) {
+        return id >= 0 && id < sequences.length ? sequences[id] : null;
+    }
+
+    @Override
+    public int getSequenceLength(int id) {
+        String sequence = getSequence(id);
+        return sequence == null ? -1 : sequence.length();
+    }
+
+    @Override
+    public int[] getGenomes(int id) {
+        return id >= 0 && id < genomes.length ? genomes[id] : null;
+    }
+
+    @Override
+    public int[] getOffsets(int id) {
+        return id >= 0 && id < offSets.length ? offSets[id] : null;
+    }
+
+    @Override
+    public int getMaxNodeId() {
+        return maxNodeId;
+    }
+
+    @Override
+    public int[] getParentArray() {
+        return edges == 0 ? null : Arrays.copyOf(parents, edges);
+    }
+
+    @Override
+    public int[] getChildArray() {
+        return edges == 0 ? null : Arrays.copyOf(children, edges);
+    }
+
+    @Override
+    public long[] getLongs(String name, int key) {
+        return longs.get(name + "-" + key);
+    }
+
+    @Override
+    public void putLongs(String name, int key, long[] values) {
+        longs.put(name + "-" + key, values);
+    }
+
+    @Override
+    public void close() {
+        sequences = new String[0];
+        genomes = new int[0][];
+        offSets = new int[0][];
+        longs.clear();
+    }
+}
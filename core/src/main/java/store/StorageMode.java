@@ -0,0 +1,20 @@
+package store;
+
+/**
+ * Where an imported graph is kept.
+ */
+public enum StorageMode {
+    /**
+     * In memory if the file is smaller than the memory threshold of the GraphCache,
+     * on disk otherwise.
+     */
+    AUTO,
+    /**
+     * In a MemoryGraphStore, without writing to the GraphCache.
+     */
+    MEMORY,
+    /**
+     * In the GraphCache, so the graph opens at once the next time.
+     */
+    DISK
+}
@@ -0,0 +1,33 @@
+package store;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The formats in which an imported graph can be stored.
+ */
+public enum StoreFormat {
+    /**
+     * MapDB B-trees in graph.db, with the edges in text files.
+     */
+    MAPDB,
+    /**
+     * Memory mapped columns indexed by node id, see FlatGraphStore.
+     */
+    FLAT;
+
+    /**
+     * Opens a store of this format in a directory.
+     *
+     * @param directory the directory of the store.
+     * @param name      the name of the graph.
+     * @return the store, which is empty if the graph was not imported yet.
+     * @throws IOException when the store can not be opened.
+     */
+    public GraphStore open(File directory, String name) throws IOException {
+        if (this == FLAT) {
+            return new FlatGraphStore(directory);
+        }
+        return MapDbGraphStore.open(directory, name);
+    }
+}
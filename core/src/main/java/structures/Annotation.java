@@ -0,0 +1,102 @@
+package structures;
+
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * Created by lex_b on 13/06/2017.
+ *
+ * A view on one annotation in an AnnotationStore. It is cheap to make and holds no data
+ * itself, so views are made when they are needed and thrown away afterwards.
+ * The getters follow the bean conventions, so it can be loaded into a tableView.
+ */
+public final class Annotation implements Comparable<Annotation> {
+    private final AnnotationStore store;
+    private final int row;
+
+    /**
+     * Constructor of the view.
+     * @param store the store of the annotation
+     * @param row the row of the annotation in the store, which is its ID
+     */
+    Annotation(AnnotationStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    public int getId() {
+        return row;
+    }
+
+    public int getStart() {
+        return store.getStart(row);
+    }
+
+    public int getEnd() {
+        return store.getEnd(row);
+    }
+
+    public String getInfo() {
+        return store.getInfo(row);
+    }
+
+    public boolean isSelected() {
+        return store.isSelected(row);
+    }
+
+    public void setSelected(boolean selected) {
+        store.setSelected(row, selected);
+    }
+
+    public void setHighlighted(boolean highlighted) {
+        store.setHighlighted(row, highlighted);
+    }
+
+    public boolean getHighlighted() {
+        return store.isHighlighted(row);
+    }
+
+    /**
+     * Selects all the annotations.
+     * @param allAnnotations Selects all these annotations
+     */
+    public static void selectAll(AnnotationIndex allAnnotations) {
+        allAnnotations.getStore().selectAll();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Annotation && ((Annotation) o).store == store
+                && ((Annotation) o).row == row;
+    }
+
+    @Override
+    public int hashCode() {
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        String res = getInfo();
+        res = res.replace("\t", "\n");
+        res = res.replace("=", ":\t");
+        return res;
+    }
+
+    @Override
+    public int compareTo(@NotNull Annotation o) {
+        if (this.getStart() < o.getStart()) {
+            return -1;
+        } else if (this.getStart() > o.getStart()) {
+            return 1;
+        } else {
+            if (this.getEnd() > o.getEnd()) {
+                return -1;
+            } else if (this.getEnd() < o.getEnd()) {
+                return 1;
+            } else {
+                return 0;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package structures;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes an AnnotationIndex with its AnnotationStore to a file, and maps it again.
+ * <p>
+ * The file starts with a header of four ints: a magic number, the version, the number of
+ * annotations and the number of bytes of attributes. The columns follow one after another:
+ * the starts, ends and attribute offsets of the store, the sorted ids, starts, ends and
+ * largest ends of the index, the lanes of the annotations and then the attributes. Every
+ * column is mapped on its own, so the operating system only reads the pages a query touches.
+ */
+final class AnnotationFile {
+
+    private static final int MAGIC = 0x44424746;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int COLUMNS = 8;
+    private static final int OFFSETS_COLUMN = 2;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private AnnotationFile() {
+    }
+
+    /**
+     * Writes an index to a file.
+     *
+     * @param index the index.
+     * @param file  the file to write to.
+     * @throws IOException when the file can not be written.
+     */
+    static void write(AnnotationIndex index, File file) throws IOException {
+        AnnotationStore store = index.getStore();
+        int size = store.size();
+        int infoBytes = store.getInfoOffsets().get(size);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(infoBytes).flip();
+            writeFully(channel, buffer);
+            IntBuffer[] columns = {store.getStarts(), store.getEnds(), store.getInfoOffsets(),
+                index.getOrder(), index.getStarts(), index.getEnds(), index.getMaxEnds(),
+                index.getLanes()};
+            for (IntBuffer column : columns) {
+                writeInts(channel, buffer, column);
+            }
+            ByteBuffer infos = store.getInfos();
+            infos.limit(infoBytes);
+            writeFully(channel, infos);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, IntBuffer column)
+            throws IOException {
+        while (column.hasRemaining()) {
+            int part = Math.min(column.remaining(), buffer.capacity() / Integer.BYTES);
+            IntBuffer slice = column.slice();
+            slice.limit(part);
+            buffer.clear();
+            buffer.asIntBuffer().put(slice);
+            buffer.limit(part * Integer.BYTES);
+            writeFully(channel, buffer);
+            column.position(column.position() + part);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Maps an index that was written before.
+     *
+     * @param file the file.
+     * @param like the store to share the selected and highlighted annotations with, or null.
+     * @return the index.
+     * @throws IOException when the file can not be read or is not an index.
+     */
+    static AnnotationIndex open(File file, AnnotationStore like) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(file + " is not an annotation index");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException(file + " is not an annotation index");
+            }
+            int size = header.getInt();
+            int infoBytes = header.getInt();
+            long position = HEADER_BYTES;
+            if (channel.size() != position + ((long) COLUMNS * size + 1) * Integer.BYTES
+                    + infoBytes) {
+                throw new IOException(file + " is incomplete");
+            }
+            IntBuffer[] columns = new IntBuffer[COLUMNS];
+            for (int i = 0; i < columns.length; i++) {
+                int length = i == OFFSETS_COLUMN ? size + 1 : size;
+                columns[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        (long) length * Integer.BYTES).asIntBuffer();
+                position += (long) length * Integer.BYTES;
+            }
+            ByteBuffer infos = channel.map(FileChannel.MapMode.READ_ONLY, position, infoBytes);
+            AnnotationStore store = like == null
+                    ? new AnnotationStore(size, columns[0], columns[1], columns[2], infos)
+                    : new AnnotationStore(size, columns[0], columns[1], columns[2], infos, like);
+            return new AnnotationIndex(store, columns[3], columns[4], columns[5], columns[6],
+                    columns[7]);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package structures;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the annotations that overlap a range of coordinates in O(log n + k).
+ * <p>
+ * The annotations are sorted by start. The sorted array is read as a balanced binary tree,
+ * of which the root of every range is its middle, and every node keeps the largest end in
+ * its sub tree. A query skips the sub trees that end before the range and stops at the
+ * first annotation that starts after it. Annotations are never copied, however long they are.
+ * The index keeps only ids and coordinates, the annotations stay in their AnnotationStore.
+ * It also keeps the lane of every annotation, see AnnotationLanes.
+ * An index can be written to an AnnotationFile and mapped from it again, so that only the
+ * parts of the file that a query reaches are read.
+ */
+public class AnnotationIndex {
+
+    private final AnnotationStore store;
+    private final IntBuffer order;
+    private final IntBuffer starts;
+    private final IntBuffer ends;
+    private final IntBuffer maxEnds;
+    private final IntBuffer lanes;
+
+    /**
+     * Constructor.
+     *
+     * @param store the annotations to index.
+     */
+    public AnnotationIndex(AnnotationStore store) {
+        this.store = store;
+        int size = store.size();
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        sort(rows, new int[size], 0, size);
+        int[] sortedStarts = new int[size];
+        int[] sortedEnds = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedStarts[i] = store.getStart(rows[i]);
+            sortedEnds[i] = store.getEnd(rows[i]);
+        }
+        order = IntBuffer.wrap(rows);
+        starts = IntBuffer.wrap(sortedStarts);
+        ends = IntBuffer.wrap(sortedEnds);
+        maxEnds = IntBuffer.wrap(new int[size]);
+        augment(0, size - 1);
+        lanes = IntBuffer.wrap(AnnotationLanes.assign(order, starts, ends));
+    }
+
+    /**
+     * Constructor for an index that was computed before.
+     *
+     * @param store   the annotations.
+     * @param order   the ids of the annotations, sorted.
+     * @param starts  the starts of the sorted annotations.
+     * @param ends    the ends of the sorted annotations.
+     * @param maxEnds the largest end of every sub tree.
+     * @param lanes   the lane of every annotation, by id.
+     */
+    AnnotationIndex(AnnotationStore store, IntBuffer order, IntBuffer starts, IntBuffer ends,
+                    IntBuffer maxEnds, IntBuffer lanes) {
+        this.store = store;
+        this.order = order;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = maxEnds;
+        this.lanes = lanes;
+    }
+
+    /**
+     * Maps an index that was written before.
+     *
+     * @param file the file the index was written to.
+     * @return the index, of which the columns are read when they are used.
+     * @throws IOException when the file can not be read or is not an index.
+     */
+    public static AnnotationIndex open(File file) throws IOException {
+        return AnnotationFile.open(file, null);
+    }
+
+    /**
+     * Maps an index that was written before, of which the annotations are selected and
+     * highlighted together with the annotations of another store, like the one it was
+     * written from.
+     *
+     * @param file the file the index was written to.
+     * @param like the store to share the selected and highlighted annotations with.
+     * @return the index, of which the columns are read when they are used.
+     * @throws IOException when the file can not be read or is not an index.
+     */
+    public static AnnotationIndex open(File file, AnnotationStore like) throws IOException {
+        return AnnotationFile.open(file, like);
+    }
+
+    /**
+     * Writes the index with its annotations, so it can be opened without parsing the file.
+     *
+     * @param file the file to write to.
+     * @throws IOException when the file can not be written.
+     */
+    public void write(File file) throws IOException {
+        AnnotationFile.write(this, file);
+    }
+
+    /**
+     * @return an index without annotations.
+     */
+    public static AnnotationIndex empty() {
+        return new AnnotationIndex(new AnnotationStore.Builder().build());
+    }
+
+    /**
+     * Sorts ids like their annotations are compared: by start, longest first.
+     * A merge sort, so annotations with the same coordinates keep the order of the file.
+     *
+     * @param rows   the ids to sort.
+     * @param buffer space to merge in, as long as rows.
+     * @param from   the first position to sort, inclusive.
+     * @param to     the last position to sort, exclusive.
+     */
+    private void sort(int[] rows, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(rows, buffer, from, middle);
+        sort(rows, buffer, middle, to);
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || left < middle && compare(buffer[left], buffer[right]) <= 0) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private int compare(int first, int second) {
+        int byStart = Integer.compare(store.getStart(first), store.getStart(second));
+        return byStart != 0 ? byStart
+                : Integer.compare(store.getEnd(second), store.getEnd(first));
+    }
+
+    /**
+     * Computes the largest end of every sub tree.
+     *
+     * @param low  the first position of the sub tree.
+     * @param high the last position of the sub tree.
+     * @return the largest end in the sub tree.
+     */
+    private int augment(int low, int high) {
+        if (low > high) {
+            return Integer.MIN_VALUE;
+        }
+        int middle = (low + high) >>> 1;
+        maxEnds.put(middle, Math.max(ends.get(middle),
+                Math.max(augment(low, middle - 1), augment(middle + 1, high))));
+        return maxEnds.get(middle);
+    }
+
+    /**
+     * Finds the annotations that overlap [from, to), so that start &lt; to and end &gt; from.
+     *
+     * @param from the first coordinate, inclusive.
+     * @param to   the last coordinate, exclusive.
+     * @return the annotations, sorted like annotations are compared.
+     */
+    public List<Annotation> query(int from, int to) {
+        List<Annotation> result = new ArrayList<>();
+        if (from < to) {
+            query(0, size() - 1, from, to, result);
+        }
+        return result;
+    }
+
+    private void query(int low, int high, int from, int to, List<Annotation> result) {
+        if (low > high) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        if (maxEnds.get(middle) <= from) {
+            return;
+        }
+        query(low, middle - 1, from, to, result);
+        if (starts.get(middle) >= to) {
+            return;
+        }
+        if (ends.get(middle) > from) {
+            result.add(store.get(order.get(middle)));
+        }
+        query(middle + 1, high, from, to, result);
+    }
+
+    /**
+     * Finds the position of an annotation in the sorted annotations.
+     *
+     * @param id the id of the annotation.
+     * @return the position, or -1 if there is no annotation with the id.
+     */
+    public int indexOf(int id) {
+        if (id < 0 || id >= size()) {
+            return -1;
+        }
+        int start = store.getStart(id);
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts.get(middle) < start) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < size() && starts.get(i) == start; i++) {
+            if (order.get(i) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the next selected annotation in the sorted annotations, to step through them.
+     *
+     * @param position the position to start after, or -1 or the size to start at an end.
+     * @param step     1 to find the next annotation, -1 to find the previous one.
+     * @return the position of the annotation, or -1 if no annotation is selected there.
+     */
+    public int nextSelected(int position, int step) {
+        for (int i = position + step; i >= 0 && i < size(); i += step) {
+            if (store.isSelected(order.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return all annotations, sorted like annotations are compared. The views are made
+     * when they are read.
+     */
+    public List<Annotation> getAll() {
+        return new AbstractList<Annotation>() {
+            @Override
+            public Annotation get(int index) {
+                return store.get(order.get(index));
+            }
+
+            @Override
+            public int size() {
+                return AnnotationIndex.this.size();
+            }
+        };
+    }
+
+    /**
+     * Gets the lane of an annotation. Overlapping annotations are in different lanes,
+     * and an annotation is in the same lane wherever it is drawn.
+     *
+     * @param id the id of the annotation.
+     * @return the lane, starting at 0.
+     */
+    public int getLane(int id) {
+        return lanes.get(id);
+    }
+
+    public AnnotationStore getStore() {
+        return store;
+    }
+
+    IntBuffer getOrder() {
+        return order.duplicate();
+    }
+
+    IntBuffer getStarts() {
+        return starts.duplicate();
+    }
+
+    IntBuffer getEnds() {
+        return ends.duplicate();
+    }
+
+    IntBuffer getMaxEnds() {
+        return maxEnds.duplicate();
+    }
+
+    IntBuffer getLanes() {
+        return lanes.duplicate();
+    }
+
+    /**
+     * @return the number of annotations.
+     */
+    public int size() {
+        return order.limit();
+    }
+
+    /**
+     * @return true if there are no annotations.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
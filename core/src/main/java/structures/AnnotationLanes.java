@@ -0,0 +1,89 @@
+package structures;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Divides annotations over lanes so overlapping annotations do not hide each other.
+ * <p>
+ * The annotations are visited by start. A min-heap keeps the annotations that are still
+ * open, by end, so every annotation that ended before the next start gives its lane back.
+ * An annotation gets the lowest free lane, so the number of lanes is the largest number of
+ * annotations that overlap in one place. The lanes are computed once for all annotations,
+ * so an annotation keeps its lane over every node it covers.
+ */
+final class AnnotationLanes {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int LANE_BITS = 32;
+    private static final long LANE_MASK = 0xFFFFFFFFL;
+
+    private long[] heap = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private AnnotationLanes() {
+    }
+
+    /**
+     * Assigns the lanes of the annotations of an index.
+     *
+     * @param order  the ids of the annotations, sorted by start.
+     * @param starts the starts of the sorted annotations.
+     * @param ends   the ends of the sorted annotations.
+     * @return the lane of every annotation, by id, starting at 0.
+     */
+    static int[] assign(IntBuffer order, IntBuffer starts, IntBuffer ends) {
+        int count = order.limit();
+        int[] lanes = new int[count];
+        AnnotationLanes open = new AnnotationLanes();
+        BitSet free = new BitSet();
+        for (int i = 0; i < count; i++) {
+            int start = starts.get(i);
+            while (open.size > 0 && (int) (open.heap[0] >> LANE_BITS) < start) {
+                free.set((int) (open.poll() & LANE_MASK));
+            }
+            int lane = free.nextSetBit(0);
+            if (lane < 0) {
+                lane = open.size;
+            } else {
+                free.clear(lane);
+            }
+            lanes[order.get(i)] = lane;
+            open.push((long) ends.get(i) << LANE_BITS | lane);
+        }
+        return lanes;
+    }
+
+    private void push(long value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int child = size++;
+        while (child > 0 && heap[(child - 1) >>> 1] > value) {
+            heap[child] = heap[(child - 1) >>> 1];
+            child = (child - 1) >>> 1;
+        }
+        heap[child] = value;
+    }
+
+    private long poll() {
+        long head = heap[0];
+        long last = heap[--size];
+        int parent = 0;
+        int child = 1;
+        while (child < size) {
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+            child = 2 * parent + 1;
+        }
+        heap[parent] = last;
+        return head;
+    }
+}
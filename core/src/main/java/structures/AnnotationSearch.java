@@ -0,0 +1,522 @@
+package structures;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * An inverted index over the searched attributes of annotations: their ID, Name, gene,
+ * product and locus_tag.
+ * <p>
+ * The values are cut into lower case tokens at every character that is not a letter or digit.
+ * The distinct tokens are sorted and packed UTF-8 encoded into one byte array, and for every
+ * token the ids of the annotations that have it are kept in one int array. Every term of a
+ * query matches the tokens that contain it: the tokens that start with it for terms shorter
+ * than three bytes, and otherwise the tokens that have all its trigrams, which are kept in a
+ * second inverted index from trigrams to tokens. A query finds the annotations that match all
+ * its terms. Terms that are numbers also match the annotations of which the start or end
+ * starts with them. Those coordinates lie in one range per number of digits that can follow
+ * the term, which are looked up in the rows sorted by start and the rows sorted by end.
+ */
+public final class AnnotationSearch {
+
+    private static final String[] SEARCHED = {"id", "name", "gene", "product", "locus_tag"};
+    private static final int GRAM = 3;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int DECIMAL = 10;
+
+    private final AnnotationStore store;
+    private final byte[] tokens;
+    private final int[] tokenOffsets;
+    private final int[] rowOffsets;
+    private final int[] rows;
+    private final int[] grams;
+    private final int[] gramOffsets;
+    private final int[] gramTokens;
+    private final int[] rowsByStart;
+    private final int[] rowsByEnd;
+
+    /**
+     * Builds the index of a store.
+     *
+     * @param store the annotations.
+     */
+    public AnnotationSearch(AnnotationStore store) {
+        this.store = store;
+        HashMap<String, Integer> ids = new HashMap<>();
+        IntList pairTokens = new IntList();
+        IntList pairRows = new IntList();
+        IntList lastRows = new IntList();
+        for (int row = 0; row < store.size(); row++) {
+            for (String token : tokenize(searchedValues(store.getInfo(row)))) {
+                Integer id = ids.get(token);
+                if (id == null) {
+                    id = ids.size();
+                    ids.put(token, id);
+                    lastRows.add(-1);
+                }
+                if (lastRows.get(id) != row) {
+                    lastRows.set(id, row);
+                    pairTokens.add(id);
+                    pairRows.add(row);
+                }
+            }
+        }
+        int[] rank = new int[ids.size()];
+        tokenOffsets = new int[ids.size() + 1];
+        tokens = pack(ids, rank, tokenOffsets);
+        rowOffsets = new int[ids.size() + 1];
+        rows = group(pairTokens, pairRows, rank, rowOffsets);
+        long[] gramPairs = gramPairs();
+        grams = distinctGrams(gramPairs);
+        gramOffsets = new int[grams.length + 1];
+        gramTokens = new int[gramPairs.length];
+        for (int i = 0, gram = -1; i < gramPairs.length; i++) {
+            if (gram < 0 || grams[gram] != (int) (gramPairs[i] >>> Integer.SIZE)) {
+                gramOffsets[++gram] = i;
+            }
+            gramTokens[i] = (int) gramPairs[i];
+        }
+        gramOffsets[grams.length] = gramPairs.length;
+        rowsByStart = sortRows(store.size(), store::getStart);
+        rowsByEnd = sortRows(store.size(), store::getEnd);
+    }
+
+    /**
+     * Finds the annotations that match all terms of a query.
+     *
+     * @param query the query.
+     * @return the ids of the annotations, or null if the query has no terms.
+     */
+    public BitSet find(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        BitSet result = null;
+        for (String term : terms) {
+            BitSet matches = find(term.getBytes(StandardCharsets.UTF_8));
+            if (isNumber(term)) {
+                matchCoordinates(term, matches);
+            }
+            if (result == null) {
+                result = matches;
+            } else {
+                result.and(matches);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of distinct tokens.
+     */
+    public int getTokenCount() {
+        return tokenOffsets.length - 1;
+    }
+
+    private BitSet find(byte[] term) {
+        BitSet result = new BitSet(store.size());
+        if (term.length < GRAM) {
+            int from = firstToken(term);
+            for (int token = from; token < getTokenCount() && startsWith(token, term); token++) {
+                addRows(token, result);
+            }
+            return result;
+        }
+        for (int token : candidates(term)) {
+            if (contains(token, term)) {
+                addRows(token, result);
+            }
+        }
+        return result;
+    }
+
+    private void addRows(int token, BitSet result) {
+        for (int i = rowOffsets[token]; i < rowOffsets[token + 1]; i++) {
+            result.set(rows[i]);
+        }
+    }
+
+    /**
+     * Intersects the tokens of all trigrams of a term, starting with the shortest list.
+     *
+     * @param term the term, at least three bytes.
+     * @return the tokens that have all trigrams of the term.
+     */
+    private int[] candidates(byte[] term) {
+        int[] lists = new int[term.length - GRAM + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = Arrays.binarySearch(grams, gram(term, i));
+            if (lists[i] < 0) {
+                return new int[0];
+            }
+        }
+        int shortest = lists[0];
+        for (int list : lists) {
+            if (length(list) < length(shortest)) {
+                shortest = list;
+            }
+        }
+        int[] result = Arrays.copyOfRange(gramTokens, gramOffsets[shortest],
+                gramOffsets[shortest + 1]);
+        int size = result.length;
+        for (int list : lists) {
+            if (list != shortest) {
+                size = retain(result, size, list);
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private int length(int gram) {
+        return gramOffsets[gram + 1] - gramOffsets[gram];
+    }
+
+    /**
+     * Keeps the tokens that are in the list of a trigram as well. Both are sorted.
+     *
+     * @param tokenIds the tokens.
+     * @param size     the number of tokens.
+     * @param gram     the trigram.
+     * @return the number of tokens that are left at the start of the array.
+     */
+    private int retain(int[] tokenIds, int size, int gram) {
+        int kept = 0;
+        int other = gramOffsets[gram];
+        for (int i = 0; i < size; i++) {
+            while (other < gramOffsets[gram + 1] && gramTokens[other] < tokenIds[i]) {
+                other++;
+            }
+            if (other < gramOffsets[gram + 1] && gramTokens[other] == tokenIds[i]) {
+                tokenIds[kept++] = tokenIds[i];
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Adds the annotations of which the start or end starts with the digits of a term.
+     *
+     * @param term    a term of only digits.
+     * @param matches the ids of the matching annotations.
+     */
+    private void matchCoordinates(String term, BitSet matches) {
+        if (term.length() > Integer.toString(Integer.MAX_VALUE).length()
+                || term.length() > 1 && term.charAt(0) == '0') {
+            return;
+        }
+        long prefix = Long.parseLong(term);
+        for (long scale = 1; prefix * scale <= Integer.MAX_VALUE; scale *= DECIMAL) {
+            long to = Math.min((prefix + 1) * scale, Integer.MAX_VALUE + 1L);
+            addCoordinates(rowsByStart, store::getStart, prefix * scale, to, matches);
+            addCoordinates(rowsByEnd, store::getEnd, prefix * scale, to, matches);
+            if (prefix == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds the rows of which a coordinate lies in a range.
+     *
+     * @param sorted     the rows, sorted by the coordinate.
+     * @param coordinate the coordinate of a row.
+     * @param from       the first coordinate, inclusive.
+     * @param to         the last coordinate, exclusive.
+     * @param matches    the ids of the matching annotations.
+     */
+    private static void addCoordinates(int[] sorted, IntUnaryOperator coordinate, long from,
+                                       long to, BitSet matches) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (coordinate.applyAsInt(sorted[middle]) < from) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < sorted.length && coordinate.applyAsInt(sorted[i]) < to; i++) {
+            matches.set(sorted[i]);
+        }
+    }
+
+    /**
+     * Sorts the rows by a coordinate.
+     *
+     * @param size       the number of rows.
+     * @param coordinate the coordinate of a row.
+     * @return the rows, sorted by the coordinate.
+     */
+    private static int[] sortRows(int size, IntUnaryOperator coordinate) {
+        long[] pairs = new long[size];
+        for (int row = 0; row < size; row++) {
+            pairs[row] = (long) coordinate.applyAsInt(row) << Integer.SIZE | row;
+        }
+        Arrays.sort(pairs);
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = (int) pairs[i];
+        }
+        return sorted;
+    }
+
+    /**
+     * @param term a term.
+     * @return the first token that is not smaller than the term.
+     */
+    private int firstToken(byte[] term) {
+        int low = 0;
+        int high = getTokenCount();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareToken(middle, term) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compareToken(int token, byte[] term) {
+        int offset = tokenOffsets[token];
+        int length = tokenOffsets[token + 1] - offset;
+        for (int i = 0; i < Math.min(length, term.length); i++) {
+            int difference = (tokens[offset + i] & BYTE_MASK) - (term[i] & BYTE_MASK);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - term.length;
+    }
+
+    private boolean startsWith(int token, byte[] term) {
+        int offset = tokenOffsets[token];
+        if (tokenOffsets[token + 1] - offset < term.length) {
+            return false;
+        }
+        for (int i = 0; i < term.length; i++) {
+            if (tokens[offset + i] != term[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean contains(int token, byte[] term) {
+        int last = tokenOffsets[token + 1] - term.length;
+        for (int start = tokenOffsets[token]; start <= last; start++) {
+            int i = 0;
+            while (i < term.length && tokens[start + i] == term[i]) {
+                i++;
+            }
+            if (i == term.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pairs every distinct trigram of every token with the token, sorted by trigram and token.
+     *
+     * @return the pairs, with the trigram in the high and the token in the low half.
+     */
+    private long[] gramPairs() {
+        int count = 0;
+        for (int token = 0; token < getTokenCount(); token++) {
+            count += Math.max(0, tokenOffsets[token + 1] - tokenOffsets[token] - GRAM + 1);
+        }
+        long[] pairs = new long[count];
+        int size = 0;
+        for (int token = 0; token < getTokenCount(); token++) {
+            for (int i = tokenOffsets[token]; i + GRAM <= tokenOffsets[token + 1]; i++) {
+                pairs[size++] = (long) gram(tokens, i) << Integer.SIZE | token;
+            }
+        }
+        Arrays.sort(pairs);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || pairs[i] != pairs[i - 1]) {
+                pairs[distinct++] = pairs[i];
+            }
+        }
+        return Arrays.copyOf(pairs, distinct);
+    }
+
+    private static int[] distinctGrams(long[] pairs) {
+        int[] result = new int[pairs.length];
+        int size = 0;
+        for (long pair : pairs) {
+            int gram = (int) (pair >>> Integer.SIZE);
+            if (size == 0 || result[size - 1] != gram) {
+                result[size++] = gram;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int gram(byte[] bytes, int offset) {
+        return (bytes[offset] & BYTE_MASK) << (2 * Byte.SIZE)
+                | (bytes[offset + 1] & BYTE_MASK) << Byte.SIZE | bytes[offset + 2] & BYTE_MASK;
+    }
+
+    /**
+     * Sorts the tokens by their UTF-8 bytes and packs them into one array.
+     *
+     * @param ids     the id every token got while reading the annotations.
+     * @param rank    filled with the position of every id in the sorted tokens.
+     * @param offsets filled with the offset of every token, and the end of the last.
+     * @return the packed tokens.
+     */
+    private static byte[] pack(HashMap<String, Integer> ids, int[] rank, int[] offsets) {
+        byte[][] encoded = new byte[ids.size()][];
+        for (Map.Entry<String, Integer> token : ids.entrySet()) {
+            encoded[token.getValue()] = token.getKey().getBytes(StandardCharsets.UTF_8);
+        }
+        Integer[] sorted = new Integer[encoded.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (first, second) -> compare(encoded[first], encoded[second]));
+        for (int i = 0; i < sorted.length; i++) {
+            rank[sorted[i]] = i;
+            offsets[i + 1] = offsets[i] + encoded[sorted[i]].length;
+        }
+        byte[] packed = new byte[offsets[sorted.length]];
+        for (int i = 0; i < sorted.length; i++) {
+            System.arraycopy(encoded[sorted[i]], 0, packed, offsets[i], encoded[sorted[i]].length);
+        }
+        return packed;
+    }
+
+    /**
+     * Groups the rows of the pairs by the rank of their token, with a counting sort.
+     * The rows were added in increasing order, so they stay sorted within a token.
+     *
+     * @param pairTokens the tokens of the pairs.
+     * @param pairRows   the rows of the pairs.
+     * @param rank       the rank of every token.
+     * @param offsets    filled with the first row of every token, and the end of the last.
+     * @return the grouped rows.
+     */
+    private static int[] group(IntList pairTokens, IntList pairRows, int[] rank, int[] offsets) {
+        for (int i = 0; i < pairTokens.size(); i++) {
+            offsets[rank[pairTokens.get(i)] + 1]++;
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        int[] grouped = new int[pairRows.size()];
+        for (int i = 0; i < pairTokens.size(); i++) {
+            grouped[next[rank[pairTokens.get(i)]]++] = pairRows.get(i);
+        }
+        return grouped;
+    }
+
+    /**
+     * Collects the values of the searched attributes.
+     *
+     * @param info the attributes of an annotation, separated by tabs.
+     * @return the values, separated by spaces.
+     */
+    private static String searchedValues(String info) {
+        StringBuilder values = new StringBuilder();
+        for (String attribute : info.split("\t")) {
+            int separator = attribute.indexOf('=');
+            if (separator > 0 && isSearched(attribute.substring(0, separator).trim())) {
+                values.append(attribute, separator + 1, attribute.length()).append(' ');
+            }
+        }
+        return values.toString();
+    }
+
+    private static boolean isSearched(String key) {
+        for (String searched : SEARCHED) {
+            if (searched.equalsIgnoreCase(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cuts a text into lower case tokens at every character that is not a letter or digit.
+     *
+     * @param text the text.
+     * @return the tokens.
+     */
+    static List<String> tokenize(String text) {
+        List<String> result = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean inToken = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (inToken && start < 0) {
+                start = i;
+            } else if (!inToken && start >= 0) {
+                result.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    private static boolean isNumber(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (term.charAt(i) < '0' || term.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compare(byte[] first, byte[] second) {
+        for (int i = 0; i < Math.min(first.length, second.length); i++) {
+            int difference = (first[i] & BYTE_MASK) - (second[i] & BYTE_MASK);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return first.length - second.length;
+    }
+
+    /**
+     * A growing array of ints.
+     */
+    private static final class IntList {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int[] values = new int[INITIAL_CAPACITY];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
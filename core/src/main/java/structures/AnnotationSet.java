@@ -0,0 +1,57 @@
+package structures;
+
+/**
+ * The annotations of one GFF file, with the genome of the graph they are drawn on.
+ * <p>
+ * Several sets can be loaded at the same time, each on its own genome. A set is immutable,
+ * choosing another genome or loading more annotations of the file gives a new set with the
+ * same name, which replaces the old one.
+ */
+public final class AnnotationSet {
+
+    private final String name;
+    private final int genome;
+    private final AnnotationIndex annotations;
+
+    /**
+     * Constructor.
+     *
+     * @param name        the path of the file the annotations were loaded from.
+     * @param genome      the id of the genome the annotations are drawn on,
+     *                    or -1 if it is not known yet.
+     * @param annotations the annotations.
+     */
+    public AnnotationSet(String name, int genome, AnnotationIndex annotations) {
+        this.name = name;
+        this.genome = genome;
+        this.annotations = annotations;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getGenome() {
+        return genome;
+    }
+
+    public AnnotationIndex getAnnotations() {
+        return annotations;
+    }
+
+    /**
+     * @param newGenome the id of the genome to draw the annotations on.
+     * @return the same annotations on another genome.
+     */
+    public AnnotationSet withGenome(int newGenome) {
+        return new AnnotationSet(name, newGenome, annotations);
+    }
+
+    /**
+     * @param newAnnotations the annotations, like more annotations of the same file.
+     * @return other annotations of the same file, on the same genome.
+     */
+    public AnnotationSet withAnnotations(AnnotationIndex newAnnotations) {
+        return new AnnotationSet(name, genome, newAnnotations);
+    }
+}
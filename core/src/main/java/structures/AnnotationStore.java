@@ -0,0 +1,286 @@
+package structures;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Keeps the annotations of a GFF file in columns: the starts and ends as ints,
+ * whether they are selected or highlighted in bit sets, and the attributes UTF-8 encoded
+ * one after another in a single byte buffer, with per annotation the offset of its attributes.
+ * <p>
+ * So a million annotations take a few tens of megabytes instead of a million objects with
+ * a String each. Annotation objects are views on a row, made when they are asked for.
+ * The row of an annotation is its id, the order of the annotations in the file.
+ * The columns are arrays when the file was parsed, or mapped from an AnnotationFile.
+ */
+public final class AnnotationStore {
+
+    private final int size;
+    private final IntBuffer starts;
+    private final IntBuffer ends;
+    private final IntBuffer infoOffsets;
+    private final ByteBuffer infos;
+    private final BitSet selected;
+    private final BitSet highlighted;
+    private AnnotationSearch search;
+
+    /**
+     * Constructor.
+     *
+     * @param size        the number of annotations.
+     * @param starts      the starts of the annotations.
+     * @param ends        the ends of the annotations.
+     * @param infoOffsets per annotation the offset of its attributes, and the end of the last.
+     * @param infos       the attributes of all annotations.
+     */
+    AnnotationStore(int size, IntBuffer starts, IntBuffer ends, IntBuffer infoOffsets,
+                    ByteBuffer infos) {
+        this(size, starts, ends, infoOffsets, infos, new BitSet(), new BitSet());
+    }
+
+    /**
+     * Constructor for a store that shares whether annotations are selected or highlighted.
+     *
+     * @param size        the number of annotations.
+     * @param starts      the starts of the annotations.
+     * @param ends        the ends of the annotations.
+     * @param infoOffsets per annotation the offset of its attributes, and the end of the last.
+     * @param infos       the attributes of all annotations.
+     * @param like        the store to share the selected and highlighted annotations with.
+     */
+    AnnotationStore(int size, IntBuffer starts, IntBuffer ends, IntBuffer infoOffsets,
+                    ByteBuffer infos, AnnotationStore like) {
+        this(size, starts, ends, infoOffsets, infos, like.selected, like.highlighted);
+    }
+
+    private AnnotationStore(int size, IntBuffer starts, IntBuffer ends, IntBuffer infoOffsets,
+                            ByteBuffer infos, BitSet selected, BitSet highlighted) {
+        this.size = size;
+        this.starts = starts;
+        this.ends = ends;
+        this.infoOffsets = infoOffsets;
+        this.infos = infos;
+        this.selected = selected;
+        this.highlighted = highlighted;
+    }
+
+    /**
+     * @return the number of annotations.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param row the id of the annotation.
+     * @return a view on the annotation.
+     */
+    public Annotation get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("No annotation " + row);
+        }
+        return new Annotation(this, row);
+    }
+
+    public int getStart(int row) {
+        return starts.get(row);
+    }
+
+    public int getEnd(int row) {
+        return ends.get(row);
+    }
+
+    /**
+     * Decodes the attributes of an annotation.
+     *
+     * @param row the id of the annotation.
+     * @return the attributes, separated by tabs.
+     */
+    public String getInfo(int row) {
+        int offset = infoOffsets.get(row);
+        int length = infoOffsets.get(row + 1) - offset;
+        if (infos.hasArray()) {
+            return new String(infos.array(), infos.arrayOffset() + offset, length,
+                    StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = infos.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gives the search index of the annotations, which is built the first time.
+     *
+     * @return the search index.
+     */
+    public synchronized AnnotationSearch getSearch() {
+        if (search == null) {
+            search = new AnnotationSearch(this);
+        }
+        return search;
+    }
+
+    IntBuffer getStarts() {
+        return starts.duplicate();
+    }
+
+    IntBuffer getEnds() {
+        return ends.duplicate();
+    }
+
+    IntBuffer getInfoOffsets() {
+        return infoOffsets.duplicate();
+    }
+
+    ByteBuffer getInfos() {
+        return infos.duplicate();
+    }
+
+    public boolean isSelected(int row) {
+        return selected.get(row);
+    }
+
+    public void setSelected(int row, boolean value) {
+        selected.set(row, value);
+    }
+
+    /**
+     * Selects all annotations.
+     */
+    public void selectAll() {
+        selected.set(0, size);
+    }
+
+    /**
+     * Selects a range of annotations.
+     *
+     * @param from the first id to select, inclusive.
+     * @param to   the last id to select, exclusive.
+     */
+    public void select(int from, int to) {
+        selected.set(from, to);
+    }
+
+    /**
+     * Gives the selected annotations, to change many of them at once.
+     * The selection is shared with the other stores of the same builder.
+     *
+     * @return a view on which annotations are selected, by id.
+     */
+    public Selection getSelection() {
+        return Selection.view(size, selected);
+    }
+
+    public boolean isHighlighted(int row) {
+        return highlighted.get(row);
+    }
+
+    public void setHighlighted(int row, boolean value) {
+        highlighted.set(row, value);
+    }
+
+    /**
+     * Collects the annotations of a file.
+     * <p>
+     * The stores that are built by one builder share whether annotations are selected or
+     * highlighted, so a store can be shown while the builder still grows.
+     */
+    public static class Builder {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final BitSet selected = new BitSet();
+        private final BitSet highlighted = new BitSet();
+        private int size;
+        private int[] starts = new int[INITIAL_CAPACITY];
+        private int[] ends = new int[INITIAL_CAPACITY];
+        private int[] infoOffsets = new int[INITIAL_CAPACITY + 1];
+        private byte[] infos = new byte[INITIAL_CAPACITY * 16];
+
+        /**
+         * Adds an annotation.
+         *
+         * @param start the start coördinate of the annotation.
+         * @param end   the end coördinate of the annotation.
+         * @param info  the attributes of the annotation.
+         * @return the id of the annotation.
+         */
+        public int add(int start, int end, String info) {
+            byte[] bytes = info.getBytes(StandardCharsets.UTF_8);
+            return add(start, end, bytes, 0, bytes.length);
+        }
+
+        /**
+         * Adds an annotation of which the attributes are already encoded.
+         *
+         * @param start  the start coördinate of the annotation.
+         * @param end    the end coördinate of the annotation.
+         * @param info   an array with the UTF-8 encoded attributes of the annotation.
+         * @param offset the position of the attributes in the array.
+         * @param length the number of bytes of the attributes.
+         * @return the id of the annotation.
+         */
+        public int add(int start, int end, byte[] info, int offset, int length) {
+            ensureCapacity(size + 1, length);
+            System.arraycopy(info, offset, infos, infoOffsets[size], length);
+            starts[size] = start;
+            ends[size] = end;
+            infoOffsets[size + 1] = infoOffsets[size] + length;
+            return size++;
+        }
+
+        /**
+         * Adds all annotations of a store, after the ones that were already added.
+         *
+         * @param store the annotations to add.
+         */
+        public void addAll(AnnotationStore store) {
+            int offset = infoOffsets[size];
+            int infoBytes = store.infoOffsets.get(store.size);
+            ensureCapacity(size + store.size, infoBytes);
+            store.getStarts().get(starts, size, store.size);
+            store.getEnds().get(ends, size, store.size);
+            store.getInfos().get(infos, offset, infoBytes);
+            for (int i = 1; i <= store.size; i++) {
+                infoOffsets[size + i] = offset + store.infoOffsets.get(i);
+            }
+            size += store.size;
+        }
+
+        /**
+         * @return the number of annotations that were added.
+         */
+        public int size() {
+            return size;
+        }
+
+        private void ensureCapacity(int annotations, int infoBytes) {
+            if (annotations > starts.length) {
+                int capacity = Math.max(annotations, starts.length * 2);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                infoOffsets = Arrays.copyOf(infoOffsets, capacity + 1);
+            }
+            int needed = infoOffsets[size] + infoBytes;
+            if (needed > infos.length) {
+                infos = Arrays.copyOf(infos, Math.max(needed, infos.length * 2));
+            }
+        }
+
+        /**
+         * @return the store with the annotations that were added, trimmed to size.
+         */
+        public AnnotationStore build() {
+            return new AnnotationStore(size, IntBuffer.wrap(Arrays.copyOf(starts, size)),
+                    IntBuffer.wrap(Arrays.copyOf(ends, size)),
+                    IntBuffer.wrap(Arrays.copyOf(infoOffsets, size + 1)),
+                    ByteBuffer.wrap(Arrays.copyOf(infos, infoOffsets[size])),
+                    selected, highlighted);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package structures;
+
+import java.util.BitSet;
+
+/**
+ * Which of a fixed number of ids are selected, like the genomes of a graph.
+ * <p>
+ * The selection is a bit set, so the bulk operations work on 64 ids at a time, and looking
+ * up an id does not search a list. Tables show the selection and change it, instead of
+ * keeping the state in an object per row. A selection can be a view on the selected
+ * annotations of an AnnotationStore, of which the bits after its size belong to annotations
+ * that were added later, so no operation changes those.
+ */
+public final class Selection {
+
+    private final int size;
+    private final BitSet selected;
+
+    /**
+     * Constructor for a selection of which no id is selected.
+     *
+     * @param size the number of ids, which go from 0 to size.
+     */
+    public Selection(int size) {
+        this(size, new BitSet(size));
+    }
+
+    private Selection(int size, BitSet selected) {
+        this.size = size;
+        this.selected = selected;
+    }
+
+    /**
+     * Creates a selection that reads and writes the given bits.
+     *
+     * @param size     the number of ids.
+     * @param selected the selected ids, which may go on after the size.
+     * @return the selection.
+     */
+    static Selection view(int size, BitSet selected) {
+        return new Selection(size, selected);
+    }
+
+    /**
+     * Creates a selection of some ids. Ids that are not smaller than the size are left out.
+     *
+     * @param size the number of ids.
+     * @param ids  the selected ids.
+     * @return the selection.
+     */
+    public static Selection of(int size, int... ids) {
+        Selection selection = new Selection(size);
+        for (int id : ids) {
+            if (id >= 0 && id < size) {
+                selection.selected.set(id);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * @param newSize the number of ids of the copy.
+     * @return a copy with the ids of this selection that are smaller than the new size.
+     */
+    public Selection copy(int newSize) {
+        BitSet ids = selected.get(0, Math.min(size, newSize));
+        return new Selection(newSize, ids);
+    }
+
+    /**
+     * @return the number of ids.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of selected ids.
+     */
+    public int count() {
+        return selected.get(0, size).cardinality();
+    }
+
+    /**
+     * @return true if no id is selected.
+     */
+    public boolean isEmpty() {
+        int first = selected.nextSetBit(0);
+        return first < 0 || first >= size;
+    }
+
+    public boolean isSelected(int id) {
+        return id >= 0 && id < size && selected.get(id);
+    }
+
+    public void setSelected(int id, boolean value) {
+        if (id >= 0 && id < size) {
+            selected.set(id, value);
+        }
+    }
+
+    /**
+     * Selects all ids.
+     */
+    public void selectAll() {
+        selected.set(0, size);
+    }
+
+    /**
+     * Deselects all ids.
+     */
+    public void clear() {
+        selected.clear(0, size);
+    }
+
+    /**
+     * Selects ids, like the ones that pass a filter.
+     *
+     * @param ids the ids to select.
+     */
+    public void select(BitSet ids) {
+        selected.or(within(ids));
+    }
+
+    /**
+     * Deselects ids.
+     *
+     * @param ids the ids to deselect.
+     */
+    public void deselect(BitSet ids) {
+        selected.andNot(within(ids));
+    }
+
+    /**
+     * Selects the ids that were not selected, and deselects the ones that were.
+     */
+    public void invert() {
+        selected.flip(0, size);
+    }
+
+    /**
+     * Inverts which of some ids are selected, and leaves the others as they are.
+     *
+     * @param ids the ids to invert.
+     */
+    public void invert(BitSet ids) {
+        selected.xor(within(ids));
+    }
+
+    /**
+     * Keeps only the selected ids that are in another set.
+     *
+     * @param ids the ids to keep.
+     */
+    public void intersect(BitSet ids) {
+        BitSet dropped = within(ids);
+        if (dropped == ids) {
+            dropped = (BitSet) ids.clone();
+        }
+        dropped.flip(0, size);
+        selected.andNot(dropped);
+    }
+
+    /**
+     * @param ids some ids.
+     * @return the ids that are smaller than the size, without changing the given ids.
+     */
+    private BitSet within(BitSet ids) {
+        return ids.length() <= size ? ids : ids.get(0, size);
+    }
+
+    /**
+     * @return the selected ids, in increasing order.
+     */
+    public int[] toArray() {
+        return toBitSet().stream().toArray();
+    }
+
+    /**
+     * @return a copy of the selected ids.
+     */
+    public BitSet toBitSet() {
+        return selected.get(0, size);
+    }
+}
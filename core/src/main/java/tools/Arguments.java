@@ -0,0 +1,54 @@
+package tools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Command line arguments of the form --name=value, followed or preceded by plain arguments
+ * such as file names.
+ */
+class Arguments {
+
+    private final HashMap<String, String> values = new HashMap<>();
+    private final List<String> plain = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param args The command line arguments.
+     */
+    Arguments(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                plain.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+    }
+
+    List<String> getPlain() {
+        return plain;
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(String name, int defaultValue) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    long getLong(String name, long defaultValue) {
+        return values.containsKey(name) ? Long.parseLong(values.get(name)) : defaultValue;
+    }
+
+    double getDouble(String name, double defaultValue) {
+        return values.containsKey(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+    }
+}
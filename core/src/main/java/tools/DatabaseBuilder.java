@@ -0,0 +1,203 @@
+package tools;
+
+import parser.GfaParser;
+import parser.GffParser;
+import parser.GraphCache;
+import store.StorageMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds the databases of GFA files without the user interface, so the application opens
+ * the graphs at once, even the first time.
+ * <p>
+ * The databases are written to the GraphCache, which is where the application looks for them.
+ * So run the builder with the same cache directory as the application, give that directory
+ * with --cache, or copy the entries of the cache there afterwards.
+ * Several files are imported at the same time.
+ * A GFF file given after a GFA file is parsed against that graph, to check that the
+ * annotations can be loaded on it.
+ */
+public final class DatabaseBuilder {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final int threads;
+    private final boolean force;
+    private final GraphCache cache;
+
+    /**
+     * Constructor, writes the databases to the default GraphCache.
+     *
+     * @param threads The number of files imported at the same time.
+     * @param force   True to import files again that were imported before.
+     */
+    public DatabaseBuilder(int threads, boolean force) {
+        this(threads, force, GraphCache.getDefault());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param threads The number of files imported at the same time.
+     * @param force   True to import files again that were imported before.
+     * @param cache   The cache to write the databases to.
+     */
+    public DatabaseBuilder(int threads, boolean force, GraphCache cache) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least 1 thread");
+        }
+        this.threads = threads;
+        this.force = force;
+        this.cache = cache;
+    }
+
+    /**
+     * Imports the graphs.
+     *
+     * @param graphs The GFA files, with the GFF files to check against them or null.
+     * @return True if all graphs were imported.
+     * @throws IOException          when a file can not be read.
+     * @throws InterruptedException when the builder is interrupted while waiting.
+     */
+    public boolean build(Map<File, List<File>> graphs)
+            throws IOException, InterruptedException {
+        removeCopies(graphs);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        LinkedHashMap<File, Future<String>> results = new LinkedHashMap<>();
+        for (Map.Entry<File, List<File>> graph : graphs.entrySet()) {
+            results.put(graph.getKey(),
+                    executor.submit(() -> build(graph.getKey(), graph.getValue())));
+        }
+        executor.shutdown();
+        boolean success = true;
+        for (Map.Entry<File, Future<String>> result : results.entrySet()) {
+            try {
+                System.out.println(result.getValue().get());
+            } catch (ExecutionException e) {
+                System.err.println("Failed to import " + result.getKey() + ": "
+                        + e.getCause());
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Files with the same contents share their database, so only the first is imported.
+     *
+     * @param graphs The GFA files.
+     * @throws IOException when a file can not be read.
+     */
+    private static void removeCopies(Map<File, List<File>> graphs) throws IOException {
+        HashMap<String, File> keys = new HashMap<>();
+        Iterator<File> files = graphs.keySet().iterator();
+        while (files.hasNext()) {
+            File graph = files.next();
+            File first = keys.putIfAbsent(GraphCache.key(graph), graph);
+            if (first != null) {
+                System.out.println(graph + " is the same as " + first + ", skipped");
+                files.remove();
+            }
+        }
+    }
+
+    /**
+     * Imports one graph and parses its annotations, which are kept in the cache as well.
+     *
+     * @param gfa  The GFA file.
+     * @param gffs The GFF files of the graph.
+     * @return A summary of the import.
+     * @throws IOException when a file can not be read or the database can not be written.
+     */
+    private String build(File gfa, List<File> gffs) throws IOException {
+        long start = System.nanoTime();
+        String name = gfa.getName();
+        GfaParser parser = new GfaParser(gfa.getAbsolutePath(), StorageMode.DISK, cache);
+        StringBuilder summary = new StringBuilder();
+        try {
+            GraphCache.Entry entry = parser.getCacheEntry();
+            // An import that was interrupted leaves a partial database.
+            if (force || entry.isInterrupted()) {
+                entry.clear();
+            }
+            parser.parse();
+            summary.append(name).append(": ").append(parser.getStore().getMaxNodeId())
+                    .append(" nodes");
+            for (File gff : gffs) {
+                if (force) {
+                    cache.remove(gff);
+                }
+                GffParser annotations = new GffParser(gff.getAbsolutePath(), parser);
+                try {
+                    summary.append(", ").append(gff.getName()).append(": ")
+                            .append(annotations.parseGff().size())
+                            .append(" annotations on ").append(parser.getAllGenomesMapReversed()
+                            .getOrDefault(annotations.getSuggestedGenome(), "an unknown genome"));
+                } finally {
+                    annotations.close();
+                }
+            }
+        } finally {
+            parser.close();
+        }
+        return summary.append(String.format(" in %.1f s",
+                (System.nanoTime() - start) / NANOS_PER_SECOND)).toString();
+    }
+
+    /**
+     * Imports GFA files, for example:
+     * --threads=4 --force=true --cache=/data/cache first.gfa first.gff second.gfa
+     * GFF files belong to the GFA file before them. Without --cache the cache directory of
+     * properties.txt is used, the other settings of the cache are always read from there.
+     *
+     * @param args The options and files.
+     * @throws IOException          when a file can not be read.
+     * @throws InterruptedException when the builder is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Arguments arguments = new Arguments(args);
+        LinkedHashMap<File, List<File>> graphs = new LinkedHashMap<>();
+        File last = null;
+        for (String path : arguments.getPlain()) {
+            File file = new File(path);
+            if (path.toLowerCase().endsWith(".gff")) {
+                if (last == null) {
+                    throw new IllegalArgumentException(path + " must follow a GFA file");
+                }
+                graphs.get(last).add(file);
+            } else {
+                last = file;
+                graphs.put(file, new ArrayList<>());
+            }
+        }
+        if (graphs.isEmpty()) {
+            System.err.println("Usage: DatabaseBuilder [--threads=N] [--force=true]"
+                    + " [--cache=directory] graph.gfa [annotations.gff] ...");
+            System.exit(1);
+        }
+        GraphCache cache = GraphCache.getDefault();
+        String directory = arguments.get("cache", null);
+        if (directory != null) {
+            cache = new GraphCache(new File(directory), cache.getBudget(), cache.getFormat(),
+                    cache.getMemoryThreshold());
+        }
+        DatabaseBuilder builder = new DatabaseBuilder(arguments.getInt("threads",
+                Runtime.getRuntime().availableProcessors()),
+                Boolean.parseBoolean(arguments.get("force", "false")), cache);
+        if (!builder.build(graphs)) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package tools;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Generates synthetic pangenome graphs in the GFA format the GfaParser reads.
+ * <p>
+ * The graph is a backbone that all genomes share, interrupted by variants that only
+ * some genomes follow: SNP bubbles, insertions that the other genomes skip and
+ * structural variants, which are alternative paths of several segments.
+ * Segments are written as soon as they are generated and only the last segments are
+ * kept in memory, so graphs of hundreds of millions of segments can be written.
+ * The links of a segment are written together and in order of the segment ids,
+ * like the application expects. The same settings and seed always give the same file.
+ * <p>
+ * Coordinates are kept as longs, but the GfaParser reads them as ints, so the genomes
+ * should stay shorter than Integer.MAX_VALUE bases to be imported.
+ */
+public class GfaGenerator {
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_VARIANT_SEGMENTS = 8;
+
+    private final int nodes;
+    private final int genomes;
+    private final long seed;
+    private double snpRate = 0.05;
+    private double indelRate = 0.02;
+    private double structuralRate = 0.002;
+    private LengthDistribution lengths = LengthDistribution.parse("geometric:20");
+
+    private Random random;
+    private Writer out;
+    private long[] positions;
+    private boolean[] carriers;
+    private int[] frontier;
+    private int nextId;
+
+    /**
+     * Constructor.
+     *
+     * @param nodes   The number of segments to generate.
+     * @param genomes The number of genomes, at least 2.
+     * @param seed    The seed of the random generator.
+     */
+    public GfaGenerator(int nodes, int genomes, long seed) {
+        if (nodes < 1 || genomes < 2) {
+            throw new IllegalArgumentException("Need at least 1 segment and 2 genomes");
+        }
+        this.nodes = nodes;
+        this.genomes = genomes;
+        this.seed = seed;
+    }
+
+    /**
+     * Writes the graph to a file.
+     *
+     * @param file The file to write to.
+     * @throws IOException when the file can not be written.
+     */
+    public void write(File file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            write(writer);
+        }
+    }
+
+    /**
+     * Writes the graph.
+     *
+     * @param writer The writer to write to, it is not closed.
+     * @throws IOException when the graph can not be written.
+     */
+    public void write(Writer writer) throws IOException {
+        random = new Random(seed);
+        out = writer;
+        positions = new long[genomes];
+        carriers = new boolean[genomes];
+        frontier = new int[0];
+        nextId = 1;
+        writeHeader();
+        while (nextId <= nodes) {
+            double draw = random.nextDouble();
+            int left = nodes - nextId + 1;
+            if (draw < snpRate && left >= 2 && chooseCarriers()) {
+                writeSnp();
+            } else if (draw < snpRate + indelRate && left >= 2 && chooseCarriers()) {
+                writeIndel();
+            } else if (draw < snpRate + indelRate + structuralRate && left >= 3
+                    && chooseCarriers()) {
+                writeStructuralVariant(left);
+            } else {
+                writeBackbone();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the headers with the names of all genomes.
+     *
+     * @throws IOException when the header can not be written.
+     */
+    private void writeHeader() throws IOException {
+        out.write("H\tVN:Z:1.0\nH\tORI:Z:");
+        for (int g = 0; g < genomes; g++) {
+            out.write(genomeName(g));
+            out.write(".fasta;");
+        }
+        out.write('\n');
+    }
+
+    /**
+     * Picks the genomes that carry a variant, with a random allele frequency.
+     *
+     * @return false if all or none of the genomes were picked, so there is no variant.
+     */
+    private boolean chooseCarriers() {
+        double frequency = random.nextDouble();
+        int count = 0;
+        for (int g = 0; g < genomes; g++) {
+            carriers[g] = random.nextDouble() < frequency;
+            if (carriers[g]) {
+                count++;
+            }
+        }
+        return count > 0 && count < genomes;
+    }
+
+    /**
+     * A segment that all genomes go through.
+     *
+     * @throws IOException when the segment can not be written.
+     */
+    private void writeBackbone() throws IOException {
+        int id = nextId++;
+        writeLinks(frontier, id);
+        writeSegment(id, lengths.next(random), null, false);
+        frontier = new int[]{id};
+    }
+
+    /**
+     * Two segments of one base, one for the carriers and one for the other genomes.
+     *
+     * @throws IOException when the segments can not be written.
+     */
+    private void writeSnp() throws IOException {
+        int alternative = nextId++;
+        int reference = nextId++;
+        writeLinks(frontier, alternative, reference);
+        writeSegment(alternative, 1, carriers, true);
+        writeSegment(reference, 1, carriers, false);
+        frontier = new int[]{alternative, reference};
+    }
+
+    /**
+     * A segment only the carriers go through, followed by a backbone segment.
+     *
+     * @throws IOException when the segments can not be written.
+     */
+    private void writeIndel() throws IOException {
+        int insertion = nextId++;
+        int exit = nextId++;
+        writeLinks(frontier, insertion, exit);
+        writeLinks(new int[]{insertion}, exit);
+        writeSegment(insertion, lengths.next(random), carriers, true);
+        writeSegment(exit, lengths.next(random), null, false);
+        frontier = new int[]{exit};
+    }
+
+    /**
+     * Two paths of several segments, one for the carriers and one for the other genomes,
+     * that come together in a backbone segment.
+     *
+     * @param left The number of segments that can still be generated.
+     * @throws IOException when the segments can not be written.
+     */
+    private void writeStructuralVariant(int left) throws IOException {
+        int referenceLength = 1 + random.nextInt(Math.min(MAX_VARIANT_SEGMENTS, left - 2));
+        int alternativeLength = 1 + random.nextInt(
+                Math.min(MAX_VARIANT_SEGMENTS, left - 1 - referenceLength));
+        int reference = nextId;
+        int alternative = reference + referenceLength;
+        int exit = alternative + alternativeLength;
+        nextId = exit + 1;
+        writeLinks(frontier, reference, alternative);
+        writePath(reference, referenceLength, exit, false);
+        writePath(alternative, alternativeLength, exit, true);
+        writeSegment(exit, lengths.next(random), null, false);
+        frontier = new int[]{exit};
+    }
+
+    /**
+     * Writes a chain of segments and links it to the exit.
+     *
+     * @param first   The id of the first segment.
+     * @param length  The number of segments.
+     * @param exit    The segment the chain ends in.
+     * @param carrier True if the carriers go through this chain.
+     * @throws IOException when the chain can not be written.
+     */
+    private void writePath(int first, int length, int exit, boolean carrier)
+            throws IOException {
+        for (int id = first; id < first + length; id++) {
+            writeLinks(new int[]{id}, id + 1 < first + length ? id + 1 : exit);
+            writeSegment(id, lengths.next(random), carriers, carrier);
+        }
+    }
+
+    /**
+     * Writes a segment with its genomes and the coordinate of every genome.
+     *
+     * @param id       The id of the segment.
+     * @param length   The length of the sequence.
+     * @param carriers Which genomes carry the variant, or null if all genomes go through it.
+     * @param carrier  True if the segment is for the carriers, false for the other genomes.
+     * @throws IOException when the segment can not be written.
+     */
+    private void writeSegment(int id, int length, boolean[] carriers, boolean carrier)
+            throws IOException {
+        out.write("S\t");
+        out.write(Integer.toString(id));
+        out.write('\t');
+        for (int i = 0; i < length; i++) {
+            out.write(BASES[random.nextInt(BASES.length)]);
+        }
+        out.write("\t*\tORI:Z:");
+        boolean first = true;
+        for (int g = 0; g < genomes; g++) {
+            if (carriers == null || carriers[g] == carrier) {
+                if (!first) {
+                    out.write(';');
+                }
+                out.write(genomeName(g));
+                out.write(".fasta");
+                first = false;
+            }
+        }
+        out.write("\tSTART:Z:");
+        first = true;
+        for (int g = 0; g < genomes; g++) {
+            if (carriers == null || carriers[g] == carrier) {
+                if (!first) {
+                    out.write(';');
+                }
+                out.write(Long.toString(positions[g]));
+                positions[g] += length;
+                first = false;
+            }
+        }
+        out.write('\n');
+    }
+
+    /**
+     * Writes a link from every parent to every child.
+     *
+     * @param parents  The parents, in increasing order.
+     * @param children The children.
+     * @throws IOException when the links can not be written.
+     */
+    private void writeLinks(int[] parents, int... children) throws IOException {
+        for (int parent : parents) {
+            for (int child : children) {
+                out.write("L\t");
+                out.write(Integer.toString(parent));
+                out.write("\t+\t");
+                out.write(Integer.toString(child));
+                out.write("\t+\t0M\n");
+            }
+        }
+    }
+
+    /**
+     * Gives the name of a genome, as used in the GFA and GFF files.
+     *
+     * @param genome The index of the genome.
+     * @return The name, without extension.
+     */
+    public static String genomeName(int genome) {
+        return "genome" + genome;
+    }
+
+    /**
+     * Gives the length of a genome in the last written graph.
+     *
+     * @param genome The index of the genome.
+     * @return The number of bases of the genome.
+     */
+    public long getGenomeLength(int genome) {
+        return positions[genome];
+    }
+
+    public void setSnpRate(double snpRate) {
+        this.snpRate = snpRate;
+    }
+
+    public void setIndelRate(double indelRate) {
+        this.indelRate = indelRate;
+    }
+
+    public void setStructuralRate(double structuralRate) {
+        this.structuralRate = structuralRate;
+    }
+
+    public void setLengths(LengthDistribution lengths) {
+        this.lengths = lengths;
+    }
+
+    /**
+     * Writes a graph, and optionally matching annotations on the first genome.
+     * Arguments are given as --name=value, for example:
+     * --out=graph.gfa --nodes=1000000 --genomes=100 --seed=1 --snp=0.05 --indel=0.02
+     * --sv=0.002 --lengths=geometric:20 --gff=graph.gff --annotations=10000
+     *
+     * @param args The arguments.
+     * @throws IOException when a file can not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Arguments arguments = new Arguments(args);
+        GfaGenerator generator = new GfaGenerator(arguments.getInt("nodes", 100000),
+                arguments.getInt("genomes", 10), arguments.getLong("seed", 1));
+        generator.setSnpRate(arguments.getDouble("snp", generator.snpRate));
+        generator.setIndelRate(arguments.getDouble("indel", generator.indelRate));
+        generator.setStructuralRate(arguments.getDouble("sv", generator.structuralRate));
+        generator.setLengths(LengthDistribution.parse(
+                arguments.get("lengths", generator.lengths.toString())));
+        File gfa = new File(arguments.get("out", "synthetic.gfa"));
+        generator.write(gfa);
+        System.out.println("Wrote " + gfa + ", " + genomeName(0) + " has "
+                + generator.getGenomeLength(0) + " bases");
+        String gff = arguments.get("gff", null);
+        if (gff != null) {
+            GffGenerator annotations = new GffGenerator(genomeName(0),
+                    generator.getGenomeLength(0), arguments.getLong("seed", 1));
+            annotations.write(new File(gff), arguments.getInt("annotations", 10000));
+            System.out.println("Wrote " + gff);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package tools;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Generates synthetic annotations in the GFF format the GffParser reads,
+ * on a genome of a graph written by the GfaGenerator.
+ * <p>
+ * Genes are spread over the whole genome in order of their start coordinate and half of
+ * them get a CDS inside, so some annotations overlap. The annotations are written as soon
+ * as they are generated. The same settings and seed always give the same file.
+ */
+public class GffGenerator {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final double CDS_RATE = 0.5;
+    private static final int CDS_TRIM = 3;
+
+    private final String genome;
+    private final long genomeLength;
+    private final long seed;
+    private LengthDistribution lengths = LengthDistribution.parse("uniform:100-5000");
+
+    /**
+     * Constructor.
+     *
+     * @param genome       The name of the genome, as given by GfaGenerator.genomeName.
+     * @param genomeLength The number of bases of the genome.
+     * @param seed         The seed of the random generator.
+     */
+    public GffGenerator(String genome, long genomeLength, long seed) {
+        this.genome = genome;
+        this.genomeLength = genomeLength;
+        this.seed = seed;
+    }
+
+    /**
+     * Writes the annotations to a file.
+     *
+     * @param file        The file to write to.
+     * @param annotations The number of genes.
+     * @throws IOException when the file can not be written.
+     */
+    public void write(File file, int annotations) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            write(writer, annotations);
+        }
+    }
+
+    /**
+     * Writes the annotations.
+     *
+     * @param out         The writer to write to, it is not closed.
+     * @param annotations The number of genes.
+     * @throws IOException when the annotations can not be written.
+     */
+    public void write(Writer out, int annotations) throws IOException {
+        Random random = new Random(seed);
+        double spacing = genomeLength / (double) Math.max(annotations, 1);
+        for (int i = 0; i < annotations; i++) {
+            long start = 1 + (long) (i * spacing + random.nextDouble() * spacing);
+            long end = Math.min(start + lengths.next(random), Math.max(genomeLength - 1, start));
+            writeFeature(out, "gene", start, end, "ID=gene" + i + ";Name=gene" + i);
+            if (random.nextDouble() < CDS_RATE && end - start > 2 * CDS_TRIM) {
+                writeFeature(out, "CDS", start + CDS_TRIM, end - CDS_TRIM,
+                        "ID=cds" + i + ";Parent=gene" + i + ";product=protein " + i);
+            }
+        }
+        out.flush();
+    }
+
+    private void writeFeature(Writer out, String type, long start, long end, String attributes)
+            throws IOException {
+        out.write(genome + ".fasta\tsynthetic\t" + type + "\t" + start + "\t" + end
+                + "\t.\t+\t.\t" + attributes + "\n");
+    }
+
+    public void setLengths(LengthDistribution lengths) {
+        this.lengths = lengths;
+    }
+
+    /**
+     * Writes annotations. Arguments are given as --name=value, for example:
+     * --out=graph.gff --genome=genome0 --length=4400000 --annotations=10000 --seed=1
+     * --lengths=uniform:100-5000
+     *
+     * @param args The arguments.
+     * @throws IOException when the file can not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Arguments arguments = new Arguments(args);
+        GffGenerator generator = new GffGenerator(
+                arguments.get("genome", GfaGenerator.genomeName(0)),
+                arguments.getLong("length", 1000000), arguments.getLong("seed", 1));
+        generator.setLengths(LengthDistribution.parse(
+                arguments.get("lengths", generator.lengths.toString())));
+        generator.write(new File(arguments.get("out", "synthetic.gff")),
+                arguments.getInt("annotations", 10000));
+    }
+}
@@ -0,0 +1,76 @@
+package tools;
+
+import java.util.Random;
+
+/**
+ * Distribution of the sequence lengths of generated segments.
+ * <p>
+ * Written as "fixed:LENGTH", "uniform:MIN-MAX" or "geometric:MEAN".
+ * Geometric lengths look most like real graphs: many short segments and a few long ones.
+ */
+public final class LengthDistribution {
+
+    private static final int MAX_LENGTH = 1 << 20;
+
+    private final String kind;
+    private final int min;
+    private final int max;
+    private final double mean;
+
+    private LengthDistribution(String kind, int min, int max, double mean) {
+        if (min < 1 || max < min || mean < 1) {
+            throw new IllegalArgumentException("Invalid length distribution " + kind);
+        }
+        this.kind = kind;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+    }
+
+    /**
+     * Parses a distribution.
+     *
+     * @param description The distribution, for instance "geometric:20".
+     * @return The distribution.
+     */
+    public static LengthDistribution parse(String description) {
+        String[] parts = description.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid length distribution " + description);
+        }
+        switch (parts[0]) {
+            case "fixed":
+                int length = Integer.parseInt(parts[1]);
+                return new LengthDistribution(description, length, length, length);
+            case "uniform":
+                String[] bounds = parts[1].split("-");
+                int low = Integer.parseInt(bounds[0]);
+                int high = Integer.parseInt(bounds[1]);
+                return new LengthDistribution(description, low, high, (low + high) / 2.0);
+            case "geometric":
+                return new LengthDistribution(description, 1, MAX_LENGTH,
+                        Double.parseDouble(parts[1]));
+            default:
+                throw new IllegalArgumentException("Invalid length distribution " + description);
+        }
+    }
+
+    /**
+     * Draws a length.
+     *
+     * @param random The random generator.
+     * @return A length between min and max.
+     */
+    public int next(Random random) {
+        if (kind.startsWith("geometric")) {
+            double draw = Math.log(1 - random.nextDouble()) / Math.log(1 - 1 / mean);
+            return (int) Math.min(max, 1 + Math.floor(draw));
+        }
+        return min + random.nextInt(max - min + 1);
+    }
+
+    @Override
+    public String toString() {
+        return kind;
+    }
+}
@@ -1,12 +1,12 @@
 package graph;
 
-import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
-import org.mapdb.*;
-import parser.GfaParser;
-
-import java.io.File;
+import org.junit.rules.TemporaryFolder;
+import org.mapdb.DBMaker;
+import store.GraphStore;
+import store.MapDbGraphStore;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -16,38 +16,26 @@ public class SequenceGraphTest {
     private int[] parentArray = new int[27];
     private int[] childArray = new int[27];
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private SequenceGraph graph;
-    private BTreeMap<Long, String> map;
-    private BTreeMap<Integer, int[]> offSets;
-    private BTreeMap<Integer, int[]> genomes;
-    private DB db;
-    private DB db2;
-    private DB db3;
 
 
     @Before
     public void setUp() throws Exception {
         parentArray = new int[]{1,2,2,3,4,4,5,5,6,7,7,7,8,9,10,11,11,11,12,13,14,15,15,16,16,17,18};
         childArray = new int[]{2,3,4,4,5,7,6,7,7,8,9,10,11,11,11,12,13,14,13,15,15,16,19,17,18,19,19};
-        db = DBMaker.tempFileDB().closeOnJvmShutdown().make();
-        map = db.treeMap("test map").keySerializer(Serializer.LONG).
-                valueSerializer(Serializer.STRING).createOrOpen();
-        db2 = DBMaker.tempFileDB().closeOnJvmShutdown().make();
-        offSets = db2.treeMap("test map").keySerializer(Serializer.INTEGER).
-                valueSerializer(Serializer.INT_ARRAY).createOrOpen();
-        db3 = DBMaker.tempFileDB().closeOnJvmShutdown().make();
-        genomes = db3.treeMap("test map").keySerializer(Serializer.INTEGER).
-                valueSerializer(Serializer.INT_ARRAY).createOrOpen();
-        //populate sequencemap
+        GraphStore store = new MapDbGraphStore(DBMaker.memoryDB().make(), "test",
+                folder.getRoot());
+        //populate the store
         for(int i = 1; i <= 19; i++) {
-            map.put((long) i, "A");
             int[] temp = new int[1];
             temp[0] = i;
-            offSets.put(i, temp);
-            genomes.put(i, temp);
+            store.putNode(i, "A", temp, temp);
         }
 
-        graph = new SequenceGraph(parentArray, childArray, map, offSets, genomes);
+        graph = new SequenceGraph(parentArray, childArray, store);
         graph.createSubGraph(1, 27);
     }
 
@@ -104,7 +92,7 @@ public class SequenceGraphTest {
 
     @Test (expected = IllegalArgumentException.class)
     public void invalidArgument() throws Exception {
-        graph = new SequenceGraph(parentArray, childArray, null, null, null);
+        graph = new SequenceGraph(parentArray, childArray, null);
         graph.createSubGraph(-1, 1);
     }
 }
\ No newline at end of file
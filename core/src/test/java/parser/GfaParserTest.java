@@ -0,0 +1,62 @@
+package parser;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import store.MemoryGraphStore;
+import store.StorageMode;
+import tools.GfaGenerator;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+
+public class GfaParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File gfa;
+    private GraphCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        gfa = folder.newFile("small.gfa");
+        new GfaGenerator(500, 3, 1).write(gfa);
+        cache = new GraphCache(folder.newFolder("cache"), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void smallFileIsKeptInMemory() throws IOException {
+        GfaParser parser = new GfaParser(gfa.getAbsolutePath(), StorageMode.AUTO, cache);
+        assertTrue(parser.isInMemory());
+        parser.parse();
+        assertTrue(parser.getStore() instanceof MemoryGraphStore);
+        assertTrue(parser.getMaxCor() > 0);
+        parser.close();
+        File entry = new File(cache.getDirectory(), GraphCache.key(gfa));
+        assertFalse(entry.exists());
+    }
+
+    @Test
+    public void memoryAndDiskAgree() throws IOException {
+        GfaParser memory = new GfaParser(gfa.getAbsolutePath(), StorageMode.MEMORY, cache);
+        memory.parse();
+        GfaParser disk = new GfaParser(gfa.getAbsolutePath(), StorageMode.DISK, cache);
+        assertFalse(disk.isInMemory());
+        disk.parse();
+        assertTrue(disk.getCacheEntry().isComplete());
+        assertArrayEquals(disk.getParentArray(), memory.getParentArray());
+        assertArrayEquals(disk.getChildArray(), memory.getChildArray());
+        assertEquals(disk.getMaxCor(), memory.getMaxCor());
+        assertEquals(disk.getStore().getSequence(250), memory.getStore().getSequence(250));
+        assertArrayEquals(disk.getStore().getOffsets(250), memory.getStore().getOffsets(250));
+        assertArrayEquals(disk.getOverview().query(0, 500, 5),
+                memory.getOverview().query(0, 500, 5));
+        memory.close();
+        disk.close();
+    }
+}
@@ -0,0 +1,138 @@
+package parser;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import structures.Annotation;
+import structures.AnnotationIndex;
+import tools.GffGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+
+public class GffParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void parallelSameAsSequential() throws IOException {
+        File gff = folder.newFile("large.gff");
+        new GffGenerator("genome", 10000000, 1).write(gff, 100000);
+        assertTrue("needs more than one chunk", gff.length() > 1 << 22);
+
+        AnnotationIndex sequential = new GffParser(gff.getAbsolutePath(), null, null).parseGff();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        GffParser parser = new GffParser(gff.getAbsolutePath(), null, null);
+        List<Object> updates = new ArrayList<>();
+        parser.addObserver((o, arg) -> updates.add(arg));
+        AnnotationIndex parallel = parser.parseGff(executor, 4);
+        executor.shutdown();
+
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < parallel.size(); i += 997) {
+            Annotation expected = sequential.getStore().get(i);
+            Annotation actual = parallel.getStore().get(i);
+            assertEquals(expected.getStart(), actual.getStart());
+            assertEquals(expected.getEnd(), actual.getEnd());
+            assertEquals(expected.getInfo(), actual.getInfo());
+        }
+        assertEquals(1.0, (Double) updates.get(updates.size() - 2), 0.0);
+        assertSame(parallel, updates.get(updates.size() - 1));
+    }
+
+    @Test
+    public void snapshotsShareSelection() throws IOException {
+        File gff = folder.newFile("small.gff");
+        new GffGenerator("genome", 1000000, 1).write(gff, 5000);
+        GffParser parser = new GffParser(gff.getAbsolutePath(), null, null);
+        List<AnnotationIndex> snapshots = new ArrayList<>();
+        parser.addObserver((o, arg) -> {
+            if (arg instanceof AnnotationIndex) {
+                snapshots.add((AnnotationIndex) arg);
+            }
+        });
+        AnnotationIndex annotations = parser.parseGff();
+        assertEquals(2, snapshots.size());
+        assertNotSame(annotations, snapshots.get(0));
+        annotations.getStore().get(3).setSelected(true);
+        assertTrue(snapshots.get(0).getStore().isSelected(3));
+        assertEquals("ID", annotations.getStore().getInfo(0).substring(0, 2));
+        assertFalse(annotations.getStore().getInfo(0).contains(";"));
+    }
+
+    @Test
+    public void mapsParsedAnnotationsWithTheirSelection() throws IOException {
+        File gff = folder.newFile("mapped.gff");
+        new GffGenerator("genome", 1000000, 1).write(gff, 5000);
+        GraphCache cache = new GraphCache(folder.newFolder("cache"), Long.MAX_VALUE);
+        GffParser parser = new GffParser(gff.getAbsolutePath(), null, cache);
+        List<AnnotationIndex> snapshots = new ArrayList<>();
+        parser.addObserver((o, arg) -> {
+            if (arg instanceof AnnotationIndex) {
+                snapshots.add((AnnotationIndex) arg);
+            }
+        });
+        AnnotationIndex annotations = parser.parseGff();
+        assertEquals(-1, parser.getSuggestedGenome());
+        assertNotSame(snapshots.get(0).getStore(), annotations.getStore());
+        snapshots.get(0).getStore().setSelected(11, true);
+        assertTrue(annotations.getStore().isSelected(11));
+        assertEquals(snapshots.get(0).getStore().getInfo(11), annotations.getStore().getInfo(11));
+    }
+
+    @Test
+    public void keepsEntryUntilClosed() throws IOException {
+        File gff = folder.newFile("kept.gff");
+        new GffGenerator("genome", 1000000, 1).write(gff, 5000);
+        GraphCache cache = new GraphCache(folder.newFolder("cache"), 0);
+        File entry = new File(cache.getDirectory(), GraphCache.key(gff));
+        GffParser parser = new GffParser(gff.getAbsolutePath(), null, cache);
+        AnnotationIndex annotations = parser.parseGff();
+        GffParser reopened = new GffParser(gff.getAbsolutePath(), null, cache);
+        reopened.parseGff();
+        parser.close();
+        cache.evict();
+        assertTrue(new File(entry, "annotations.idx").exists());
+        assertEquals("ID", annotations.getStore().getInfo(0).substring(0, 2));
+
+        reopened.close();
+        cache.evict();
+        assertFalse(entry.exists());
+    }
+
+    @Test
+    public void reopensParsedAnnotations() throws IOException {
+        File gff = folder.newFile("cached.gff");
+        new GffGenerator("genome", 1000000, 1).write(gff, 5000);
+        GraphCache cache = new GraphCache(folder.newFolder("cache"), Long.MAX_VALUE);
+        AnnotationIndex parsed = new GffParser(gff.getAbsolutePath(), null, cache).parseGff();
+
+        GffParser parser = new GffParser(gff.getAbsolutePath(), null, cache);
+        List<Object> updates = new ArrayList<>();
+        parser.addObserver((o, arg) -> updates.add(arg));
+        AnnotationIndex reopened = parser.parseGff();
+        assertEquals(2, updates.size());
+        assertEquals(parsed.size(), reopened.size());
+        assertEquals(parsed.getStore().getInfo(4321), reopened.getStore().getInfo(4321));
+        assertEquals(parsed.getLane(4321), reopened.getLane(4321));
+        for (int from = 0; from < 1000000; from += 99991) {
+            List<Annotation> expected = parsed.query(from, from + 5000);
+            List<Annotation> actual = reopened.query(from, from + 5000);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), actual.get(i).getId());
+                assertEquals(expected.get(i).getEnd(), actual.get(i).getEnd());
+            }
+        }
+        reopened.getStore().get(7).setSelected(true);
+        assertTrue(reopened.getStore().isSelected(7));
+    }
+}
@@ -0,0 +1,106 @@
+package parser;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import store.StoreFormat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+
+public class GraphCacheTest {
+
+    private static final int KB = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private GraphCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        cache = new GraphCache(folder.newFolder("cache"), 100 * KB);
+    }
+
+    private File graph(String name, int size) throws IOException {
+        File file = new File(folder.newFolder(), name);
+        byte[] content = new byte[size];
+        Arrays.fill(content, (byte) name.hashCode());
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(content);
+        }
+        return file;
+    }
+
+    private static void fill(GraphCache.Entry entry, int size) throws IOException {
+        try (OutputStream out = new FileOutputStream(entry.getFile("graph.db"))) {
+            out.write(new byte[size]);
+        }
+    }
+
+    @Test
+    public void sameNameDifferentContent() throws IOException {
+        File first = graph("graph.gfa", 10);
+        File second = graph("graph.gfa", 20);
+        assertNotEquals(GraphCache.key(first), GraphCache.key(second));
+    }
+
+    @Test
+    public void changeInLargeFileIsNoticed() throws IOException {
+        File file = graph("large.gfa", 4 * KB * KB);
+        long modified = file.lastModified();
+        String key = GraphCache.key(file);
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(file.length() - 1);
+            out.write(1);
+        }
+        assertTrue(file.setLastModified(modified));
+        assertNotEquals(key, GraphCache.key(file));
+    }
+
+    @Test
+    public void entryKeepsProgress() throws IOException {
+        File file = graph("graph.gfa", 10);
+        GraphCache.Entry entry = cache.open(file);
+        assertFalse(entry.isComplete());
+        entry.markStarted(StoreFormat.FLAT);
+        assertTrue(cache.open(file).isInterrupted());
+        entry.markComplete(5, 42);
+        GraphCache.Entry reopened = cache.open(file);
+        assertTrue(reopened.isComplete());
+        assertEquals(StoreFormat.FLAT, reopened.getFormat());
+        assertEquals(5, reopened.getEdgeCount());
+        assertEquals(42, reopened.getMaxCor());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() throws IOException {
+        File old = graph("old.gfa", 10);
+        File used = graph("used.gfa", 10);
+        File open = graph("open.gfa", 10);
+        GraphCache.Entry oldEntry = cache.open(old);
+        fill(oldEntry, 40 * KB);
+        cache.release(oldEntry);
+        GraphCache.Entry usedEntry = cache.open(used);
+        fill(usedEntry, 40 * KB);
+        cache.release(usedEntry);
+        GraphCache.Entry openEntry = cache.open(open);
+        fill(openEntry, 40 * KB);
+        assertTrue(oldEntry.getDirectory().setLastModified(1000));
+        assertTrue(usedEntry.getDirectory().setLastModified(2000));
+        assertTrue(openEntry.getDirectory().setLastModified(0));
+
+        cache.evict();
+        assertTrue(openEntry.getFile("graph.db").exists());
+        assertFalse(oldEntry.getFile("graph.db").exists());
+        assertTrue(usedEntry.getFile("graph.db").exists());
+    }
+}
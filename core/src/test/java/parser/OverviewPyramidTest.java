@@ -0,0 +1,39 @@
+package parser;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class OverviewPyramidTest {
+
+    private static OverviewPyramid pyramid() {
+        OverviewPyramid.Builder builder = new OverviewPyramid.Builder();
+        builder.addSegment(0, 2, 10);
+        builder.addSegment(1, 3, 20);
+        builder.addLink(0);
+        builder.addLink(0);
+        builder.addSegment(1500, 1, 5);
+        return builder.build();
+    }
+
+    @Test
+    public void summarisesBins() {
+        long[][] bins = pyramid().query(0, 2000, 2);
+        assertArrayEquals(new long[] {2, 1, 5, 30}, bins[0]);
+        assertArrayEquals(new long[] {1, 0, 1, 5}, bins[1]);
+    }
+
+    @Test
+    public void sparseBinsStayVisibleWhenSpread() {
+        long[][] bins = pyramid().query(1000, 2000, 4);
+        long nodes = 0;
+        for (long[] bin : bins) {
+            nodes += bin[OverviewPyramid.NODES];
+        }
+        assertEquals(1, nodes);
+        assertEquals(1, bins[0][OverviewPyramid.NODES]);
+        assertEquals(2, bins[0][OverviewPyramid.LENGTH]);
+        assertEquals(1, bins[3][OverviewPyramid.LENGTH]);
+    }
+}
@@ -0,0 +1,70 @@
+package store;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+
+public class FlatGraphStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FlatGraphStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        store = new FlatGraphStore(folder.getRoot());
+        assertFalse(store.isImported());
+        store.putNode(1, "ACGT", new int[]{0, 2}, new int[]{10, 20});
+        store.putNode(2, "A", null, null);
+        store.putNode(4, "GGGGGG", new int[]{1}, new int[]{7});
+        store.putEdge(1, 2);
+        store.putEdge(1, 4);
+        store.putEdge(2, 4);
+        store.putLongs("overview", 0, new long[]{4, Long.MAX_VALUE});
+        store.commit();
+    }
+
+    private void assertNodes(GraphStore graph) throws IOException {
+        assertTrue(graph.isImported());
+        assertEquals(4, graph.getMaxNodeId());
+        assertEquals("ACGT", graph.getSequence(1));
+        assertEquals(6, graph.getSequenceLength(4));
+        assertArrayEquals(new int[]{0, 2}, graph.getGenomes(1));
+        assertArrayEquals(new int[]{10, 20}, graph.getOffsets(1));
+        assertNull(graph.getGenomes(2));
+        assertNull(graph.getSequence(3));
+        assertEquals(-1, graph.getSequenceLength(3));
+        assertNull(graph.getOffsets(5));
+        assertArrayEquals(new int[]{1, 1, 2}, graph.getParentArray());
+        assertArrayEquals(new int[]{2, 4, 4}, graph.getChildArray());
+        assertArrayEquals(new long[]{4, Long.MAX_VALUE}, graph.getLongs("overview", 0));
+        assertNull(graph.getLongs("overview", 1));
+    }
+
+    @Test
+    public void readsWhatWasPut() throws IOException {
+        assertNodes(store);
+    }
+
+    @Test
+    public void reopens() throws IOException {
+        store.close();
+        assertNodes(new FlatGraphStore(folder.getRoot()));
+    }
+
+    @Test
+    public void noEdges() throws IOException {
+        FlatGraphStore empty = new FlatGraphStore(folder.newFolder());
+        empty.putNode(1, "A", null, null);
+        empty.commit();
+        assertNull(empty.getParentArray());
+        assertEquals(1, empty.getMaxNodeId());
+    }
+}
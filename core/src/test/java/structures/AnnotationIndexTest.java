@@ -0,0 +1,173 @@
+package structures;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+public class AnnotationIndexTest {
+
+    @Test
+    public void findsOverlappingAnnotations() {
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        builder.add(10, 20, "a");
+        builder.add(15, 100000, "operon");
+        builder.add(30, 40, "b");
+        builder.add(30, 40, "same coordinates as b");
+        AnnotationIndex index = new AnnotationIndex(builder.build());
+        assertEquals(4, index.size());
+        assertEquals(2, index.query(0, 16).size());
+        assertEquals(1, index.query(20, 30).size());
+        assertEquals(1, index.query(20, 30).get(0).getId());
+        assertEquals(3, index.query(35, 36).size());
+        assertTrue(index.query(100000, 200000).isEmpty());
+        assertTrue(index.query(16, 16).isEmpty());
+    }
+
+    @Test
+    public void overlappingAnnotationsGetOtherLanes() {
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        builder.add(10, 20, "a");
+        builder.add(15, 100000, "operon");
+        builder.add(20, 25, "touches a");
+        builder.add(30, 40, "b");
+        builder.add(30, 40, "same coordinates as b");
+        builder.add(41, 50, "after b");
+        AnnotationIndex index = new AnnotationIndex(builder.build());
+        assertEquals(0, index.getLane(0));
+        assertEquals(1, index.getLane(1));
+        assertEquals(2, index.getLane(2));
+        assertEquals(0, index.getLane(3));
+        assertEquals(2, index.getLane(4));
+        assertEquals(0, index.getLane(5));
+    }
+
+    @Test
+    public void lanesNeverOverlap() {
+        Random random = new Random(7);
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        for (int i = 0; i < 1000; i++) {
+            int start = random.nextInt(20000);
+            builder.add(start, start + random.nextInt(2000), "");
+        }
+        AnnotationStore store = builder.build();
+        AnnotationIndex index = new AnnotationIndex(store);
+        for (int i = 0; i < store.size(); i++) {
+            for (int j = i + 1; j < store.size(); j++) {
+                if (store.getStart(i) <= store.getEnd(j) && store.getStart(j) <= store.getEnd(i)) {
+                    assertNotEquals(index.getLane(i), index.getLane(j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void stepsThroughSelectedAnnotations() {
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        builder.add(50, 60, "c");
+        builder.add(10, 20, "a");
+        builder.add(30, 40, "b");
+        builder.add(30, 45, "longer b");
+        AnnotationIndex index = new AnnotationIndex(builder.build());
+        assertEquals(0, index.indexOf(1));
+        assertEquals(1, index.indexOf(3));
+        assertEquals(2, index.indexOf(2));
+        assertEquals(3, index.indexOf(0));
+        assertEquals(-1, index.indexOf(4));
+
+        index.getStore().select(0, 3);
+        assertEquals(0, index.nextSelected(-1, 1));
+        assertEquals(2, index.nextSelected(0, 1));
+        assertEquals(3, index.nextSelected(2, 1));
+        assertEquals(-1, index.nextSelected(3, 1));
+        assertEquals(3, index.nextSelected(index.size(), -1));
+        assertEquals(0, index.nextSelected(2, -1));
+        assertEquals(-1, index.nextSelected(0, -1));
+    }
+
+    @Test
+    public void emptyIndex() {
+        assertTrue(AnnotationIndex.empty().isEmpty());
+        assertTrue(AnnotationIndex.empty().query(0, 100).isEmpty());
+    }
+
+    @Test
+    public void sameAsScanningAll() {
+        Random random = new Random(42);
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(100000);
+            int length = random.nextInt(10) == 0 ? random.nextInt(50000) : random.nextInt(500);
+            builder.add(start, start + length, "");
+        }
+        AnnotationIndex index = new AnnotationIndex(builder.build());
+        for (int i = 0; i < 500; i++) {
+            int from = random.nextInt(110000);
+            int to = from + 1 + random.nextInt(2000);
+            List<Annotation> expected = new ArrayList<>();
+            for (Annotation annotation : index.getAll()) {
+                if (annotation.getStart() < to && annotation.getEnd() > from) {
+                    expected.add(annotation);
+                }
+            }
+            assertEquals(expected, index.query(from, to));
+        }
+    }
+
+    @Test
+    public void storeKeepsAttributesAndSelection() {
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        for (int i = 0; i < 3000; i++) {
+            builder.add(i, i + 10, "ID=gene" + i + ";Note=één");
+        }
+        AnnotationStore store = builder.build();
+        assertEquals(3000, store.size());
+        assertEquals("ID=gene2999;Note=één", store.get(2999).getInfo());
+        assertEquals(2999, store.get(2999).getStart());
+
+        Annotation annotation = store.get(5);
+        annotation.setSelected(true);
+        annotation.setHighlighted(true);
+        assertTrue(store.get(5).isSelected());
+        assertTrue(store.get(5).getHighlighted());
+        assertEquals(annotation, store.get(5));
+        assertFalse(store.isSelected(6));
+
+        store.selectAll();
+        assertTrue(store.isSelected(2999));
+        assertFalse(store.isHighlighted(6));
+    }
+
+    @Test
+    public void selectionOfStoreLeavesLaterAnnotations() {
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        for (int i = 0; i < 3; i++) {
+            builder.add(i, i + 1, "ID=first" + i);
+        }
+        AnnotationStore first = builder.build();
+        builder.add(3, 4, "ID=later");
+        AnnotationStore later = builder.build();
+        later.setSelected(3, true);
+
+        Selection selection = first.getSelection();
+        selection.invert();
+        assertEquals(3, selection.count());
+        assertTrue(later.isSelected(0));
+        assertFalse(selection.isSelected(3));
+        selection.intersect(new BitSet());
+        selection.selectAll();
+        selection.clear();
+        assertFalse(later.isSelected(0));
+        assertTrue(later.isSelected(3));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void noAnnotationOutsideStore() {
+        new AnnotationStore.Builder().build().get(0);
+    }
+}
@@ -0,0 +1,108 @@
+package structures;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+public class AnnotationSearchTest {
+
+    private AnnotationSearch search;
+
+    @Before
+    public void setUp() {
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        builder.add(100, 200, "ID=gene-dnaA\tName=dnaA\tlocus_tag=Rv0001\tNote=chromosomal");
+        builder.add(300, 400, "ID=cds-dnaN\tParent=gene-dnaN\tproduct=DNA polymerase III");
+        builder.add(12345, 12400, "ID=gene-recF\tName=recF\tlocus_tag=Rv0003");
+        search = new AnnotationSearch(builder.build());
+    }
+
+    @Test
+    public void findsTokensAndParts() {
+        assertEquals(rows(0), search.find("dnaA"));
+        assertEquals(rows(0, 1), search.find("dna"));
+        assertEquals(rows(0, 1), search.find("DN"));
+        assertEquals(rows(1), search.find("lymera"));
+        assertEquals(rows(0, 2), search.find("rv000"));
+        assertEquals(rows(0), search.find("gene-dnaA"));
+        assertEquals(rows(1), search.find("polymerase iii"));
+        assertTrue(search.find("chromosomal").isEmpty());
+        assertTrue(search.find("xyz").isEmpty());
+        assertNull(search.find(" - "));
+    }
+
+    @Test
+    public void numbersAlsoMatchCoordinates() {
+        assertEquals(rows(2), search.find("123"));
+        assertEquals(rows(0, 2), search.find("1"));
+        assertEquals(rows(1), search.find("40"));
+        assertEquals(rows(0), search.find("rv 200"));
+        assertTrue(search.find("234").isEmpty());
+        assertTrue(search.find("00").isEmpty());
+        assertTrue(search.find("99999999999").isEmpty());
+    }
+
+    @Test
+    public void numbersMatchCoordinatePrefixes() {
+        Random random = new Random(7);
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(100000);
+            builder.add(start, start + random.nextInt(5000), "ID=gene");
+        }
+        builder.add(0, Integer.MAX_VALUE, "ID=gene");
+        AnnotationStore store = builder.build();
+        AnnotationSearch index = store.getSearch();
+        for (String query : new String[] {"0", "1", "42", "999", "2147483647", "31"}) {
+            BitSet expected = new BitSet();
+            for (int row = 0; row < store.size(); row++) {
+                if (Integer.toString(store.getStart(row)).startsWith(query)
+                        || Integer.toString(store.getEnd(row)).startsWith(query)) {
+                    expected.set(row);
+                }
+            }
+            assertEquals(query, expected, index.find(query));
+        }
+    }
+
+    @Test
+    public void sameAsScanningAll() {
+        Random random = new Random(42);
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        String[] words = {"kinase", "transporter", "dehydrogenase", "hypothetical", "protein"};
+        for (int i = 0; i < 2000; i++) {
+            builder.add(i, i + 1, "ID=gene" + random.nextInt(500) + "\tproduct="
+                    + words[random.nextInt(words.length)] + " " + words[random.nextInt(3)]);
+        }
+        AnnotationStore store = builder.build();
+        AnnotationSearch index = store.getSearch();
+        assertSame(index, store.getSearch());
+        for (String query : new String[] {"gene12", "ase", "rot", "kinase hypo", "ene4"}) {
+            BitSet expected = new BitSet();
+            for (int row = 0; row < store.size(); row++) {
+                String info = store.getInfo(row).toLowerCase();
+                boolean all = true;
+                for (String term : query.split(" ")) {
+                    all &= info.contains(term);
+                }
+                if (all) {
+                    expected.set(row);
+                }
+            }
+            assertEquals(query, expected, index.find(query));
+        }
+    }
+
+    private static BitSet rows(int... rows) {
+        BitSet result = new BitSet();
+        for (int row : rows) {
+            result.set(row);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package structures;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.*;
+
+
+public class SelectionTest {
+
+    private Selection selection;
+
+    @Before
+    public void setUp() {
+        selection = Selection.of(10, 1, 3, 5, 12, -1);
+    }
+
+    private static BitSet ids(int... ids) {
+        BitSet res = new BitSet();
+        for (int id : ids) {
+            res.set(id);
+        }
+        return res;
+    }
+
+    @Test
+    public void leavesOutIdsOutsideTheSize() {
+        assertArrayEquals(new int[] {1, 3, 5}, selection.toArray());
+        assertEquals(3, selection.count());
+        assertTrue(selection.isSelected(3));
+        assertFalse(selection.isSelected(4));
+        assertFalse(selection.isSelected(-1));
+        assertFalse(selection.isSelected(12));
+        selection.setSelected(10, true);
+        assertEquals(3, selection.count());
+    }
+
+    @Test
+    public void selectsAllAndClears() {
+        selection.selectAll();
+        assertEquals(10, selection.count());
+        selection.clear();
+        assertTrue(selection.isEmpty());
+    }
+
+    @Test
+    public void selectsAndDeselectsFiltered() {
+        selection.select(ids(2, 3, 11));
+        assertArrayEquals(new int[] {1, 2, 3, 5}, selection.toArray());
+        selection.deselect(ids(1, 2));
+        assertArrayEquals(new int[] {3, 5}, selection.toArray());
+    }
+
+    @Test
+    public void inverts() {
+        selection.invert();
+        assertArrayEquals(new int[] {0, 2, 4, 6, 7, 8, 9}, selection.toArray());
+        selection.invert(ids(0, 1, 15));
+        assertArrayEquals(new int[] {1, 2, 4, 6, 7, 8, 9}, selection.toArray());
+    }
+
+    @Test
+    public void intersects() {
+        BitSet kept = ids(3, 4, 5);
+        selection.intersect(kept);
+        assertArrayEquals(new int[] {3, 5}, selection.toArray());
+        assertEquals(ids(3, 4, 5), kept);
+    }
+
+    @Test
+    public void copiesToAnotherSize() {
+        Selection smaller = selection.copy(4);
+        assertArrayEquals(new int[] {1, 3}, smaller.toArray());
+        Selection larger = selection.copy(20);
+        larger.setSelected(15, true);
+        assertArrayEquals(new int[] {1, 3, 5, 15}, larger.toArray());
+        assertArrayEquals(new int[] {1, 3, 5}, selection.toArray());
+    }
+}
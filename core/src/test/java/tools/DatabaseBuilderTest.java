@@ -0,0 +1,84 @@
+package tools;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import parser.GfaParser;
+import parser.GraphCache;
+import store.StorageMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+
+public class DatabaseBuilderTest {
+
+    private static final int GRAPHS = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LinkedHashMap<File, List<File>> graphs;
+    private GraphCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        cache = new GraphCache(folder.newFolder("cache"), Long.MAX_VALUE);
+        graphs = new LinkedHashMap<>();
+        for (int i = 0; i < GRAPHS; i++) {
+            // Every graph has the same file name, in its own directory.
+            File gfa = new File(folder.newFolder(), "graph.gfa");
+            new GfaGenerator(1000 * (i + 1), 3, i).write(gfa);
+            graphs.put(gfa, new ArrayList<>());
+        }
+        File gff = folder.newFile("graph.gff");
+        new GffGenerator(GfaGenerator.genomeName(0), 1000, 1).write(gff, 20);
+        graphs.get(graphs.keySet().iterator().next()).add(gff);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (Map.Entry<File, List<File>> graph : graphs.entrySet()) {
+            cache.remove(graph.getKey());
+            for (File gff : graph.getValue()) {
+                cache.remove(gff);
+            }
+        }
+    }
+
+    @Test
+    public void parallelImportsOfSameName() throws IOException, InterruptedException {
+        assertTrue(new DatabaseBuilder(GRAPHS, true, cache).build(graphs));
+        int nodes = 1000;
+        for (File gfa : graphs.keySet()) {
+            GfaParser parser = new GfaParser(gfa.getAbsolutePath(), StorageMode.DISK, cache);
+            GraphCache.Entry entry = parser.getCacheEntry();
+            assertTrue(entry.isComplete());
+            assertTrue(entry.getMaxCor() > 0);
+            parser.parse();
+            assertEquals(nodes, parser.getStore().getMaxNodeId());
+            parser.close();
+            nodes += 1000;
+        }
+    }
+
+    @Test
+    public void copiesAreImportedOnce() throws IOException, InterruptedException {
+        File original = graphs.keySet().iterator().next();
+        File copy = new File(folder.newFolder(), original.getName());
+        Files.copy(original.toPath(), copy.toPath());
+        assertTrue(copy.setLastModified(original.lastModified()));
+        graphs.put(copy, new ArrayList<>());
+        assertTrue(new DatabaseBuilder(2, false, cache).build(graphs));
+        assertFalse(graphs.containsKey(copy));
+    }
+}
@@ -0,0 +1,133 @@
+package tools;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+public class GfaGeneratorTest {
+
+    private static final int NODES = 5000;
+    private static final int GENOMES = 20;
+
+    private GfaGenerator generator;
+    private String gfa;
+
+    @Before
+    public void setUp() throws IOException {
+        generator = new GfaGenerator(NODES, GENOMES, 7);
+        generator.setSnpRate(0.1);
+        generator.setIndelRate(0.05);
+        generator.setStructuralRate(0.02);
+        gfa = write(generator);
+    }
+
+    private static String write(GfaGenerator generator) throws IOException {
+        StringWriter writer = new StringWriter();
+        generator.write(writer);
+        return writer.toString();
+    }
+
+    @Test
+    public void sameSeedSameGraph() throws IOException {
+        GfaGenerator other = new GfaGenerator(NODES, GENOMES, 7);
+        other.setSnpRate(0.1);
+        other.setIndelRate(0.05);
+        other.setStructuralRate(0.02);
+        assertEquals(gfa, write(other));
+        assertNotEquals(gfa, write(new GfaGenerator(NODES, GENOMES, 8)));
+    }
+
+    @Test
+    public void everySegmentIsWritten() {
+        int segments = 0;
+        for (String line : gfa.split("\n")) {
+            if (line.startsWith("S")) {
+                segments++;
+                assertEquals(segments, Integer.parseInt(line.split("\t")[1]));
+            }
+        }
+        assertEquals(NODES, segments);
+    }
+
+    @Test
+    public void linksAreSortedByParent() {
+        int lastParent = 0;
+        for (String line : gfa.split("\n")) {
+            if (line.startsWith("L")) {
+                String[] data = line.split("\t");
+                int parent = Integer.parseInt(data[1]);
+                int child = Integer.parseInt(data[3]);
+                assertTrue(parent >= lastParent);
+                assertTrue(child > parent);
+                lastParent = parent;
+            }
+        }
+        assertTrue(lastParent > 0);
+    }
+
+    @Test
+    public void offsetsFollowTheGenomes() {
+        long[] positions = new long[GENOMES];
+        for (String line : gfa.split("\n")) {
+            if (line.startsWith("S")) {
+                String[] data = line.split("\t");
+                String[] genomes = data[4].substring("ORI:Z:".length()).split(";");
+                String[] starts = data[5].substring("START:Z:".length()).split(";");
+                assertEquals(genomes.length, starts.length);
+                for (int i = 0; i < genomes.length; i++) {
+                    int genome = Integer.parseInt(genomes[i].replace("genome", "")
+                            .replace(".fasta", ""));
+                    assertEquals(positions[genome], Long.parseLong(starts[i]));
+                    positions[genome] += data[2].length();
+                }
+            }
+        }
+        for (int genome = 0; genome < GENOMES; genome++) {
+            assertEquals(positions[genome], generator.getGenomeLength(genome));
+        }
+    }
+
+    @Test
+    public void annotationsAreSortedAndOnTheGenome() throws IOException {
+        long length = generator.getGenomeLength(0);
+        StringWriter writer = new StringWriter();
+        new GffGenerator(GfaGenerator.genomeName(0), length, 7).write(writer, 200);
+        long lastStart = 0;
+        int genes = 0;
+        for (String line : writer.toString().split("\n")) {
+            String[] data = line.split("\t");
+            assertEquals(9, data.length);
+            long start = Long.parseLong(data[3]);
+            long end = Long.parseLong(data[4]);
+            assertTrue(start >= lastStart);
+            assertTrue(start <= end && end < length);
+            if ("gene".equals(data[2])) {
+                genes++;
+                lastStart = start;
+            }
+        }
+        assertEquals(200, genes);
+    }
+
+    @Test
+    public void lengthDistributions() {
+        Random random = new Random(1);
+        assertEquals(5, LengthDistribution.parse("fixed:5").next(random));
+        for (int i = 0; i < 100; i++) {
+            int uniform = LengthDistribution.parse("uniform:3-9").next(random);
+            assertTrue(uniform >= 3 && uniform <= 9);
+            assertTrue(LengthDistribution.parse("geometric:20").next(random) >= 1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLengthDistribution() {
+        LengthDistribution.parse("normal:5");
+    }
+}
@@ -0,0 +1,178 @@
+package gui;
+
+import structures.AnnotationSet;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The selected annotations projected onto the nodes of one window of the graph.
+ * <p>
+ * For every node it stores which annotations are drawn underneath it, which fraction of
+ * the node they cover and in which lane. The projection only depends on the graph and the
+ * annotation sets, so it is computed once and reused for every frame.
+ * Records of one node are stored next to each other, nodes are added in increasing id order.
+ * Every annotation set gets its own band of lanes, as high as the most lanes it uses in
+ * the window, so the sets do not overlap where their genomes share a node.
+ */
+final class AnnotationProjection {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final List<AnnotationSet> annotationSets;
+    private final int[] laneCounts;
+    private final int[] laneBases;
+    private final int[] idBases;
+
+    private int nodeCount;
+    private int[] nodeIds = new int[INITIAL_CAPACITY];
+    private int[] nodeFirst = new int[INITIAL_CAPACITY];
+
+    private int size;
+    private int[] sets = new int[INITIAL_CAPACITY];
+    private int[] annotationIds = new int[INITIAL_CAPACITY];
+    private int[] annotationStarts = new int[INITIAL_CAPACITY];
+    private double[] startFractions = new double[INITIAL_CAPACITY];
+    private double[] endFractions = new double[INITIAL_CAPACITY];
+    private int[] lanes = new int[INITIAL_CAPACITY];
+
+    /**
+     * Constructor.
+     *
+     * @param annotationSets the annotation sets that are projected.
+     */
+    AnnotationProjection(List<AnnotationSet> annotationSets) {
+        this.annotationSets = annotationSets;
+        this.laneCounts = new int[annotationSets.size()];
+        this.laneBases = new int[annotationSets.size()];
+        this.idBases = new int[annotationSets.size()];
+        for (int set = 1; set < idBases.length; set++) {
+            idBases[set] = idBases[set - 1] + annotationSets.get(set - 1).getAnnotations().size();
+        }
+    }
+
+    /**
+     * Starts the records of a node. Must be called with increasing node ids.
+     *
+     * @param nodeId the id of the node.
+     */
+    void startNode(int nodeId) {
+        if (nodeCount == nodeIds.length) {
+            nodeIds = Arrays.copyOf(nodeIds, nodeCount * 2);
+            nodeFirst = Arrays.copyOf(nodeFirst, nodeCount * 2);
+        }
+        nodeIds[nodeCount] = nodeId;
+        nodeFirst[nodeCount] = size;
+        nodeCount++;
+    }
+
+    /**
+     * Adds an annotation to the node that was started last.
+     *
+     * @param set             the position of the annotation set in the list of sets.
+     * @param annotationId    the id of the annotation in its set.
+     * @param annotationStart the start coordinate of the annotation.
+     * @param startFraction   the fraction of the node before the annotation starts.
+     * @param endFraction     the fraction of the node at which the annotation ends.
+     * @param lane            the lane of the annotation in its set, starting at 0.
+     */
+    void add(int set, int annotationId, int annotationStart,
+             double startFraction, double endFraction, int lane) {
+        if (size == annotationIds.length) {
+            sets = Arrays.copyOf(sets, size * 2);
+            annotationIds = Arrays.copyOf(annotationIds, size * 2);
+            annotationStarts = Arrays.copyOf(annotationStarts, size * 2);
+            startFractions = Arrays.copyOf(startFractions, size * 2);
+            endFractions = Arrays.copyOf(endFractions, size * 2);
+            lanes = Arrays.copyOf(lanes, size * 2);
+        }
+        sets[size] = set;
+        annotationIds[size] = annotationId;
+        annotationStarts[size] = annotationStart;
+        startFractions[size] = startFraction;
+        endFractions[size] = endFraction;
+        lanes[size] = lane;
+        laneCounts[set] = Math.max(laneCounts[set], lane + 1);
+        size++;
+    }
+
+    /**
+     * Stacks the bands of lanes of the sets, after all annotations were added.
+     */
+    void finish() {
+        int base = 1;
+        for (int set = 0; set < laneBases.length; set++) {
+            laneBases[set] = base;
+            base += laneCounts[set];
+        }
+    }
+
+    /**
+     * @param nodeId the id of the node.
+     * @return the index of the first record of the node.
+     */
+    int first(int nodeId) {
+        int node = Arrays.binarySearch(nodeIds, 0, nodeCount, nodeId);
+        return node < 0 ? 0 : nodeFirst[node];
+    }
+
+    /**
+     * @param nodeId the id of the node.
+     * @return the index after the last record of the node.
+     */
+    int end(int nodeId) {
+        int node = Arrays.binarySearch(nodeIds, 0, nodeCount, nodeId);
+        if (node < 0) {
+            return 0;
+        }
+        return node + 1 < nodeCount ? nodeFirst[node + 1] : size;
+    }
+
+    List<AnnotationSet> getAnnotationSets() {
+        return annotationSets;
+    }
+
+    AnnotationSet getAnnotationSet(int record) {
+        return annotationSets.get(sets[record]);
+    }
+
+    int getAnnotationId(int record) {
+        return annotationIds[record];
+    }
+
+    /**
+     * @param record the index of the record.
+     * @return an id of the annotation that is unique over all sets: the ids of every set
+     * follow the ids of the sets before it.
+     */
+    int getGlobalId(int record) {
+        return idBases[sets[record]] + annotationIds[record];
+    }
+
+    int getAnnotationStart(int record) {
+        return annotationStarts[record];
+    }
+
+    double getStartFraction(int record) {
+        return startFractions[record];
+    }
+
+    double getEndFraction(int record) {
+        return endFractions[record];
+    }
+
+    /**
+     * @param record the index of the record.
+     * @return the lane underneath the node, starting at 1.
+     */
+    int getLane(int record) {
+        return laneBases[sets[record]] + lanes[record];
+    }
+
+    /**
+     * @return the total number of records.
+     */
+    int size() {
+        return size;
+    }
+}
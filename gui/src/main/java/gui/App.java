@@ -6,6 +6,7 @@ import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
+import parser.CustomProperties;
 
 import java.io.*;
 
@@ -95,9 +96,8 @@ public class App extends Application {
 
     @Override
     public void stop() {
-        MenuController controller = loader.getController();
-        if (controller.getSequenceHashMap() != null) {
-            controller.getSequenceHashMap().close();
+        if (DrawableCanvas.getInstance().getParser() != null) {
+            DrawableCanvas.getInstance().getParser().close();
         }
     }
 
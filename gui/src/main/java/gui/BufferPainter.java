@@ -0,0 +1,391 @@
+package gui;
+
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+
+/**
+ * A small software renderer that rasterises rectangles, lines and polygons
+ * into an int[] of ARGB pixels.
+ * <p>
+ * It does not need the JavaFX application thread, so frames can be drawn on a worker
+ * thread and only copied onto the canvas when they are finished.
+ * Shapes are not anti-aliased, shapes thinner than a pixel are drawn one pixel wide
+ * so they do not disappear when zoomed out.
+ */
+class BufferPainter implements Painter {
+
+    private static final double HALF_PIXEL = 0.5;
+    private static final double THIN_LINE = 1.5;
+    private static final int ALPHA_SHIFT = 24;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+    private static final int CHANNEL = 0xFF;
+
+    private int width;
+    private int height;
+    private int[] pixels;
+    private int fill;
+    private int stroke;
+    private double lineWidth = 1;
+    private final double[] clipped = new double[2];
+
+    /**
+     * Constructor.
+     *
+     * @param width  width of the buffer in pixels.
+     * @param height height of the buffer in pixels.
+     */
+    BufferPainter(int width, int height) {
+        this.pixels = new int[0];
+        resize(width, height);
+    }
+
+    /**
+     * Resizes the buffer, the content is undefined afterwards.
+     *
+     * @param newWidth  the new width in pixels.
+     * @param newHeight the new height in pixels.
+     */
+    void resize(int newWidth, int newHeight) {
+        this.width = Math.max(newWidth, 1);
+        this.height = Math.max(newHeight, 1);
+        if (pixels.length < width * height) {
+            pixels = new int[width * height];
+        }
+    }
+
+    /**
+     * @return the pixels in ARGB format, row by row. May be longer than width * height.
+     */
+    int[] getPixels() {
+        return pixels;
+    }
+
+    @Override
+    public double getWidth() {
+        return width;
+    }
+
+    @Override
+    public double getHeight() {
+        return height;
+    }
+
+    @Override
+    public void clearRect(double x, double y, double w, double h) {
+        if (x <= 0 && y <= 0 && x + w >= width && y + h >= height) {
+            Arrays.fill(pixels, 0, width * height, 0);
+            return;
+        }
+        int x0 = clampX(toPixel(x));
+        int x1 = clampX(toPixel(x + w));
+        int y0 = clampY(toPixel(y));
+        int y1 = clampY(toPixel(y + h));
+        for (int row = y0; row < y1; row++) {
+            Arrays.fill(pixels, row * width + x0, row * width + x1, 0);
+        }
+    }
+
+    @Override
+    public void setFill(Color colour) {
+        this.fill = toArgb(colour);
+    }
+
+    @Override
+    public void setStroke(Color colour) {
+        this.stroke = toArgb(colour);
+    }
+
+    @Override
+    public void setLineWidth(double lineWidth) {
+        this.lineWidth = lineWidth;
+    }
+
+    @Override
+    public void fillRect(double x, double y, double w, double h) {
+        fillSpan(x, y, w, h, fill);
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double w, double h) {
+        double half = lineWidth / 2;
+        fillSpan(x - half, y - half, w + lineWidth, lineWidth, stroke);
+        fillSpan(x - half, y + h - half, w + lineWidth, lineWidth, stroke);
+        fillSpan(x - half, y + half, lineWidth, h - lineWidth, stroke);
+        fillSpan(x + w - half, y + half, lineWidth, h - lineWidth, stroke);
+    }
+
+    @Override
+    public void strokeLine(double x1, double y1, double x2, double y2) {
+        if (lineWidth <= THIN_LINE) {
+            thinLine(x1, y1, x2, y2, stroke);
+            return;
+        }
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double length = Math.sqrt(dx * dx + dy * dy);
+        if (length == 0) {
+            return;
+        }
+        double offsetX = -dy / length * lineWidth / 2;
+        double offsetY = dx / length * lineWidth / 2;
+        scanFill(new double[]{x1 + offsetX, x2 + offsetX, x2 - offsetX, x1 - offsetX},
+                new double[]{y1 + offsetY, y2 + offsetY, y2 - offsetY, y1 - offsetY}, 4, stroke);
+    }
+
+    @Override
+    public void fillPolygon(double[] xPoints, double[] yPoints, int nPoints) {
+        scanFill(xPoints, yPoints, nPoints, fill);
+    }
+
+    @Override
+    public void strokePolygon(double[] xPoints, double[] yPoints, int nPoints) {
+        for (int i = 0; i < nPoints; i++) {
+            int next = (i + 1) % nPoints;
+            strokeLine(xPoints[i], yPoints[i], xPoints[next], yPoints[next]);
+        }
+    }
+
+    /**
+     * Fills an axis aligned rectangle, at least one pixel wide and high.
+     *
+     * @param x      x-coordinate of the upper left corner.
+     * @param y      y-coordinate of the upper left corner.
+     * @param w      width of the rectangle.
+     * @param h      height of the rectangle.
+     * @param colour the ARGB colour.
+     */
+    private void fillSpan(double x, double y, double w, double h, int colour) {
+        if (w <= 0 || h <= 0 || isTransparent(colour)) {
+            return;
+        }
+        int x0 = toPixel(x);
+        int x1 = Math.max(toPixel(x + w), x0 + 1);
+        int y0 = toPixel(y);
+        int y1 = Math.max(toPixel(y + h), y0 + 1);
+        x0 = clampX(x0);
+        x1 = clampX(x1);
+        y0 = clampY(y0);
+        y1 = clampY(y1);
+        for (int row = y0; row < y1; row++) {
+            fillRow(row, x0, x1, colour);
+        }
+    }
+
+    /**
+     * Draws a one pixel wide line with a simple DDA walk. Only the part of the line that
+     * lies in the buffer is walked, so long lines that mostly lie outside it stay cheap.
+     *
+     * @param x1     x-coordinate of the start point.
+     * @param y1     y-coordinate of the start point.
+     * @param x2     x-coordinate of the end point.
+     * @param y2     y-coordinate of the end point.
+     * @param colour the ARGB colour.
+     */
+    private void thinLine(double x1, double y1, double x2, double y2, int colour) {
+        if (isTransparent(colour) || !clip(x1, y1, x2, y2)) {
+            return;
+        }
+        double dx = (x2 - x1) * (clipped[1] - clipped[0]);
+        double dy = (y2 - y1) * (clipped[1] - clipped[0]);
+        double x = x1 + (x2 - x1) * clipped[0];
+        double y = y1 + (y2 - y1) * clipped[0];
+        int steps = (int) Math.ceil(Math.max(Math.abs(dx), Math.abs(dy)));
+        if (steps == 0) {
+            plot((int) Math.floor(x), (int) Math.floor(y), colour);
+            return;
+        }
+        double stepX = dx / steps;
+        double stepY = dy / steps;
+        for (int i = 0; i <= steps; i++) {
+            plot((int) Math.floor(x), (int) Math.floor(y), colour);
+            x += stepX;
+            y += stepY;
+        }
+    }
+
+    /**
+     * Clips a line to the buffer with a pixel to spare on every side (Liang-Barsky).
+     * The part that is left is stored in clipped, as the fractions of the line where
+     * it starts and ends.
+     *
+     * @param x1 x-coordinate of the start point.
+     * @param y1 y-coordinate of the start point.
+     * @param x2 x-coordinate of the end point.
+     * @param y2 y-coordinate of the end point.
+     * @return true if a part of the line lies in the buffer.
+     */
+    private boolean clip(double x1, double y1, double x2, double y2) {
+        clipped[0] = 0;
+        clipped[1] = 1;
+        return clipSide(x1 - x2, x1 + 1) && clipSide(x2 - x1, width + 1 - x1)
+                && clipSide(y1 - y2, y1 + 1) && clipSide(y2 - y1, height + 1 - y1);
+    }
+
+    /**
+     * Clips the line to one side of the buffer: the points at fraction t that are kept
+     * are those with p * t <= q.
+     *
+     * @param p how fast the line moves towards the outside of the side.
+     * @param q how far the start point lies inside the side.
+     * @return true if a part of the line is left.
+     */
+    private boolean clipSide(double p, double q) {
+        if (p == 0) {
+            return q >= 0;
+        }
+        double t = q / p;
+        if (p < 0) {
+            clipped[0] = Math.max(clipped[0], t);
+        } else {
+            clipped[1] = Math.min(clipped[1], t);
+        }
+        return clipped[0] <= clipped[1];
+    }
+
+    /**
+     * Fills a polygon using even-odd scanline filling on the pixel centres.
+     *
+     * @param xPoints the x-coordinates of the points.
+     * @param yPoints the y-coordinates of the points.
+     * @param nPoints the number of points.
+     * @param colour  the ARGB colour.
+     */
+    private void scanFill(double[] xPoints, double[] yPoints, int nPoints, int colour) {
+        if (nPoints < 3 || isTransparent(colour)) {
+            return;
+        }
+        double minY = yPoints[0];
+        double maxY = yPoints[0];
+        for (int i = 1; i < nPoints; i++) {
+            minY = Math.min(minY, yPoints[i]);
+            maxY = Math.max(maxY, yPoints[i]);
+        }
+        int y0 = clampY(toPixel(minY));
+        int y1 = clampY(Math.max(toPixel(maxY), toPixel(minY) + 1));
+        double[] crossings = new double[nPoints];
+        for (int row = y0; row < y1; row++) {
+            double centre = row + HALF_PIXEL;
+            int count = 0;
+            for (int i = 0; i < nPoints; i++) {
+                int j = (i + 1) % nPoints;
+                double ya = yPoints[i];
+                double yb = yPoints[j];
+                if ((ya <= centre && yb > centre) || (yb <= centre && ya > centre)) {
+                    crossings[count++] = xPoints[i]
+                            + (centre - ya) / (yb - ya) * (xPoints[j] - xPoints[i]);
+                }
+            }
+            Arrays.sort(crossings, 0, count);
+            for (int i = 0; i + 1 < count; i += 2) {
+                int x0 = toPixel(crossings[i]);
+                int x1 = Math.max(toPixel(crossings[i + 1]), x0 + 1);
+                fillRow(row, clampX(x0), clampX(x1), colour);
+            }
+        }
+    }
+
+    /**
+     * Fills part of a row of pixels.
+     *
+     * @param row    the row.
+     * @param x0     first pixel, inclusive.
+     * @param x1     last pixel, exclusive.
+     * @param colour the ARGB colour.
+     */
+    private void fillRow(int row, int x0, int x1, int colour) {
+        int offset = row * width;
+        if ((colour >>> ALPHA_SHIFT) == CHANNEL) {
+            Arrays.fill(pixels, offset + x0, offset + x1, colour);
+        } else {
+            for (int i = offset + x0; i < offset + x1; i++) {
+                pixels[i] = blend(pixels[i], colour);
+            }
+        }
+    }
+
+    /**
+     * Sets a single pixel if it lies in the buffer.
+     *
+     * @param x      x-coordinate of the pixel.
+     * @param y      y-coordinate of the pixel.
+     * @param colour the ARGB colour.
+     */
+    private void plot(int x, int y, int colour) {
+        if (x >= 0 && x < width && y >= 0 && y < height) {
+            pixels[y * width + x] = blend(pixels[y * width + x], colour);
+        }
+    }
+
+    /**
+     * Blends a colour over a pixel (source over).
+     *
+     * @param dst the current pixel.
+     * @param src the colour to draw.
+     * @return the blended pixel.
+     */
+    private static int blend(int dst, int src) {
+        int srcAlpha = src >>> ALPHA_SHIFT;
+        if (srcAlpha == CHANNEL) {
+            return src;
+        }
+        int dstAlpha = dst >>> ALPHA_SHIFT;
+        int outAlpha = srcAlpha + dstAlpha * (CHANNEL - srcAlpha) / CHANNEL;
+        if (outAlpha == 0) {
+            return 0;
+        }
+        int red = mix(src >> RED_SHIFT, dst >> RED_SHIFT, srcAlpha, dstAlpha, outAlpha);
+        int green = mix(src >> GREEN_SHIFT, dst >> GREEN_SHIFT, srcAlpha, dstAlpha, outAlpha);
+        int blue = mix(src, dst, srcAlpha, dstAlpha, outAlpha);
+        return (outAlpha << ALPHA_SHIFT) | (red << RED_SHIFT) | (green << GREEN_SHIFT) | blue;
+    }
+
+    /**
+     * Mixes a single colour channel.
+     *
+     * @param src      source channel in the lowest byte.
+     * @param dst      destination channel in the lowest byte.
+     * @param srcAlpha alpha of the source.
+     * @param dstAlpha alpha of the destination.
+     * @param outAlpha alpha of the result.
+     * @return the mixed channel.
+     */
+    private static int mix(int src, int dst, int srcAlpha, int dstAlpha, int outAlpha) {
+        int srcValue = (src & CHANNEL) * srcAlpha;
+        int dstValue = (dst & CHANNEL) * dstAlpha * (CHANNEL - srcAlpha) / CHANNEL;
+        return Math.min((srcValue + dstValue) / outAlpha, CHANNEL);
+    }
+
+    /**
+     * Converts a JavaFX colour to an ARGB int.
+     *
+     * @param colour the colour.
+     * @return the ARGB value.
+     */
+    static int toArgb(Color colour) {
+        if (colour == null) {
+            return 0;
+        }
+        return ((int) Math.round(colour.getOpacity() * CHANNEL) << ALPHA_SHIFT)
+                | ((int) Math.round(colour.getRed() * CHANNEL) << RED_SHIFT)
+                | ((int) Math.round(colour.getGreen() * CHANNEL) << GREEN_SHIFT)
+                | (int) Math.round(colour.getBlue() * CHANNEL);
+    }
+
+    private static boolean isTransparent(int colour) {
+        return (colour >>> ALPHA_SHIFT) == 0;
+    }
+
+    private static int toPixel(double coordinate) {
+        return (int) Math.ceil(coordinate - HALF_PIXEL);
+    }
+
+    private int clampX(int x) {
+        return Math.max(0, Math.min(x, width));
+    }
+
+    private int clampY(int y) {
+        return Math.max(0, Math.min(y, height));
+    }
+}
@@ -0,0 +1,84 @@
+package gui;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Painter that draws directly on the GraphicsContext of a canvas.
+ * Must only be used on the JavaFX application thread.
+ */
+class CanvasPainter implements Painter {
+
+    private final GraphicsContext gc;
+
+    /**
+     * Constructor.
+     *
+     * @param gc The GraphicsContext to draw on.
+     */
+    CanvasPainter(GraphicsContext gc) {
+        this.gc = gc;
+    }
+
+    @Override
+    public double getWidth() {
+        return gc.getCanvas().getWidth();
+    }
+
+    @Override
+    public double getHeight() {
+        return gc.getCanvas().getHeight();
+    }
+
+    @Override
+    public void clearRect(double x, double y, double width, double height) {
+        gc.clearRect(x, y, width, height);
+    }
+
+    @Override
+    public void setFill(Color colour) {
+        gc.setFill(colour);
+    }
+
+    @Override
+    public void setStroke(Color colour) {
+        gc.setStroke(colour);
+    }
+
+    @Override
+    public void setLineWidth(double lineWidth) {
+        gc.setLineWidth(lineWidth);
+    }
+
+    @Override
+    public void fillRect(double x, double y, double width, double height) {
+        gc.fillRect(x, y, width, height);
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double width, double height) {
+        gc.strokeRect(x, y, width, height);
+    }
+
+    @Override
+    public void strokeLine(double x1, double y1, double x2, double y2) {
+        gc.strokeLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void fillPolygon(double[] xPoints, double[] yPoints, int nPoints) {
+        gc.fillPolygon(xPoints, yPoints, nPoints);
+    }
+
+    @Override
+    public void strokePolygon(double[] xPoints, double[] yPoints, int nPoints) {
+        gc.strokePolygon(xPoints, yPoints, nPoints);
+    }
+
+    /**
+     * @return the wrapped GraphicsContext.
+     */
+    GraphicsContext getGraphicsContext() {
+        return gc;
+    }
+}
@@ -0,0 +1,88 @@
+package gui;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Painter that counts the shapes drawn on another painter, for the performance overlay.
+ */
+class CountingPainter implements Painter {
+
+    private final Painter painter;
+    private int drawCalls;
+
+    /**
+     * Constructor.
+     *
+     * @param painter The painter that does the actual drawing.
+     */
+    CountingPainter(Painter painter) {
+        this.painter = painter;
+    }
+
+    /**
+     * @return the number of shapes drawn so far.
+     */
+    int getDrawCalls() {
+        return drawCalls;
+    }
+
+    @Override
+    public double getWidth() {
+        return painter.getWidth();
+    }
+
+    @Override
+    public double getHeight() {
+        return painter.getHeight();
+    }
+
+    @Override
+    public void clearRect(double x, double y, double width, double height) {
+        painter.clearRect(x, y, width, height);
+    }
+
+    @Override
+    public void setFill(Color colour) {
+        painter.setFill(colour);
+    }
+
+    @Override
+    public void setStroke(Color colour) {
+        painter.setStroke(colour);
+    }
+
+    @Override
+    public void setLineWidth(double lineWidth) {
+        painter.setLineWidth(lineWidth);
+    }
+
+    @Override
+    public void fillRect(double x, double y, double width, double height) {
+        drawCalls++;
+        painter.fillRect(x, y, width, height);
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double width, double height) {
+        drawCalls++;
+        painter.strokeRect(x, y, width, height);
+    }
+
+    @Override
+    public void strokeLine(double x1, double y1, double x2, double y2) {
+        drawCalls++;
+        painter.strokeLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void fillPolygon(double[] xPoints, double[] yPoints, int nPoints) {
+        drawCalls++;
+        painter.fillPolygon(xPoints, yPoints, nPoints);
+    }
+
+    @Override
+    public void strokePolygon(double[] xPoints, double[] yPoints, int nPoints) {
+        drawCalls++;
+        painter.strokePolygon(xPoints, yPoints, nPoints);
+    }
+}
@@ -7,6 +7,7 @@ import gui.sub_controllers.ScrollbarController;
 import gui.sub_controllers.RecentGenomeController;
 import javafx.application.Platform;
 import parser.GfaParser;
+import parser.OverviewPyramid;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -23,7 +24,6 @@ public final class DrawableCanvas extends Observable implements Observer {
     private static final int START_NODE_ID = 1000;
 
     private static DrawableCanvas canvas = new DrawableCanvas();
-    private int annotationGenome;
     private int prefGenomeToTraverse;
 
     private GfaParser parser;
@@ -51,12 +51,14 @@ public final class DrawableCanvas extends Observable implements Observer {
                     try {
                         int[] childArray = parser.getChildArray();
                         int[] parentArray = parser.getParentArray();
+                        OverviewPyramid overview = parser.getOverview();
                         Platform.runLater(new Runnable() {
                             public void run() {
                                 SequenceGraph graph = new SequenceGraph(
-                                        parentArray, childArray, getParser().getSequenceHashMap(), getParser().getOffSets(), getParser().getGenomes());
+                                        parentArray, childArray, getParser().getStore());
                                 graph.createSubGraph(START_NODE_ID, PanningController.RENDER_RANGE);
                                 Minimap.getInstance().initialize(graph.getFullGraphRightBoundID());
+                                Minimap.getInstance().setOverview(overview);
                                 GraphDrawer.getInstance().setGraph(graph);
                                 GraphDrawer.getInstance().redraw();
                                 ScrollbarController.getInstance().initialize(graph.getMaxColumnSize());
@@ -98,14 +100,6 @@ public final class DrawableCanvas extends Observable implements Observer {
         return parser.getAllGenomesMapReversed();
     }
 
-    public void setAnnotationGenome(int annotationGenomeArg) {
-        this.annotationGenome = annotationGenomeArg;
-    }
-
-    public int getAnnotationGenome() {
-        return annotationGenome;
-    }
-
     public void setRecentGenomeController(RecentGenomeController sgp) {
         this.recentGenomeController = sgp;
     }
@@ -0,0 +1,135 @@
+package gui;
+
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Renders frames of the GraphDrawer on a worker thread.
+ * <p>
+ * Every frame is drawn from a snapshot of the view that is taken on the JavaFX thread,
+ * so the worker never reads the view while it changes. What the snapshot finds out while
+ * drawing is only handed back to the GraphDrawer when the frame is shown.
+ * Frames are rasterised into one of two off-screen buffers while the other one can still
+ * be shown. A finished frame is copied onto the canvas on the JavaFX thread, unless its buffer
+ * has been drawn into again in the mean time.
+ * Every new request supersedes the frames that are still queued or being drawn,
+ * so fast panning and zooming never waits for frames that will not be shown.
+ */
+final class FrameRenderer {
+
+    private final Canvas canvas;
+    private final BufferPainter[] buffers = new BufferPainter[2];
+    // The generation of the frame every buffer holds, 0 while it is being drawn into.
+    private final int[] bufferFrames = new int[2];
+    private final AtomicInteger generation = new AtomicInteger();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "frame-renderer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int backBuffer;
+    private int presentedGeneration;
+    private WritableImage image;
+
+    /**
+     * Constructor.
+     *
+     * @param canvas The canvas the finished frames are shown on.
+     */
+    FrameRenderer(Canvas canvas) {
+        this.canvas = canvas;
+        buffers[0] = new BufferPainter(1, 1);
+        buffers[1] = new BufferPainter(1, 1);
+    }
+
+    /**
+     * Requests a new frame. Cancels any frame that is still being drawn.
+     * Must be called on the JavaFX thread.
+     *
+     * @param snapshot The drawer of a snapshot of the view, only used for this frame.
+     */
+    void requestFrame(GraphDrawer snapshot) {
+        final int frame = generation.incrementAndGet();
+        final int width = (int) canvas.getWidth();
+        final int height = (int) canvas.getHeight();
+        worker.execute(() -> render(snapshot, frame, width, height));
+    }
+
+    /**
+     * Cancels all outstanding frames.
+     */
+    void cancel() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Draws a frame into the back buffer and hands it to the JavaFX thread.
+     *
+     * @param snapshot the drawer of the snapshot of the view.
+     * @param frame    the generation of this frame.
+     * @param width    the width of the canvas when the frame was requested.
+     * @param height   the height of the canvas when the frame was requested.
+     */
+    private void render(GraphDrawer snapshot, int frame, int width, int height) {
+        BooleanSupplier cancelled = () -> generation.get() != frame;
+        if (cancelled.getAsBoolean()) {
+            return;
+        }
+        final int index = backBuffer;
+        final BufferPainter buffer = buffers[index];
+        synchronized (buffer) {
+            bufferFrames[index] = 0;
+            buffer.resize(width, height);
+            if (!snapshot.drawFrame(buffer, cancelled)) {
+                return;
+            }
+            bufferFrames[index] = frame;
+        }
+        backBuffer = 1 - backBuffer;
+        Platform.runLater(() -> present(snapshot, index, frame));
+    }
+
+    /**
+     * Copies a finished frame onto the canvas, if its buffer still holds it.
+     * Runs on the JavaFX thread.
+     *
+     * @param snapshot the drawer of the snapshot the frame was drawn from.
+     * @param index    the buffer holding the frame.
+     * @param frame    the generation of the frame.
+     */
+    private void present(GraphDrawer snapshot, int index, int frame) {
+        if (frame < presentedGeneration) {
+            return;
+        }
+        BufferPainter buffer = buffers[index];
+        synchronized (buffer) {
+            if (bufferFrames[index] != frame) {
+                return;
+            }
+            int width = (int) buffer.getWidth();
+            int height = (int) buffer.getHeight();
+            if (image == null || (int) image.getWidth() != width
+                    || (int) image.getHeight() != height) {
+                image = new WritableImage(width, height);
+            }
+            image.getPixelWriter().setPixels(0, 0, width, height,
+                    PixelFormat.getIntArgbInstance(), buffer.getPixels(), 0, width);
+        }
+        presentedGeneration = frame;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        gc.drawImage(image, 0, 0);
+        GraphDrawer drawer = GraphDrawer.getInstance();
+        drawer.showFrame(snapshot);
+        drawer.drawOverlays(gc);
+    }
+}
@@ -0,0 +1,213 @@
+package gui;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Coalesces zoom, pan and hover input into at most one redraw per frame.
+ * <p>
+ * Input events only update the target zoom level and x-offset. An AnimationTimer
+ * moves the GraphDrawer to that target once per pulse, either directly or, when smooth
+ * zooming is on, a fraction of the way each frame. Changes that only need the same view
+ * drawn again, like hovering over another node, request a redraw for the next pulse.
+ */
+public final class FrameScheduler {
+
+    private static final FrameScheduler SCHEDULER = new FrameScheduler();
+
+    /**
+     * The fraction of the remaining distance covered per frame when smoothing.
+     */
+    private static final double SMOOTHING = 0.35;
+
+    /**
+     * Below this relative difference the target is considered reached.
+     */
+    private static final double SNAP_THRESHOLD = 0.002;
+
+    private MenuController menuController;
+    private AnimationTimer timer;
+    private boolean pending;
+    private boolean redrawRequested;
+    private boolean smooth;
+    private boolean zoomChanged;
+    private double targetZoomLevel;
+    private double targetxDifference;
+    private Runnable afterFrame;
+
+    private FrameScheduler() {
+    }
+
+    /**
+     * Getter for the singleton FrameScheduler.
+     *
+     * @return the FrameScheduler.
+     */
+    public static FrameScheduler getInstance() {
+        return SCHEDULER;
+    }
+
+    /**
+     * Starts the timer that performs the scheduled redraws.
+     * Must be called on the JavaFX thread.
+     */
+    void start() {
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    onPulse();
+                }
+            };
+        }
+        timer.start();
+    }
+
+    /**
+     * Zooms in or out around a column.
+     *
+     * @param factor The factor to multiply the zoom level with.
+     * @param column The column that should stay in place.
+     */
+    public void zoom(double factor, int column) {
+        GraphDrawer drawer = GraphDrawer.getInstance();
+        syncTarget();
+        double newZoomLevel = drawer.clampZoomLevel(targetZoomLevel * factor);
+        double ratio = newZoomLevel / targetZoomLevel;
+        targetxDifference = drawer.clampxDifference(
+                column - ((column - targetxDifference) * ratio), newZoomLevel);
+        targetZoomLevel = newZoomLevel;
+        zoomChanged = true;
+    }
+
+    /**
+     * Pans to a new x-offset.
+     *
+     * @param xDifference The x-offset to move to.
+     */
+    public void moveTo(double xDifference) {
+        syncTarget();
+        targetxDifference = GraphDrawer.getInstance().clampxDifference(
+                xDifference, targetZoomLevel);
+    }
+
+    /**
+     * Shifts the target when the graph has been replaced by one with other column positions.
+     *
+     * @param delta The difference between the new and old x-offset.
+     */
+    public void translate(double delta) {
+        if (pending) {
+            targetxDifference += delta;
+        }
+    }
+
+    /**
+     * Redraws the current view at the next pulse. Several requests in one pulse
+     * give a single redraw.
+     */
+    public void requestRedraw() {
+        redrawRequested = true;
+    }
+
+    /**
+     * Drops any zoom or pan that has not been drawn yet.
+     */
+    public void cancel() {
+        pending = false;
+        zoomChanged = false;
+    }
+
+    /**
+     * Runs an action after the next scheduled frame. Only the latest action is kept.
+     *
+     * @param action The action to run.
+     */
+    void runAfterFrame(Runnable action) {
+        this.afterFrame = action;
+    }
+
+    /**
+     * @return the x-offset the view is moving to.
+     */
+    public double getTargetxDifference() {
+        return pending ? targetxDifference : GraphDrawer.getInstance().getxDifference();
+    }
+
+    /**
+     * @return the zoom level the view is moving to.
+     */
+    public double getTargetZoomLevel() {
+        return pending ? targetZoomLevel : GraphDrawer.getInstance().getZoomLevel();
+    }
+
+    /**
+     * Starts from the currently drawn state if nothing is pending yet.
+     */
+    private void syncTarget() {
+        if (!pending) {
+            targetZoomLevel = GraphDrawer.getInstance().getZoomLevel();
+            targetxDifference = GraphDrawer.getInstance().getxDifference();
+            pending = true;
+        }
+    }
+
+    /**
+     * Performs at most one redraw, called once per pulse.
+     */
+    private void onPulse() {
+        if (!pending) {
+            if (redrawRequested) {
+                redrawRequested = false;
+                GraphDrawer.getInstance().redraw();
+            }
+            return;
+        }
+        redrawRequested = false;
+        GraphDrawer drawer = GraphDrawer.getInstance();
+        targetZoomLevel = drawer.clampZoomLevel(targetZoomLevel);
+        targetxDifference = drawer.clampxDifference(targetxDifference, targetZoomLevel);
+        double zoomLevel = targetZoomLevel;
+        double xDifference = targetxDifference;
+        if (smooth) {
+            zoomLevel = drawer.getZoomLevel()
+                    * Math.pow(targetZoomLevel / drawer.getZoomLevel(), SMOOTHING);
+            xDifference = drawer.getxDifference()
+                    + (targetxDifference - drawer.getxDifference()) * SMOOTHING;
+            if (isClose(zoomLevel, targetZoomLevel) && isClose(xDifference, targetxDifference)) {
+                zoomLevel = targetZoomLevel;
+                xDifference = targetxDifference;
+            }
+        }
+        pending = zoomLevel != targetZoomLevel || xDifference != targetxDifference;
+        drawer.setZoomLevel(zoomLevel);
+        drawer.moveShapes(xDifference);
+        if (zoomChanged && menuController != null) {
+            menuController.updateRadius();
+        }
+        zoomChanged = pending && zoomChanged;
+        if (afterFrame != null && !pending) {
+            Runnable action = afterFrame;
+            afterFrame = null;
+            action.run();
+        }
+    }
+
+    /**
+     * Checks if a value is close enough to its target to stop animating.
+     *
+     * @param value  the current value.
+     * @param target the target value.
+     * @return True if the difference is negligible.
+     */
+    private boolean isClose(double value, double target) {
+        return Math.abs(value - target) <= SNAP_THRESHOLD * Math.max(Math.abs(target), 1);
+    }
+
+    void setSmooth(boolean smooth) {
+        this.smooth = smooth;
+    }
+
+    void setMenuController(MenuController menuController) {
+        this.menuController = menuController;
+    }
+}
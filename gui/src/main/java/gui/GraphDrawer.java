@@ -1,5 +1,6 @@
 package gui;
 
+import graph.GenomeCoordinateIndex;
 import graph.SequenceGraph;
 import graph.SequenceNode;
 import gui.sub_controllers.AnnotationPopUpController;
@@ -9,15 +10,23 @@ import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
-import org.mapdb.BTreeMap;
+import perf.FlightEvents;
+import perf.PerformanceMonitor;
+import perf.Phase;
 import structures.Annotation;
+import structures.AnnotationIndex;
+import structures.AnnotationSet;
+import structures.Selection;
 
 import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
+import java.util.function.BooleanSupplier;
 
 /**
  * Created by Jasper van Tilburg on 8-5-2017.
@@ -36,42 +45,65 @@ public class GraphDrawer {
     private static final double SNP_SIZE = 10;
     private static final double MIN_HEIGHT = 5;
     private static final int LINE_WIDTH = 5;
+    private static final int HOVER_LINE_WIDTH = 2;
     private static final int X_INDEX = 0;
     private static final int Y_INDEX = 1;
     private static final int WIDTH_INDEX = 2;
     private static final int HEIGHT_INDEX = 3;
     private static final int COORDINATES = 4;
     private static final int POLYGON_POINTS = 3;
-    //MUST BE THE SAME AS IN GFF PARSER
-    private static final int BUCKET_SIZE = 20000;
+    // Annotations starting this many base pairs apart get the same colour.
+    private static final int ANNOTATION_COLOUR_PERIOD = 20000;
+    private static final double LOD_PIXELS_PER_COLUMN = 2;
+    private static final double LOD_MARK_HEIGHT = 6;
+    private static final double LOD_LIGHTEST = 0.8;
+    private static final double LOD_DARKEST = 0.2;
+    private static final BooleanSupplier NOT_CANCELLED = () -> false;
 
     private MenuController menuController;
     private ColourController colourController;
     private Canvas canvas;
-    private GraphicsContext gc;
+    private Painter gc;
+    private CanvasPainter canvasPainter;
+    private FrameRenderer frameRenderer;
+    private boolean backgroundRendering;
+    private boolean offscreen;
+    private boolean performanceOverlay;
+    private int drawnNodes;
+    private int drawnEdges;
+    private volatile BooleanSupplier frameCancelled = NOT_CANCELLED;
     private SequenceGraph graph;
     private int highlightedNode;
     private Annotation highlightedAnno;
-    private int[] selected = null;
+    private int hoveredNode;
+    private int hoveredAnno = -1;
+    private Selection selected = null;
     private double zoomLevel;
     private double range;
     private double xDifference;
     private double yDifference;
     private double stepSize;
     private double[] columnWidths;
+    private int[] columnNodes;
+    private int[] columnSNPs;
+    private int[] columnBubbles;
+    private long[] columnGenomes;
+    private volatile boolean shownLevelOfDetail;
     private boolean rainbowView = true;
     private SequenceNode mostLeftNode;
     private SequenceNode mostRightNode;
     private ArrayList<ArrayList<SequenceNode>> columns;
     private HashMap<Integer, double[]> coordinates;
-    private HashMap<Integer, ArrayList<double[]>> annotationCoordinates;
-    private HashMap<Integer, TreeSet<Annotation>> allAnnotations
-            = new HashMap<>();
+    private SpatialIndex frameIndex;
+    private volatile HashMap<Integer, double[]> shownCoordinates;
+    private volatile SpatialIndex shownIndex;
+    private volatile List<AnnotationSet> annotationSets = Collections.emptyList();
+    private String activeAnnotations;
+    private volatile AnnotationProjection annotationProjection;
+    private int projectionVersion;
 
 
-    private BTreeMap<Integer, int[]> alleOffsets;
-    private BTreeMap<Integer, int[]> alleGenomen;
-    private BTreeMap<Long, String> sequenceMap;
+    private GenomeCoordinateIndex coordinateIndex;
 
     /**
      * Getter for the singleton GraphDrawer.
@@ -83,11 +115,11 @@ public class GraphDrawer {
     }
 
     /**
-     * Initializes the coordinates hashMap.
+     * Initializes the coordinates hashMap and the spatial index of the frame.
      */
     private void setEmptyCoordinates() {
         this.coordinates = new HashMap<>();
-        this.annotationCoordinates = new HashMap<>();
+        this.frameIndex = new SpatialIndex(gc.getWidth(), gc.getHeight());
     }
 
     /**
@@ -98,15 +130,18 @@ public class GraphDrawer {
     public void setGraph(SequenceGraph graph) {
         this.graph = graph;
         columns = graph.getColumns();
+        long start = startTiming();
         columnWidths = new double[columns.size() + 1];
         initializeColumnWidths();
         initializeDummyWidths();
+        initializeColumnDensities();
+        PerformanceMonitor.getInstance().stop(Phase.COLUMN_WIDTHS, start);
         range = columnWidths[columns.size()];
         if (zoomLevel == 0) {
             setZoomLevel(columnWidths[columns.size()]);
         }
         if (selected == null) {
-            selected = new int[0];
+            selected = new Selection(0);
         }
         if (mostRightNode == null) {
             mostRightNode = graph.getNode(graph.getRightBoundID());
@@ -117,9 +152,8 @@ public class GraphDrawer {
         colourController = new ColourController(selected, rainbowView);
         highlightedNode = 0;
         highlightedAnno = null;
-        this.alleOffsets = graph.getOffSetsMap();
-        this.alleGenomen = graph.getGenomesMap();
-        this.sequenceMap = graph.getSequenceHashMap();
+        resetAnnotationProjection();
+        this.coordinateIndex = new GenomeCoordinateIndex(graph.getStore());
     }
 
     /**
@@ -129,7 +163,9 @@ public class GraphDrawer {
      */
     void setCanvas(Canvas canvas) {
         this.canvas = canvas;
-        this.gc = canvas.getGraphicsContext2D();
+        this.canvasPainter = new CanvasPainter(canvas.getGraphicsContext2D());
+        this.gc = canvasPainter;
+        this.frameRenderer = new FrameRenderer(canvas);
     }
 
     /**
@@ -159,13 +195,157 @@ public class GraphDrawer {
      * @param xDifference Variable to determine which column should be in the centre.
      */
     public void moveShapes(double xDifference) {
-        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
         this.stepSize = (canvas.getWidth() / zoomLevel);
         setxDifference(xDifference);
-        colourController.setSelectedGenomes(selected);
-        colourController.setRainbowView(rainbowView);
+        if (backgroundRendering) {
+            frameRenderer.requestFrame(snapshot());
+            return;
+        }
+        frameRenderer.cancel();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        drawNodes();
+        drawOverlays(canvasPainter.getGraphicsContext());
+    }
+
+    /**
+     * Copies everything that is needed to draw the current view into a new drawer,
+     * so the FrameRenderer can draw a frame while the view keeps changing.
+     * Must be called on the JavaFX thread.
+     *
+     * @return The drawer of one frame.
+     */
+    private GraphDrawer snapshot() {
+        GraphDrawer frame = new GraphDrawer();
+        frame.graph = graph;
+        frame.columns = columns;
+        frame.columnWidths = columnWidths;
+        frame.columnNodes = columnNodes;
+        frame.columnSNPs = columnSNPs;
+        frame.columnBubbles = columnBubbles;
+        frame.columnGenomes = columnGenomes;
+        frame.range = range;
+        frame.zoomLevel = zoomLevel;
+        frame.xDifference = this.xDifference;
+        frame.yDifference = yDifference;
+        frame.stepSize = stepSize;
+        frame.selected = selected;
+        frame.rainbowView = rainbowView;
+        frame.colourController = colourController;
+        frame.hoveredNode = hoveredNode;
+        frame.hoveredAnno = hoveredAnno;
+        frame.mostLeftNode = mostLeftNode;
+        frame.mostRightNode = mostRightNode;
+        frame.annotationSets = annotationSets;
+        frame.annotationProjection = annotationProjection;
+        frame.projectionVersion = projectionVersion;
+        return frame;
+    }
+
+    /**
+     * Draws the frame of a snapshot on an off-screen painter.
+     * Used by the FrameRenderer on its worker thread.
+     *
+     * @param painter   The painter to draw the frame on.
+     * @param cancelled Tells if the frame has been superseded by a newer one.
+     * @return True if the frame was completely drawn, false if it was cancelled.
+     */
+    boolean drawFrame(Painter painter, BooleanSupplier cancelled) {
+        gc = painter;
+        frameCancelled = cancelled;
+        gc.clearRect(0, 0, painter.getWidth(), painter.getHeight());
+        drawNodes();
+        return !cancelled.getAsBoolean();
+    }
+
+    /**
+     * Takes over what a snapshot found out while drawing its frame, once the frame is shown:
+     * the positions of the shapes, the nodes at the sides of the view and the projection
+     * of the annotations, unless the annotations changed since the snapshot was taken.
+     * Must be called on the JavaFX thread.
+     *
+     * @param frame The drawer of the frame that is shown.
+     */
+    void showFrame(GraphDrawer frame) {
+        shownCoordinates = frame.shownCoordinates;
+        shownIndex = frame.shownIndex;
+        shownLevelOfDetail = frame.shownLevelOfDetail;
+        if (frame.graph == graph) {
+            mostLeftNode = frame.mostLeftNode;
+            mostRightNode = frame.mostRightNode;
+        }
+        if (frame.projectionVersion == projectionVersion && frame.graph == graph
+                && frame.annotationSets == annotationSets) {
+            annotationProjection = frame.annotationProjection;
+        }
+    }
+
+    /**
+     * Creates a drawer for drawing another graph off-screen, for instance to export it.
+     * It uses the same genome selection, colours and annotations as this drawer.
+     * The graph to draw is given with setGraph, which may be done on another thread.
+     *
+     * @return The new drawer.
+     */
+    GraphDrawer createOffscreen() {
+        GraphDrawer offscreen = new GraphDrawer();
+        offscreen.offscreen = true;
+        offscreen.selected = selected;
+        offscreen.rainbowView = rainbowView;
+        offscreen.annotationSets = annotationSets;
+        return offscreen;
+    }
+
+    /**
+     * Draws a part of the graph on an off-screen painter, without changing what is on screen.
+     *
+     * @param painter     The painter to draw on.
+     * @param xDifference The column width at the left side of the painter.
+     * @param yDifference The vertical offset in pixels.
+     * @param stepSize    The number of pixels per unit of column width.
+     */
+    void drawTile(Painter painter, double xDifference, double yDifference, double stepSize) {
+        gc = painter;
+        this.xDifference = xDifference;
+        this.yDifference = yDifference;
+        this.stepSize = stepSize;
+        gc.clearRect(0, 0, painter.getWidth(), painter.getHeight());
         drawNodes();
-        drawMinimap();
+    }
+
+    /**
+     * @return The height in pixels needed to draw every row of the graph and its annotations.
+     */
+    double getExportHeight() {
+        return (graph.getMaxColumnSize() + 2) * RELATIVE_Y_DISTANCE;
+    }
+
+    /**
+     * @return The yDifference that puts the first row of the graph at the top of an export.
+     */
+    double getExportyDifference() {
+        return Y_BASE - RELATIVE_Y_DISTANCE;
+    }
+
+    /**
+     * Draws everything that is drawn on top of the graph, directly on the canvas.
+     *
+     * @param canvasGc The GraphicsContext of the canvas.
+     */
+    void drawOverlays(GraphicsContext canvasGc) {
+        drawMinimap(canvasGc);
+        if (performanceOverlay) {
+            PerformanceOverlay.draw(canvasGc);
+        }
+    }
+
+    /**
+     * Starts timing a phase. Drawers that draw off-screen, for instance for an export,
+     * are not timed, so they do not disturb the timings of what is on screen.
+     *
+     * @return the start time, or 0 if this drawer is not timed.
+     */
+    private long startTiming() {
+        return offscreen ? 0 : PerformanceMonitor.getInstance().start();
     }
 
     /**
@@ -260,7 +440,7 @@ public class GraphDrawer {
      */
     private boolean inView(double[] coordinates) {
         return ((coordinates[X_INDEX] + coordinates[WIDTH_INDEX]) > 0)
-                && (coordinates[X_INDEX] < canvas.getWidth());
+                && (coordinates[X_INDEX] < gc.getWidth());
     }
 
     /**
@@ -317,69 +497,258 @@ public class GraphDrawer {
     }
 
     /**
-     * Gives all nodes the right coordinates on the canvas and draws them.
+     * Draws a frame. The timings, the number of nodes and edges drawn and the number
+     * of shapes drawn are recorded with the PerformanceMonitor and as a Flight Recorder event,
+     * but only while one of them is enabled.
      */
     private void drawNodes() {
+        PerformanceMonitor monitor = PerformanceMonitor.getInstance();
+        if (offscreen || !monitor.isEnabled() && !FlightEvents.isFrameRecorded()) {
+            layoutNodes();
+            return;
+        }
+        long start = System.nanoTime();
+        Painter painter = gc;
+        CountingPainter counter = new CountingPainter(painter);
+        gc = counter;
+        drawnNodes = 0;
+        drawnEdges = 0;
+        try {
+            layoutNodes();
+        } finally {
+            gc = painter;
+        }
+        if (frameCancelled.getAsBoolean()) {
+            monitor.discardFrame();
+            return;
+        }
+        long frameTime = System.nanoTime() - start;
+        monitor.record(Phase.FRAME, frameTime);
+        monitor.endFrame(drawnNodes, drawnEdges, counter.getDrawCalls());
+        FlightEvents.frame(frameTime, zoomLevel, drawnNodes, drawnEdges, counter.getDrawCalls(),
+                shownLevelOfDetail, painter != canvasPainter);
+    }
+
+    /**
+     * Gives all nodes the right coordinates on the canvas and draws them.
+     * When zoomed out too far the columns are drawn as density bars instead.
+     */
+    private void layoutNodes() {
         setEmptyCoordinates();
         gc.setStroke(Color.BLACK);
-        for (Object o : graph.getNodes().entrySet()) {
-            Map.Entry pair = (Map.Entry) o;
-            SequenceNode node = (SequenceNode) pair.getValue();
-            computeCoordinates(node);
-            if (!node.isCollapsed()) {
-                drawNode(node);
-                drawEdges(node);
-            } else if (node.getIndex() == 0) {
-                SequenceNode neighbour = findSNPNeighbour(node);
-                if (neighbour != null) {
-                    drawSNPBubble(node, neighbour);
+        boolean levelOfDetail = isLevelOfDetail();
+        if (levelOfDetail) {
+            long start = startTiming();
+            drawDensity();
+            PerformanceMonitor.getInstance().accumulate(Phase.DRAW_NODES, start);
+        } else {
+            drawAllNodes();
+        }
+        if (frameCancelled.getAsBoolean()) {
+            return;
+        }
+        frameIndex.build();
+        shownCoordinates = coordinates;
+        shownIndex = frameIndex;
+        shownLevelOfDetail = levelOfDetail;
+    }
+
+    /**
+     * Draws every node, edge and SNP bubble in view. Only the columns in view are visited,
+     * and the column left of them, because edges span one column and can enter the view.
+     * So drawing a small part of a large graph, like a tile of an export, stays cheap.
+     */
+    private void drawAllNodes() {
+        int first = Math.max(columnAt(xDifference) - 1, 0);
+        int last = Math.min(columnAt(xDifference + gc.getWidth() / stepSize), columns.size() - 1);
+        for (int column = first; column <= last; column++) {
+            for (SequenceNode node : columns.get(column)) {
+                if (frameCancelled.getAsBoolean()) {
+                    return;
                 }
+                drawAllOf(node);
             }
         }
     }
 
     /**
-     * Gets all relevant buckets of the node.
+     * Draws a node with its edges, or the SNP bubble it is the upper node of.
      *
-     * @param node            the node in which we're searching for annotations.
-     * @param annotatedGenome the place of the genome that is annotated
-     * @return The hashSet of all possible annotations in the node.
+     * @param node The node.
      */
-    private TreeSet<Annotation> getAnnotationBuckets(SequenceNode node, int annotatedGenome) {
-        TreeSet<Annotation> annotationHashSet = new TreeSet<>();
-        if (annotatedGenome == -1) {
-            return annotationHashSet;
+    private void drawAllOf(SequenceNode node) {
+        computeCoordinates(node);
+        if (!node.isCollapsed()) {
+            drawNode(node);
+            long start = startTiming();
+            drawEdges(node);
+            PerformanceMonitor.getInstance().accumulate(Phase.DRAW_EDGES, start);
+        } else if (node.getIndex() == 0) {
+            SequenceNode neighbour = findSNPNeighbour(node);
+            if (neighbour != null) {
+                long start = startTiming();
+                drawSNPBubble(node, neighbour);
+                PerformanceMonitor.getInstance().accumulate(Phase.DRAW_NODES, start);
+            }
         }
+    }
 
-        int startBucketId;
-        int endBucketId;
-        if (node != null && node.getOffsets() != null) {
-            startBucketId = (node.getOffsets()[annotatedGenome] / BUCKET_SIZE);
-            endBucketId = ((node.getOffsets()[annotatedGenome]
-                    + node.getSequenceLength()) / BUCKET_SIZE);
-        } else {
-            startBucketId = 0;
-            endBucketId = allAnnotations.size();
+    /**
+     * Counts the nodes, SNP bubbles, other bubbles and genomes of every column.
+     * They are stored as prefix sums so any range of columns can be summarised at once.
+     */
+    private void initializeColumnDensities() {
+        columnNodes = new int[columns.size() + 1];
+        columnSNPs = new int[columns.size() + 1];
+        columnBubbles = new int[columns.size() + 1];
+        columnGenomes = new long[columns.size() + 1];
+        for (int j = 0; j < columns.size(); j++) {
+            int nodes = 0;
+            int snp = 0;
+            long genomes = 0;
+            for (SequenceNode node : columns.get(j)) {
+                if (!node.isDummy()) {
+                    nodes++;
+                    genomes += node.getGenomes() == null ? 0 : node.getGenomes().length;
+                    snp = node.isSNP() ? 1 : snp;
+                }
+            }
+            columnNodes[j + 1] = columnNodes[j] + nodes;
+            columnSNPs[j + 1] = columnSNPs[j] + snp;
+            columnBubbles[j + 1] = columnBubbles[j] + (nodes > 1 && snp == 0 ? 1 : 0);
+            columnGenomes[j + 1] = columnGenomes[j] + genomes;
+        }
+    }
+
+    /**
+     * Check if there are too many columns on the screen to draw them individually.
+     *
+     * @return True if the columns should be drawn as density bars.
+     */
+    private boolean isLevelOfDetail() {
+        int columnsInView = columnAt(xDifference + gc.getWidth() / stepSize)
+                - columnAt(xDifference);
+        return columnsInView * LOD_PIXELS_PER_COLUMN > gc.getWidth();
+    }
+
+    /**
+     * Find the column that contains an x position in column width units.
+     *
+     * @param x The position.
+     * @return The column, between 0 and the number of columns.
+     */
+    private int columnAt(double x) {
+        int column = Arrays.binarySearch(columnWidths, x);
+        if (column < 0) {
+            column = -column - 2;
+        }
+        return Math.max(0, Math.min(column, columns.size()));
+    }
+
+    /**
+     * Draws the graph zoomed out, with one density bar per pixel instead of individual nodes.
+     * The height of a bar shows the number of nodes per column, the darkness shows how much
+     * the genomes are divided over those nodes. Marks above the bars show SNP bubbles
+     * and other bubbles. Only costs time proportional to the width of the screen.
+     */
+    private void drawDensity() {
+        int width = (int) Math.ceil(gc.getWidth());
+        int from = columnAt(xDifference);
+        for (int pixel = 0; pixel < width && !frameCancelled.getAsBoolean(); pixel++) {
+            int to = Math.max(columnAt(xDifference + (pixel + 1) / stepSize), from + 1);
+            if (from < columns.size()) {
+                drawDensityBar(pixel, from, Math.min(to, columns.size()));
+            }
+            from = to;
         }
+        mostLeftNode = firstNodeOfColumn(columnAt(xDifference), mostLeftNode);
+        mostRightNode = firstNodeOfColumn(Math.min(columnAt(xDifference + width / stepSize),
+                columns.size() - 1), mostRightNode);
+    }
 
-        for (int i = startBucketId; i <= endBucketId; i++) {
-            TreeSet<Annotation> tempAnnotations = allAnnotations.get(i);
-            if (tempAnnotations != null) {
-                annotationHashSet.addAll(tempAnnotations);
+    /**
+     * Draws the summary of a range of columns.
+     *
+     * @param pixel The x coordinate of the bar.
+     * @param from  The first column, inclusive.
+     * @param to    The last column, exclusive.
+     */
+    private void drawDensityBar(int pixel, int from, int to) {
+        int count = to - from;
+        int nodes = columnNodes[to] - columnNodes[from];
+        if (nodes == 0) {
+            return;
+        }
+        double genomesPerNode = (columnGenomes[to] - columnGenomes[from]) / (double) nodes;
+        int allGenomes = Math.max(DrawableCanvas.getInstance().getAllGenomes().size(), 1);
+        double diversity = 1 - Math.min(genomesPerNode / allGenomes, 1);
+        double rowHeight = RELATIVE_Y_DISTANCE / 2;
+        double top = Y_BASE - yDifference - rowHeight / 2;
+        double height = rowHeight + ((double) nodes / count - 1) * RELATIVE_Y_DISTANCE;
+        gc.setFill(Color.gray(LOD_LIGHTEST - (LOD_LIGHTEST - LOD_DARKEST) * diversity));
+        gc.fillRect(pixel, top, 1, height);
+
+        double snpFraction = (columnSNPs[to] - columnSNPs[from]) / (double) count;
+        double bubbleFraction = (columnBubbles[to] - columnBubbles[from]) / (double) count;
+        if (snpFraction > 0) {
+            gc.setFill(Color.ORANGE);
+            gc.fillRect(pixel, top - LOD_MARK_HEIGHT, 1, LOD_MARK_HEIGHT * snpFraction);
+        }
+        if (bubbleFraction > 0) {
+            gc.setFill(Color.CRIMSON);
+            gc.fillRect(pixel, top - 2 * LOD_MARK_HEIGHT, 1, LOD_MARK_HEIGHT * bubbleFraction);
+        }
+    }
+
+    /**
+     * Find the first node of a column that is not a dummy.
+     *
+     * @param column   The column.
+     * @param fallback Returned if the column only has dummy nodes.
+     * @return The first node of the column.
+     */
+    private SequenceNode firstNodeOfColumn(int column, SequenceNode fallback) {
+        if (column >= 0 && column < columns.size()) {
+            for (SequenceNode node : columns.get(column)) {
+                if (!node.isDummy()) {
+                    return node;
+                }
             }
         }
-        return annotationHashSet;
+        return fallback;
+    }
+
+    /**
+     * Gets the annotations that hit the node: those that start at or before the end
+     * of the node and end after its start.
+     *
+     * @param node            the node in which we're searching for annotations.
+     * @param annotatedGenome the place of the genome that is annotated
+     * @param annotations     the annotations of the genome.
+     * @return The annotations in the node, sorted by start.
+     */
+    private List<Annotation> getNodeAnnotations(SequenceNode node, int annotatedGenome,
+                                                AnnotationIndex annotations) {
+        if (annotatedGenome < 0) {
+            return new ArrayList<>();
+        }
+        int startCorNode = node.getOffsets()[annotatedGenome];
+        int endCorNode = startCorNode + node.getSequenceLength();
+        return annotations.query(startCorNode, endCorNode + 1);
     }
 
     /**
      * Gets the position of the offSets relative to annotation.
      *
-     * @param node The node which we are finding he position on.
+     * @param node             The node which we are finding he position on.
+     * @param annotationGenome The genome that is annotated.
      * @return the position in offSets.
      */
-    private int getAnnotatedGenomeIndex(SequenceNode node) {
-        int indexOfGenome = colourController.containsPos(node.getGenomes(),
-                DrawableCanvas.getInstance().getAnnotationGenome());
+    private int getAnnotatedGenomeIndex(SequenceNode node, int annotationGenome) {
+        if (annotationGenome < 0) {
+            return -1;
+        }
+        int indexOfGenome = colourController.containsPos(node.getGenomes(), annotationGenome);
         if (indexOfGenome < 0) {
             return indexOfGenome;
         }
@@ -392,17 +761,59 @@ public class GraphDrawer {
     }
 
     /**
-     * Checks if this annotation hits a node.
+     * Gets the projection of the annotations on the current graph.
+     * It is recomputed when the graph or the annotation sets changed.
+     *
+     * @return The annotation projection.
+     */
+    private AnnotationProjection getAnnotationProjection() {
+        AnnotationProjection projection = annotationProjection;
+        List<AnnotationSet> sets = annotationSets;
+        if (projection == null || projection.getAnnotationSets() != sets) {
+            projection = new AnnotationProjection(sets);
+            for (SequenceNode node : graph.getNodes().values()) {
+                if (!node.isDummy() && node.getOffsets() != null) {
+                    projection.startNode(node.getId());
+                    for (int set = 0; set < sets.size(); set++) {
+                        projectAnnotations(projection, node, set);
+                    }
+                }
+            }
+            projection.finish();
+            annotationProjection = projection;
+        }
+        return projection;
+    }
+
+    /**
+     * Projects the selected annotations of a set that hit a node onto the node,
+     * each in the lane the annotation index gave it.
+     * The node is found in the annotations through the offset of the genome of the set.
      *
-     * @param startXAnnotation The xStart of the annotation
-     * @param endXAnnotation   The xEnd of the annotation
-     * @param startXNode       The xStart of the of the node
-     * @param endXNode         The xEnd of the node
-     * @return a boolean true if it hits. Else false.
+     * @param projection The projection to add the annotations to.
+     * @param node       Node to project the annotations on.
+     * @param set        The position of the annotation set in the projected sets.
      */
-    private boolean isMyAnnnotation(int startXAnnotation, int endXAnnotation,
-                                    int startXNode, int endXNode) {
-        return !(startXAnnotation > endXNode || endXAnnotation <= startXNode);
+    private void projectAnnotations(AnnotationProjection projection, SequenceNode node,
+                                    int set) {
+        AnnotationSet annotationSet = projection.getAnnotationSets().get(set);
+        AnnotationIndex annotations = annotationSet.getAnnotations();
+        int annotatedGenome = getAnnotatedGenomeIndex(node, annotationSet.getGenome());
+        double length = node.getSequenceLength();
+
+        for (Annotation annotation : getNodeAnnotations(node, annotatedGenome, annotations)) {
+            int startOfAnno = annotation.getStart();
+            int endOfAnno = annotation.getEnd();
+            int startCorNode = node.getOffsets()[annotatedGenome];
+            int endCorNode = startCorNode + node.getSequenceLength();
+            if (!annotation.isSelected()) {
+                continue;
+            }
+            double startFraction = Math.max(startOfAnno - startCorNode, 0) / length;
+            double endFraction = 1 - Math.max(endCorNode - endOfAnno, 0) / length;
+            projection.add(set, annotation.getId(), startOfAnno, startFraction, endFraction,
+                    annotations.getLane(annotation.getId()));
+        }
     }
 
     /**
@@ -412,72 +823,35 @@ public class GraphDrawer {
      * @param coordinates Coordinates of the node
      */
     private void drawAnnotations(SequenceNode node, double[] coordinates) {
-        int annotatedGenome = getAnnotatedGenomeIndex(node);
-        TreeSet<Annotation> annotations = getAnnotationBuckets(node, annotatedGenome);
-        HashMap<Integer, Integer> drawnLayers = new HashMap<>();
-
-        for (Annotation annotation : annotations) {
-            if (annotation.getSelected().getValue()) {
-                double startXAnno = coordinates[X_INDEX];
-                double annoWidth = coordinates[WIDTH_INDEX];
-                int startOfAnno = annotation.getStart();
-                int endOfAnno = annotation.getEnd();
-                int startCorNode = node.getOffsets()[annotatedGenome];
-                int endCorNode = startCorNode + node.getSequenceLength();
-
-                if (!isMyAnnnotation(startOfAnno, endOfAnno, startCorNode, endCorNode)) {
-                    continue;
-                }
-
-                double emptyAtStart = 0.0;
-                if (startOfAnno > startCorNode) {
-                    emptyAtStart = startOfAnno - startCorNode;
-                    annoWidth = (annoWidth * (1 - (emptyAtStart / node.getSequenceLength())));
-                    startXAnno = startXAnno + (coordinates[WIDTH_INDEX] - annoWidth);
-                }
-                if (endOfAnno < endCorNode) {
-                    int emptyAtEnd = endCorNode - endOfAnno;
-                    annoWidth = (annoWidth
-                            * (1 - (emptyAtEnd / (node.getSequenceLength() - emptyAtStart))));
-                }
-
-                double annoHeight = coordinates[HEIGHT_INDEX] / 2;
-                double startYAnno = coordinates[Y_INDEX] + coordinates[HEIGHT_INDEX] - annoHeight + 1;
-
-                for (int i = 1; i <= drawnLayers.size() + 1; i++) {
-                    Integer filled = drawnLayers.get(i);
-                    if (filled == null) {
-                        drawnLayers.put(i, endOfAnno);
-                        startYAnno = startYAnno + ((annoHeight + 1) * i);
-                        break;
-                    } else if (filled < startOfAnno) {
-                        startYAnno = startYAnno + ((annoHeight + 1) * i);
-                        drawnLayers.put(i, endOfAnno);
-                        break;
-                    }
-                }
-                gc.setFill(colourController.getAnnotationColor(startOfAnno, BUCKET_SIZE));
-
-                double[] annoCoordinates = new double[COORDINATES];
-                annoCoordinates[X_INDEX] = startXAnno;
-                annoCoordinates[Y_INDEX] = startYAnno;
-                annoCoordinates[WIDTH_INDEX] = startXAnno + annoWidth;
-                annoCoordinates[HEIGHT_INDEX] = startYAnno + annoHeight;
-                ArrayList<double[]> annoOverNodes = annotationCoordinates.get(annotation.getId());
-                if (annoOverNodes == null) {
-                    annoOverNodes = new ArrayList<>();
-                }
-                annoOverNodes.add(annoCoordinates);
-                annotationCoordinates.put(annotation.getId(), annoOverNodes);
-
-                if (annotation.getHighlighted()) {
-                    gc.setLineWidth(LINE_WIDTH);
-                    gc.setStroke(Color.BLACK);
-                    gc.strokeRect(startXAnno, startYAnno, annoWidth, annoHeight);
-                }
-
-                gc.fillRect(startXAnno, startYAnno, annoWidth, annoHeight);
+        AnnotationProjection projection = getAnnotationProjection();
+        double annoHeight = coordinates[HEIGHT_INDEX] / 2;
+        double baseYAnno = coordinates[Y_INDEX] + coordinates[HEIGHT_INDEX] - annoHeight + 1;
+
+        for (int i = projection.first(node.getId()); i < projection.end(node.getId()); i++) {
+            int annotationId = projection.getGlobalId(i);
+            double startXAnno = coordinates[X_INDEX]
+                    + coordinates[WIDTH_INDEX] * projection.getStartFraction(i);
+            double annoWidth = coordinates[WIDTH_INDEX]
+                    * (projection.getEndFraction(i) - projection.getStartFraction(i));
+            double startYAnno = baseYAnno + (annoHeight + 1) * projection.getLane(i);
+            gc.setFill(colourController.getAnnotationColor(
+                    projection.getAnnotationStart(i), ANNOTATION_COLOUR_PERIOD));
+
+            frameIndex.add(SpatialIndex.ANNOTATION, annotationId, startXAnno, startYAnno,
+                    startXAnno + annoWidth, startYAnno + annoHeight);
+
+            if (projection.getAnnotationSet(i).getAnnotations().getStore()
+                    .isHighlighted(projection.getAnnotationId(i))) {
+                gc.setLineWidth(LINE_WIDTH);
+                gc.setStroke(Color.BLACK);
+                gc.strokeRect(startXAnno, startYAnno, annoWidth, annoHeight);
+            } else if (annotationId == hoveredAnno) {
+                gc.setLineWidth(HOVER_LINE_WIDTH);
+                gc.setStroke(Color.GRAY);
+                gc.strokeRect(startXAnno, startYAnno, annoWidth, annoHeight);
             }
+
+            gc.fillRect(startXAnno, startYAnno, annoWidth, annoHeight);
         }
     }
 
@@ -532,9 +906,9 @@ public class GraphDrawer {
                     / RELATIVE_X_DISTANCE > 0)) {
                 mostLeftNode = node;
             }
-            if ((coordinates[X_INDEX] < canvas.getWidth())
+            if ((coordinates[X_INDEX] < gc.getWidth())
                     && (coordinates[X_INDEX] + coordinates[WIDTH_INDEX]
-                    / RELATIVE_X_DISTANCE >= canvas.getWidth())) {
+                    / RELATIVE_X_DISTANCE >= gc.getWidth())) {
                 mostRightNode = node;
             }
         }
@@ -550,6 +924,9 @@ public class GraphDrawer {
         double[] coordinates = this.coordinates.get(node.getId());
         checkExtremeNode(node);
         if (inView(coordinates)) {
+            indexNode(node, coordinates);
+            PerformanceMonitor monitor = PerformanceMonitor.getInstance();
+            long start = startTiming();
             if (node.isDummy()) {
                 ArrayList<Color> colourMeBby = colourController.getEdgeColours(node.getGenomes());
                 this.setLineWidth(node.getGenomes().length);
@@ -558,9 +935,13 @@ public class GraphDrawer {
                 double endX = coordinates[X_INDEX] + coordinates[WIDTH_INDEX];
                 double endY = coordinates[Y_INDEX] + coordinates[HEIGHT_INDEX] / 2;
                 colourThisEdge(startX, startY, endX, endY, 0.0, colourMeBby);
+                monitor.accumulate(Phase.DRAW_EDGES, start);
             } else {
                 drawColour(node, coordinates);
+                monitor.accumulate(Phase.DRAW_NODES, start);
+                start = startTiming();
                 drawAnnotations(node, coordinates);
+                monitor.accumulate(Phase.DRAW_ANNOTATIONS, start);
             }
         }
     }
@@ -577,6 +958,8 @@ public class GraphDrawer {
         double[] upperCoordinates = this.coordinates.get(upperNode.getId());
         coordinates.put(lowerNode.getId(), upperCoordinates);
         if (inView(upperCoordinates)) {
+            indexNode(upperNode, upperCoordinates);
+            indexNode(lowerNode, upperCoordinates);
             double leftX = upperCoordinates[X_INDEX];
             double midX = leftX + upperCoordinates[WIDTH_INDEX] / 2;
             double rightX = leftX + upperCoordinates[WIDTH_INDEX];
@@ -593,13 +976,11 @@ public class GraphDrawer {
                         new double[]{midY, downY, midY}, POLYGON_POINTS);
             }
             gc.setFill(colourController.getSNPColour(
-                    DrawableCanvas.getInstance().getParser().getSequenceHashMap()
-                            .get((long) upperNode.getId())));
+                    graph.getStore().getSequence(upperNode.getId())));
             gc.fillPolygon(new double[]{leftX, midX, rightX},
                     new double[]{midY, upY, midY}, POLYGON_POINTS);
             gc.setFill(colourController.getSNPColour(
-                    DrawableCanvas.getInstance().getParser().getSequenceHashMap()
-                            .get((long) lowerNode.getId())));
+                    graph.getStore().getSequence(lowerNode.getId())));
             gc.fillPolygon(new double[]{leftX, midX, rightX},
                     new double[]{midY, downY, midY}, POLYGON_POINTS);
 
@@ -661,6 +1042,13 @@ public class GraphDrawer {
                     coordinates[Y_INDEX],
                     coordinates[WIDTH_INDEX],
                     coordinates[HEIGHT_INDEX]);
+        } else if (node.getId() == hoveredNode) {
+            gc.setLineWidth(HOVER_LINE_WIDTH);
+            gc.setStroke(Color.GRAY);
+            gc.strokeRect(coordinates[X_INDEX],
+                    coordinates[Y_INDEX],
+                    coordinates[WIDTH_INDEX],
+                    coordinates[HEIGHT_INDEX]);
         }
         colourMeBby = colourController.getNodeColours(node.getGenomes());
         double tempCoordinate = coordinates[Y_INDEX];
@@ -702,6 +1090,7 @@ public class GraphDrawer {
                     }
 
                     if (edgeInView(startX, endX)) {
+                        drawnEdges++;
                         ArrayList<Color> colourMeBby =
                                 colourController.getEdgeColours(
                                         allGenomesInEdge.stream().mapToInt(q -> q).toArray());
@@ -761,11 +1150,13 @@ public class GraphDrawer {
 
     /**
      * Draw the minimap on screen.
+     *
+     * @param canvasGc The GraphicsContext of the canvas.
      */
-    private void drawMinimap() {
+    private void drawMinimap(GraphicsContext canvasGc) {
         Minimap.getInstance().setValue(mostLeftNode.getId());
         Minimap.getInstance().setAmountVisible(mostRightNode.getId() - mostLeftNode.getId());
-        Minimap.getInstance().draw(gc);
+        Minimap.getInstance().draw(canvasGc);
     }
 
     /**
@@ -776,7 +1167,7 @@ public class GraphDrawer {
      * @return True if the edge falls on screen, false otherwise
      */
     private boolean edgeInView(double startx, double endx) {
-        return startx < canvas.getWidth() && endx > 0;
+        return startx < gc.getWidth() && endx > 0;
     }
 
     /**
@@ -801,8 +1192,28 @@ public class GraphDrawer {
     }
 
     /**
-     * Check for each node if the click event is within its borders.
-     * If so it is highlighted. Control-click gives node
+     * Adds the clickable area of a node to the spatial index of the frame.
+     * SNP nodes are clickable over the full height of their bubble.
+     *
+     * @param node        The node.
+     * @param coordinates The coordinates the node is drawn at.
+     */
+    private void indexNode(SequenceNode node, double[] coordinates) {
+        drawnNodes++;
+        double minY = coordinates[Y_INDEX];
+        double maxY = coordinates[Y_INDEX] + coordinates[HEIGHT_INDEX];
+        if (node.isSNP()) {
+            double midY = coordinates[Y_INDEX] + coordinates[HEIGHT_INDEX] / 2;
+            minY = midY - coordinates[HEIGHT_INDEX];
+            maxY = midY + coordinates[HEIGHT_INDEX];
+        }
+        frameIndex.add(SpatialIndex.NODE, node.getId(), coordinates[X_INDEX], minY,
+                coordinates[X_INDEX] + coordinates[WIDTH_INDEX], maxY);
+    }
+
+    /**
+     * Look up the node and annotations under the click event in the spatial index of the
+     * last drawn frame. The clicked node is highlighted. Control-click gives node
      * information in the second information pane.
      * If a SNP bubble is clicked information of both nodes is displayed.
      * On double click a SNP bubble is collapsed/extended.
@@ -814,10 +1225,10 @@ public class GraphDrawer {
      */
     void clickOnCanvas(double xEvent, double yEvent, MouseEvent mouseEvent) {
         try {
-            for (Object o : graph.getNodes().entrySet()) {
-                Map.Entry pair = (Map.Entry) o;
-                SequenceNode node = (SequenceNode) pair.getValue();
-                if (checkClick(node, xEvent, yEvent)) {
+            SpatialIndex index = shownIndex;
+            for (int nodeID : index.query(SpatialIndex.NODE, xEvent, yEvent)) {
+                SequenceNode node = graph.getNode(nodeID);
+                if (node != null) {
                     highlightNode(node.getId());
                     if (node.isSNP()) {
                         SequenceNode neighbour = findSNPNeighbour(node);
@@ -840,21 +1251,11 @@ public class GraphDrawer {
                     }
                 }
             }
-            for (Object o : annotationCoordinates.entrySet()) {
-                Map.Entry pair = (Map.Entry) o;
-                ArrayList<double[]> allAnnoCors = (ArrayList<double[]>) pair.getValue();
-                for (double[] annoCors : allAnnoCors) {
-                    if (xEvent > annoCors[X_INDEX] && xEvent < annoCors[WIDTH_INDEX]
-                            && yEvent > annoCors[Y_INDEX] && yEvent < annoCors[HEIGHT_INDEX]) {
-                        int annoId = (int) pair.getKey();
-                        TreeSet<Annotation> setOfAllAnnotations = getAnnotationBuckets(null, 1);
-                        for (Annotation annotation : setOfAllAnnotations) {
-                            if (annotation.getId() == annoId) {
-                                menuController.updateInfoAnnotation(mouseEvent.isControlDown(), annotation);
-                                highlightAnnotation(annotation);
-                            }
-                        }
-                    }
+            for (int annoId : index.query(SpatialIndex.ANNOTATION, xEvent, yEvent)) {
+                Annotation annotation = getAnnotation(annoId);
+                if (annotation != null) {
+                    menuController.updateInfoAnnotation(mouseEvent.isControlDown(), annotation);
+                    highlightAnnotation(annotation);
                 }
             }
             redraw();
@@ -887,27 +1288,36 @@ public class GraphDrawer {
     }
 
     /**
-     * Check if a click event is within the borders of this node or SNP bubble.
+     * Looks up what is under the mouse pointer and highlights it lightly.
+     * Only requests a redraw, for the next pulse, when the hovered node or annotation changes.
      *
-     * @param xEvent x coordinate of the click event
-     * @param yEvent y coordinate of the click event
-     * @return True if the coordinates of the click event are within borders, false otherwise.
+     * @param xEvent x coordinate of the mouse.
+     * @param yEvent y coordinate of the mouse.
+     * @return A short description for a tooltip, or null if there is nothing under the mouse.
      */
-    private boolean checkClick(SequenceNode node, double xEvent, double yEvent) {
-        double[] coordinates = this.coordinates.get(node.getId());
-        if (node.isSNP()) {
-            return ((xEvent > coordinates[X_INDEX])
-                    && (xEvent < coordinates[X_INDEX] + coordinates[WIDTH_INDEX])
-                    && (yEvent > coordinates[Y_INDEX] + coordinates[HEIGHT_INDEX]
-                    / 2 - coordinates[HEIGHT_INDEX])
-                    && (yEvent < coordinates[Y_INDEX] + coordinates[HEIGHT_INDEX]
-                    / 2 + coordinates[HEIGHT_INDEX]));
-        } else {
-            return ((xEvent > coordinates[X_INDEX])
-                    && (xEvent < coordinates[X_INDEX] + coordinates[WIDTH_INDEX])
-                    && (yEvent > coordinates[Y_INDEX])
-                    && (yEvent < coordinates[Y_INDEX] + coordinates[HEIGHT_INDEX]));
+    String hoverOnCanvas(double xEvent, double yEvent) {
+        SpatialIndex index = shownIndex;
+        if (index == null || graph == null) {
+            return null;
         }
+        int[] nodes = index.query(SpatialIndex.NODE, xEvent, yEvent);
+        int[] annotations = index.query(SpatialIndex.ANNOTATION, xEvent, yEvent);
+        int newNode = nodes.length > 0 ? nodes[0] : 0;
+        int newAnno = annotations.length > 0 ? annotations[0] : -1;
+        if (newNode != hoveredNode || newAnno != hoveredAnno) {
+            hoveredNode = newNode;
+            hoveredAnno = newAnno;
+            FrameScheduler.getInstance().requestRedraw();
+        }
+        Annotation annotation = getAnnotation(newAnno);
+        if (annotation != null) {
+            return annotation.toString();
+        }
+        SequenceNode node = graph.getNode(newNode);
+        if (node != null && !node.isDummy()) {
+            return "Node " + node.getId() + "\nLength: " + node.getSequenceLength();
+        }
+        return null;
     }
 
     /**
@@ -918,6 +1328,11 @@ public class GraphDrawer {
      */
     int findColumn(double xEvent) {
         try {
+            if (shownLevelOfDetail) {
+                SequenceNode node = firstNodeOfColumn(columnAt(xDifference + xEvent / stepSize),
+                        null);
+                return node == null ? -1 : node.getId();
+            }
             for (Object o : graph.getNodes().entrySet()) {
                 Map.Entry pair = (Map.Entry) o;
                 SequenceNode node = (SequenceNode) pair.getValue();
@@ -945,7 +1360,7 @@ public class GraphDrawer {
      * @return True if the coordinates of the click event are within borders, false otherwise.
      */
     private boolean checkClickX(SequenceNode node, double xEvent) {
-        double[] coordinates = this.coordinates.get(node.getId());
+        double[] coordinates = shownCoordinates.get(node.getId());
         return ((xEvent > coordinates[X_INDEX])
                 && (xEvent < coordinates[X_INDEX] + coordinates[WIDTH_INDEX]));
     }
@@ -1052,13 +1467,24 @@ public class GraphDrawer {
      * @param xDifference The new xDifference.
      */
     public void setxDifference(double xDifference) {
+        this.xDifference = clampxDifference(xDifference, zoomLevel);
+    }
+
+    /**
+     * Limits an xDifference to the range that can be shown at a zoomLevel.
+     *
+     * @param xDifference The xDifference to limit.
+     * @param zoomLevel   The zoomLevel it will be shown at.
+     * @return The limited xDifference.
+     */
+    double clampxDifference(double xDifference, double zoomLevel) {
         if (xDifference < 0) {
             xDifference = 0;
         }
         if (xDifference + zoomLevel > range) {
             xDifference = range - zoomLevel;
         }
-        this.xDifference = xDifference;
+        return xDifference;
     }
 
     /**
@@ -1067,6 +1493,16 @@ public class GraphDrawer {
      * @param zoomLevel The new zoomLevel.
      */
     public void setZoomLevel(double zoomLevel) {
+        this.zoomLevel = clampZoomLevel(zoomLevel);
+    }
+
+    /**
+     * Limits a zoomLevel to what can be shown of the current graph.
+     *
+     * @param zoomLevel The zoomLevel to limit.
+     * @return The limited zoomLevel.
+     */
+    double clampZoomLevel(double zoomLevel) {
         if (zoomLevel < 1) {
             zoomLevel = 1;
         }
@@ -1079,7 +1515,7 @@ public class GraphDrawer {
                 zoomLevel = range;
             }
         }
-        this.zoomLevel = zoomLevel;
+        return zoomLevel;
     }
 
     /**
@@ -1116,16 +1552,119 @@ public class GraphDrawer {
         return columnWidths[col];
     }
 
-    public int[] getSelected() {
+    public Selection getSelected() {
         return selected;
     }
 
-    public HashMap<Integer, TreeSet<Annotation>> getAllAnnotations() {
-        return allAnnotations;
+    public List<AnnotationSet> getAnnotationSets() {
+        return annotationSets;
+    }
+
+    /**
+     * Gets the annotation set that is searched and navigated,
+     * which is the set that was loaded last unless another one was chosen.
+     *
+     * @return the annotation set, or null if no annotations were loaded.
+     */
+    public AnnotationSet getActiveAnnotations() {
+        for (AnnotationSet set : annotationSets) {
+            if (set.getName().equals(activeAnnotations)) {
+                return set;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes an annotation set the one that is searched and navigated.
+     *
+     * @param name the name of the set.
+     */
+    public void setActiveAnnotations(String name) {
+        this.activeAnnotations = name;
+    }
+
+    /**
+     * Shows an annotation set. It replaces the set with the same name, or else it is added
+     * and becomes the active set.
+     *
+     * @param set the annotation set.
+     */
+    public void setAnnotations(AnnotationSet set) {
+        List<AnnotationSet> sets = new ArrayList<>(annotationSets);
+        int position = 0;
+        while (position < sets.size() && !sets.get(position).getName().equals(set.getName())) {
+            position++;
+        }
+        if (position < sets.size()) {
+            sets.set(position, set);
+        } else {
+            sets.add(set);
+            activeAnnotations = set.getName();
+        }
+        this.annotationSets = Collections.unmodifiableList(sets);
+    }
+
+    /**
+     * Stops showing an annotation set. If it was the active set, the set that was loaded
+     * last becomes the active one.
+     *
+     * @param name the name of the set.
+     */
+    public void removeAnnotations(String name) {
+        List<AnnotationSet> sets = new ArrayList<>(annotationSets);
+        sets.removeIf(set -> set.getName().equals(name));
+        this.annotationSets = Collections.unmodifiableList(sets);
+        if (name.equals(activeAnnotations)) {
+            activeAnnotations = sets.isEmpty() ? null : sets.get(sets.size() - 1).getName();
+        }
+    }
+
+    /**
+     * Draws an annotation set on another genome.
+     *
+     * @param name   the name of the set.
+     * @param genome the id of the genome.
+     */
+    public void setAnnotationGenome(String name, int genome) {
+        for (AnnotationSet set : annotationSets) {
+            if (set.getName().equals(name)) {
+                setAnnotations(set.withGenome(genome));
+            }
+        }
+    }
+
+    /**
+     * Redraws the annotations after which of them are selected changed.
+     */
+    public void annotationsChanged() {
+        resetAnnotationProjection();
+        redraw();
+    }
+
+    /**
+     * Forgets the projection of the annotations, also the ones that frames still being drawn
+     * compute, so it is computed again for the next frame.
+     */
+    private void resetAnnotationProjection() {
+        annotationProjection = null;
+        projectionVersion++;
     }
 
-    public void setAllAnnotations(HashMap<Integer, TreeSet<Annotation>> newAnnotations) {
-        this.allAnnotations = newAnnotations;
+    /**
+     * @param id an id of an annotation that is unique over all annotation sets.
+     * @return the annotation, or null if there is no annotation with the id.
+     */
+    private Annotation getAnnotation(int id) {
+        int rest = id;
+        for (AnnotationSet set : annotationSets) {
+            AnnotationIndex annotations = set.getAnnotations();
+            if (rest >= 0 && rest < annotations.size()) {
+                return annotations.getStore().get(rest);
+            }
+            rest -= annotations.size();
+        }
+        return null;
     }
 
     public SequenceGraph getGraph() {
@@ -1152,57 +1691,58 @@ public class GraphDrawer {
         zoomLevel = 0;
         setxDifference(0);
         setyDifference(0);
-        setAllAnnotations(new HashMap<>());
+        this.annotationSets = Collections.emptyList();
+        this.activeAnnotations = null;
         setSelected(null);
-        this.annotationCoordinates = null;
+        this.shownIndex = null;
         menuController.reset();
     }
 
+    /**
+     * Switches between drawing on the JavaFX thread and rasterising frames on a worker thread.
+     *
+     * @param backgroundRendering True to render frames on a worker thread.
+     */
+    void setBackgroundRendering(boolean backgroundRendering) {
+        this.backgroundRendering = backgroundRendering;
+        if (!backgroundRendering) {
+            frameRenderer.cancel();
+        }
+    }
+
+    void setPerformanceOverlay(boolean performanceOverlay) {
+        this.performanceOverlay = performanceOverlay;
+    }
+
     void setRainbowView(boolean rainbowView) {
         this.rainbowView = rainbowView;
-        this.colourController.setRainbowView(this.rainbowView);
+        if (selected != null) {
+            this.colourController = new ColourController(selected, rainbowView);
+        }
     }
 
-    void setSelected(int[] newSelection) {
+    /**
+     * Sets the selected genomes. The colours are replaced instead of changed, because frames
+     * that are still being drawn use the colours of when they were requested.
+     *
+     * @param newSelection the selected genomes, or null to select them again later.
+     */
+    void setSelected(Selection newSelection) {
         this.selected = newSelection;
         if (newSelection != null) {
-            this.colourController.setSelectedGenomes(this.selected);
+            this.colourController = new ColourController(selected, rainbowView);
         }
     }
 
-    private int genomeToTraverse;
-
-    public int hongerInAfrika(int startCorAnno) throws StackOverflowError {
-        genomeToTraverse = DrawableCanvas.getInstance().getAnnotationGenome();
-        return divideAndConquer(1, alleOffsets.size(), startCorAnno, 0);
-    }
-
+    /**
+     * Finds the node that contains a coordinate of a genome.
+     *
+     * @param startCorAnno the coordinate.
+     * @param difGenome    the genome.
+     * @return the id of the node.
+     * @throws StackOverflowError when the graph is too complex to find the node.
+     */
     public int hongerInAfrika(int startCorAnno, int difGenome) throws StackOverflowError {
-        genomeToTraverse = difGenome;
-        return divideAndConquer(1, alleOffsets.size(), startCorAnno, 0);
-    }
-
-    public int divideAndConquer(int lower, int upper, int startCorAnno, int offSet) throws StackOverflowError {
-        int median = ((lower + upper) / 2) + offSet;
-        int[] offSets = alleOffsets.get(median);
-        int[] genomes = alleGenomen.get(median);
-        int index = colourController.containsPos(genomes,
-                genomeToTraverse);
-        if (index < 0) {
-            offSet += 1;
-            return divideAndConquer(lower, upper, startCorAnno, offSet);
-        }
-
-        if (genomes.length != offSets.length) {
-            index = 0;
-        }
-
-        if (offSets[index] <= startCorAnno && offSets[index] + sequenceMap.get(Long.valueOf(median)).length() >= startCorAnno) {
-            return median;
-        } else if (offSets[index] > startCorAnno) {
-            return divideAndConquer(lower, median, startCorAnno, 0);
-        } else {
-            return divideAndConquer(median, upper, startCorAnno, 0);
-        }
+        return coordinateIndex.find(startCorAnno, difGenome);
     }
 }
@@ -22,17 +22,25 @@ import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
-import org.mapdb.BTreeMap;
+import parser.CustomProperties;
+import perf.FlightEvents;
+import perf.PerformanceMonitor;
 import structures.Annotation;
+import structures.AnnotationSet;
+import structures.Selection;
 
 import javax.imageio.ImageIO;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.PrintStream;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
-import java.util.TreeSet;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Created by Jasper van Tilburg on 1-5-2017.
@@ -42,11 +50,19 @@ import java.util.TreeSet;
  */
 public class MenuController implements Observer {
 
+    private static final int EXPORT_SCALE = 4;
+    private static final Pattern EXPORT_REGION =
+            Pattern.compile("(?:(.+):)?(\\d+)\\s*-\\s*(\\d+)\\s+(\\d+)");
+
     @FXML
     private Button goToGenCorBut;
     @FXML
     private Button annoBut;
     @FXML
+    private Button previousAnnoBut;
+    @FXML
+    private Button nextAnnoBut;
+    @FXML
     private Button chooseGenome;
     @FXML
     private CheckBox rainbowBut;
@@ -97,20 +113,33 @@ public class MenuController implements Observer {
     @FXML
     private MenuItem gffItem;
     @FXML
+    private MenuItem overviewItem;
+    @FXML
+    private MenuItem exportItem;
+    @FXML
     private Button rightPannButton;
     @FXML
     private Button leftPannButton;
     @FXML
     private CheckBox collapseSNPButton;
     @FXML
+    private CheckBox backgroundRenderBut;
+    @FXML
+    private CheckBox smoothZoomBut;
+    @FXML
+    private CheckBox perfHudBut;
+    @FXML
     private ScrollBar scrollBar;
     @FXML
     private Button screenshotButton;
 
+    private final Tooltip canvasTooltip = new Tooltip();
+    private boolean tooltipInstalled;
     private PrintStream ps;
     private CustomProperties properties;
     private BookmarkController bookmarkController;
     private FileController fileController;
+    private ProgressBarController exportProgress;
     private RecentController recentController;
     private RecentGenomeController recentGenomeController;
     private String filePath;
@@ -129,6 +158,7 @@ public class MenuController implements Observer {
         properties = new CustomProperties();
 
         fileController = new FileController(new ProgressBarController(progressBar));
+        exportProgress = new ProgressBarController(progressBar);
         bookmarkController = new BookmarkController(bookmark1, bookmark2, bookmark3);
         recentController = new RecentController(file1, file2, file3);
 
@@ -143,6 +173,8 @@ public class MenuController implements Observer {
         GraphDrawer.getInstance().setMenuController(this);
         PanningController.getInstance().setMenuController(this);
         PanningController.getInstance().initialize(leftPannButton, rightPannButton);
+        FrameScheduler.getInstance().setMenuController(this);
+        FrameScheduler.getInstance().start();
 
         //System.setErr(ps);
         //System.setOut(ps);
@@ -173,16 +205,21 @@ public class MenuController implements Observer {
      */
     private void openGfaFileClicked(String filePath) throws IOException, InterruptedException {
         GraphDrawer.getInstance().reset();
+        AnnotationNavigator.getInstance().reset();
         fileController.openGfaFileClicked(filePath);
         recentController.update(filePath);
         annoBut.setDisable(true);
+        previousAnnoBut.setDisable(true);
+        nextAnnoBut.setDisable(true);
         PanningController.getInstance().initializeKeys(canvasPanel);
     }
 
 
     /**
-     * When 'open gff file' is clicked this method opens a filechooser from which a gff
+     * When 'open gff file' is clicked this method opens a filechooser from which gff files
      * can be selected and directly be visualised on the screen.
+     * The files are loaded at the same time and shown while they load. A genome can be
+     * chosen for the annotations of a file that does not name a genome of the graph.
      *
      * @throws IOException          if there is no file specified.
      * @throws InterruptedException Exception when the Thread is interrupted.
@@ -190,13 +227,44 @@ public class MenuController implements Observer {
     @FXML
     private void openGffFileClicked() throws IOException, InterruptedException {
         Stage stage = App.getStage();
-        File file = fileController.chooseGffFile(stage);
-        String filePath = file.getAbsolutePath();
-        HashMap<Integer, TreeSet<Annotation>> annotations =
-                fileController.openGffFileClicked(filePath);
-        Annotation.selectAll(annotations);
-        GraphDrawer.getInstance().setAllAnnotations(annotations);
+        List<File> files = fileController.chooseGffFiles(stage);
+        if (files == null) {
+            return;
+        }
+        annoBut.setDisable(false);
+        previousAnnoBut.setDisable(false);
+        nextAnnoBut.setDisable(false);
+        for (File file : files) {
+            String filePath = file.getAbsolutePath();
+            fileController.openGffFileClicked(filePath).whenComplete((annotations, error) -> {
+                if (error instanceof InterruptedIOException) {
+                    return;
+                }
+                if (error != null) {
+                    System.err.println("Can not read " + filePath + ": " + error.getMessage());
+                    new AnnotationPopUpController().loadMessage("Could not load annotations",
+                            "Can not read " + file.getName() + ": " + error.getMessage());
+                    return;
+                }
+                if (annotations.getGenome() < 0) {
+                    try {
+                        chooseAnnotationGenome(annotations);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+                GraphDrawer.getInstance().redraw();
+            });
+        }
+    }
 
+    /**
+     * Lets the user choose the genome to show the annotations of a file on.
+     *
+     * @param annotations the annotations of the file.
+     * @throws IOException if the pop up can not be loaded.
+     */
+    private void chooseAnnotationGenome(AnnotationSet annotations) throws IOException {
         FXMLLoader loader = new FXMLLoader(getClass().getResource(
                 "/FXML/chooseGenomeForAnnotations.fxml"));
         Stage newStage;
@@ -212,17 +280,18 @@ public class MenuController implements Observer {
                 e.printStackTrace();
             }
         }
-        gffGenomeController.initialize(hashMap, DrawableCanvas.getInstance().getAnnotationGenome());
+        gffGenomeController.initialize(hashMap, Math.max(annotations.getGenome(), 0));
 
         newStage = new Stage();
         newStage.setScene(new Scene(root));
-        newStage.setTitle("Choose a genome to load the annotation on");
+        newStage.setTitle("Choose a genome to load " + new File(annotations.getName()).getName()
+                + " on");
         newStage.initModality(Modality.APPLICATION_MODAL);
         newStage.setOnHidden(
                 new EventHandler<WindowEvent>() {
                     @Override
                     public void handle(WindowEvent event) {
-                        DrawableCanvas.getInstance().setAnnotationGenome(
+                        GraphDrawer.getInstance().setAnnotationGenome(annotations.getName(),
                                 gffGenomeController.getSelectedGenome());
                         DrawableCanvas.getInstance().setPrefGenomeToTraverse(
                                 gffGenomeController.getSelectedGenome());
@@ -231,8 +300,6 @@ public class MenuController implements Observer {
                 }
         );
         newStage.showAndWait();
-
-        annoBut.setDisable(false);
     }
 
     /**
@@ -252,15 +319,29 @@ public class MenuController implements Observer {
         radiusTextField.setText(GraphDrawer.getInstance().getRadius() + "");
     }
 
+    /**
+     * Looks up the sequence of a node in the database.
+     *
+     * @param nodeID The id of the node.
+     * @return The sequence of the node.
+     */
+    private String getSequence(int nodeID) {
+        long start = System.nanoTime();
+        String sequence = DrawableCanvas.getInstance().getParser()
+                .getStore().getSequence(nodeID);
+        FlightEvents.mapLookups("sequence", 1, System.nanoTime() - start);
+        return sequence;
+    }
+
     /**
      * Updates the alternative information window.
      *
      * @param node the Node that should be shown.
      */
     void updateSequenceInfoAlt(SequenceNode node) {
-        String sequence = DrawableCanvas.getInstance().getParser().
-                getSequenceHashMap().get((long) node.getId());
-        sequenceInfoAlt.setText(node.toString(sequence));
+        String sequence = getSequence(node.getId());
+        sequenceInfoAlt.setText(node.toString(sequence,
+                DrawableCanvas.getInstance().getAllGenomesReversed()));
     }
 
     /**
@@ -269,9 +350,9 @@ public class MenuController implements Observer {
      * @param node the Node that should be shown.
      */
     void updateSequenceInfo(SequenceNode node) {
-        String sequence = DrawableCanvas.getInstance().getParser().
-                getSequenceHashMap().get((long) node.getId());
-        sequenceInfo.setText(node.toString(sequence));
+        String sequence = getSequence(node.getId());
+        sequenceInfo.setText(node.toString(sequence,
+                DrawableCanvas.getInstance().getAllGenomesReversed()));
     }
 
     /**
@@ -297,7 +378,7 @@ public class MenuController implements Observer {
         double xCentre = canvas.getWidth() / 2;
         ZoomController.getInstance().zoomIn(
                 GraphDrawer.getInstance().mouseLocationColumn(xCentre));
-        nodeTextField.setText(findColumnWrapper(xCentre) + "");
+        updateNodeTextAfterFrame(xCentre);
     }
 
     /**
@@ -308,11 +389,22 @@ public class MenuController implements Observer {
         double xCentre = canvas.getWidth() / 2;
         ZoomController.getInstance().zoomOut(
                 GraphDrawer.getInstance().mouseLocationColumn(xCentre));
-        nodeTextField.setText(findColumnWrapper(xCentre) + "");
+        updateNodeTextAfterFrame(xCentre);
+    }
+
+    /**
+     * Updates the nodeTextField once the scheduled zoom has been drawn.
+     *
+     * @param x The x-coordinate of the column to show the node of.
+     */
+    private void updateNodeTextAfterFrame(double x) {
+        FrameScheduler.getInstance().runAfterFrame(
+                () -> nodeTextField.setText(findColumnWrapper(x) + ""));
     }
 
     /**
      * Ensures the scroll bar zooms in and out.
+     * Only the target zoom is updated here, the FrameScheduler redraws once per frame.
      *
      * @param scrollEvent The scroll.
      * @throws IOException throws exception if column doesn't exist.
@@ -320,7 +412,7 @@ public class MenuController implements Observer {
     @FXML
     private void scrollZoom(ScrollEvent scrollEvent) throws IOException {
         int column = GraphDrawer.getInstance().mouseLocationColumn(scrollEvent.getX());
-        nodeTextField.setText(findColumnWrapper(scrollEvent.getX()) + "");
+        updateNodeTextAfterFrame(scrollEvent.getX());
         if (scrollEvent.getDeltaY() > 0) {
             ZoomController.getInstance().zoomIn(column);
         } else {
@@ -348,6 +440,29 @@ public class MenuController implements Observer {
         }
     }
 
+    /**
+     * Shows what is under the mouse pointer in a tooltip.
+     *
+     * @param mouseEvent the mouse event.
+     */
+    @FXML
+    private void hoverMouse(MouseEvent mouseEvent) {
+        String description = GraphDrawer.getInstance().hoverOnCanvas(
+                mouseEvent.getX(), mouseEvent.getY());
+        if (description == null) {
+            if (tooltipInstalled) {
+                Tooltip.uninstall(canvas, canvasTooltip);
+                tooltipInstalled = false;
+            }
+        } else {
+            canvasTooltip.setText(description);
+            if (!tooltipInstalled) {
+                Tooltip.install(canvas, canvasTooltip);
+                tooltipInstalled = true;
+            }
+        }
+    }
+
     /**
      * Updates the information fields with annotation information.
      *
@@ -369,13 +484,14 @@ public class MenuController implements Observer {
      * @param clicked     The node that was clicked
      */
     void updateInfoSeqNode(boolean controlDown, SequenceNode clicked) {
-        String sequence = DrawableCanvas.getInstance().getParser().
-                getSequenceHashMap().get((long) clicked.getId());
+        String sequence = getSequence(clicked.getId());
         if (!controlDown) {
-            sequenceInfo.setText(clicked.toString(sequence));
+            sequenceInfo.setText(clicked.toString(sequence,
+                    DrawableCanvas.getInstance().getAllGenomesReversed()));
             nodeTextField.setText(clicked.getId().toString());
         } else {
-            sequenceInfoAlt.setText(clicked.toString(sequence));
+            sequenceInfoAlt.setText(clicked.toString(sequence,
+                    DrawableCanvas.getInstance().getAllGenomesReversed()));
         }
         GraphDrawer.getInstance().redraw();
     }
@@ -390,11 +506,11 @@ public class MenuController implements Observer {
         if (centreNodeID != -1 && radius != -1) {
             ZoomController.getInstance().traverseGraphClicked(centreNodeID, radius);
             SequenceNode node = GraphDrawer.getInstance().getGraph().getNode(centreNodeID);
-            String sequence = DrawableCanvas.getInstance().getParser()
-                    .getSequenceHashMap().get((long) centreNodeID);
+            String sequence = getSequence(centreNodeID);
             GraphDrawer.getInstance().highlightNode(centreNodeID);
             nodeTextField.setText(Integer.toString(centreNodeID));
-            sequenceInfo.setText(node.toString(sequence));
+            sequenceInfo.setText(node.toString(sequence,
+                    DrawableCanvas.getInstance().getAllGenomesReversed()));
         }
     }
 
@@ -468,19 +584,6 @@ public class MenuController implements Observer {
                 GraphDrawer.getInstance().getGraph().getCenterNodeID()));
     }
 
-    /**
-     * getter for the SequenceMap.
-     *
-     * @return The sequenceMap.
-     */
-    BTreeMap<Long, String> getSequenceHashMap() {
-        try {
-            return DrawableCanvas.getInstance().getParser().getSequenceHashMap();
-        } catch (NullPointerException e) {
-            System.err.println("No graph was loaded so no sequenceHashMap to get");
-        }
-        return null;
-    }
 
     @Override
     public void update(Observable o, Object arg) {
@@ -493,6 +596,8 @@ public class MenuController implements Observer {
                 properties.saveProperties();
 
                 gffItem.setDisable(false);
+                overviewItem.setDisable(false);
+                exportItem.setDisable(false);
 
                 Platform.runLater(new Runnable() {
                     public void run() {
@@ -528,6 +633,9 @@ public class MenuController implements Observer {
         chooseGenome.setDisable(false);
         rainbowBut.setDisable(false);
         collapseSNPButton.setDisable(false);
+        backgroundRenderBut.setDisable(false);
+        smoothZoomBut.setDisable(false);
+        perfHudBut.setDisable(false);
         screenshotButton.setDisable(false);
         goToGenCorBut.setDisable(false);
     }
@@ -666,11 +774,27 @@ public class MenuController implements Observer {
                 res[i] = oneSelected;
             }
 
-            GraphDrawer.getInstance().setSelected(res);
+            GraphDrawer.getInstance().setSelected(Selection.of(genomeIds.size(), res));
             GraphDrawer.getInstance().redraw();
         }
     }
 
+    /**
+     * Goes to the previous selected annotation.
+     */
+    @FXML
+    public void previousAnnotationClicked() {
+        AnnotationNavigator.getInstance().previous();
+    }
+
+    /**
+     * Goes to the next selected annotation.
+     */
+    @FXML
+    public void nextAnnotationClicked() {
+        AnnotationNavigator.getInstance().next();
+    }
+
     /**
      * Handles choosing Annotations.
      *
@@ -684,9 +808,7 @@ public class MenuController implements Observer {
         final AnnotationTableController annotationTableController
                 = loader.<AnnotationTableController>getController();
 
-        HashMap<Integer, TreeSet<Annotation>> allAnnotations =
-                GraphDrawer.getInstance().getAllAnnotations();
-        if (allAnnotations.size() == 0) {
+        if (GraphDrawer.getInstance().getActiveAnnotations() == null) {
             try {
                 openGffFileClicked();
             } catch (InterruptedException e) {
@@ -694,7 +816,8 @@ public class MenuController implements Observer {
             }
         }
 
-        annotationTableController.initialize(allAnnotations);
+        annotationTableController.initialize(GraphDrawer.getInstance().getActiveAnnotations());
+        fileController.addObserver(annotationTableController);
 
         stage = new Stage();
         stage.setScene(new Scene(root));
@@ -704,9 +827,8 @@ public class MenuController implements Observer {
                 new EventHandler<WindowEvent>() {
                     @Override
                     public void handle(WindowEvent event) {
-                        GraphDrawer.getInstance().
-                                setAllAnnotations(annotationTableController.getAnnotations());
-                        GraphDrawer.getInstance().redraw();
+                        fileController.deleteObserver(annotationTableController);
+                        GraphDrawer.getInstance().annotationsChanged();
                     }
                 }
         );
@@ -731,6 +853,33 @@ public class MenuController implements Observer {
         GraphDrawer.getInstance().redraw();
     }
 
+    /**
+     * Handles switching rendering on a background thread on and off.
+     */
+    @FXML
+    private void backgroundRenderClicked() {
+        GraphDrawer.getInstance().setBackgroundRendering(backgroundRenderBut.isSelected());
+        GraphDrawer.getInstance().redraw();
+    }
+
+    /**
+     * Handles switching smooth zooming and panning on and off.
+     */
+    @FXML
+    private void smoothZoomClicked() {
+        FrameScheduler.getInstance().setSmooth(smoothZoomBut.isSelected());
+    }
+
+    /**
+     * Handles showing and hiding the performance overlay.
+     */
+    @FXML
+    private void perfHudClicked() {
+        PerformanceMonitor.getInstance().setEnabled(perfHudBut.isSelected());
+        GraphDrawer.getInstance().setPerformanceOverlay(perfHudBut.isSelected());
+        GraphDrawer.getInstance().redraw();
+    }
+
     @FXML
     public void saveAsPNG() {
         WritableImage image = canvas.snapshot(new SnapshotParameters(), null);
@@ -753,6 +902,123 @@ public class MenuController implements Observer {
         }
     }
 
+    /**
+     * Exports a range of nodes, or the nodes of a range of bases of a genome, at a chosen
+     * width to a PNG or SVG file.
+     * The export runs on its own thread, the view on screen is not changed.
+     */
+    @FXML
+    private void exportRegionClicked() {
+        GraphDrawer drawer = GraphDrawer.getInstance();
+        TextInputDialog dialog = new TextInputDialog(drawer.getMostLeftNode().getId() + "-"
+                + drawer.getMostRightNode().getId() + " " + (int) canvas.getWidth() * EXPORT_SCALE);
+        dialog.setTitle("Export region");
+        dialog.setHeaderText("Enter the first and last node, or a genome and its first and last "
+                + "base,\nand the width of the image in pixels");
+        dialog.setContentText("first-last width or genome:start-end width:");
+        Optional<String> input = dialog.showAndWait();
+        if (!input.isPresent()) {
+            return;
+        }
+        int[] region;
+        try {
+            region = parseExportRegion(input.get().trim());
+        } catch (IllegalArgumentException e) {
+            new AnnotationPopUpController().loadMessage("Export region", e.getMessage());
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export region");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("PNG", "*.png"),
+                new FileChooser.ExtensionFilter("SVG", "*.svg")
+        );
+        File file = fileChooser.showSaveDialog(App.getStage());
+        if (file != null) {
+            exportRegion(new RegionExporter(drawer.getGraph(), region[0], region[1], region[2]),
+                    file);
+        }
+    }
+
+    /**
+     * Reads the region to export, given as the first and last node or as a genome and its
+     * first and last base, followed by the width of the image. The bases are mapped to the
+     * nodes that contain them.
+     *
+     * @param input The text that was entered, like 1-5000 20000 or genome:1000-201000 20000.
+     * @return The first and last node and the width.
+     * @throws IllegalArgumentException with a message for the user when the input is not valid.
+     */
+    private static int[] parseExportRegion(String input) {
+        Matcher matcher = EXPORT_REGION.matcher(input);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Expected the first and last node or a genome and "
+                    + "its first and last base, and a width, like 1-5000 20000 or "
+                    + "genome:1000-201000 20000.");
+        }
+        int first;
+        int last;
+        int width;
+        try {
+            first = Integer.parseInt(matcher.group(2));
+            last = Integer.parseInt(matcher.group(3));
+            width = Integer.parseInt(matcher.group(4));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The given numbers are too large.");
+        }
+        if (matcher.group(1) != null) {
+            int genome = genomeId(matcher.group(1).trim());
+            try {
+                first = GraphDrawer.getInstance().hongerInAfrika(first, genome);
+                last = GraphDrawer.getInstance().hongerInAfrika(last, genome);
+            } catch (StackOverflowError | RuntimeException e) {
+                throw new IllegalArgumentException("Can not find these bases of the genome.");
+            }
+        }
+        return new int[] {Math.min(first, last), Math.max(first, last), width};
+    }
+
+    /**
+     * @param genome The name or the id of a genome.
+     * @return The id of the genome.
+     * @throws IllegalArgumentException when the graph has no such genome.
+     */
+    private static int genomeId(String genome) {
+        Integer id = DrawableCanvas.getInstance().getAllGenomes().get(genome);
+        if (id == null && genome.matches("\\d{1,9}") && DrawableCanvas.getInstance()
+                .getAllGenomesReversed().containsKey(Integer.parseInt(genome))) {
+            id = Integer.parseInt(genome);
+        }
+        if (id == null) {
+            throw new IllegalArgumentException("The graph has no genome " + genome + ".");
+        }
+        return id;
+    }
+
+    /**
+     * Runs an export on a separate thread, showing the progress bar while it runs
+     * and a pop up when it fails.
+     *
+     * @param exporter The exporter of the region.
+     * @param file     The file to write to.
+     */
+    private void exportRegion(RegionExporter exporter, File file) {
+        exportProgress.run();
+        new Thread(() -> {
+            try {
+                exporter.export(file);
+                Platform.runLater(exportProgress::done);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not export the region: " + e.getMessage());
+                Platform.runLater(() -> {
+                    exportProgress.done();
+                    new AnnotationPopUpController().loadMessage("Export failed",
+                            "Could not export the region to " + file.getName() + ".");
+                });
+            }
+        }, "region-export").start();
+    }
+
     /**
      * Gets the radius of the radiusTextField.
      * @return The integer in the radiusTextField
@@ -788,6 +1054,19 @@ public class MenuController implements Observer {
         return centreNode;
     }
 
+    /**
+     * Opens a window with an overview of the whole graph.
+     */
+    @FXML
+    private void overviewClicked() {
+        try {
+            new OverviewWindow(DrawableCanvas.getInstance().getParser().getOverview(), this)
+                    .show();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     public void aboutUsClicked() throws IOException {
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/FXML/aboutUs.fxml"));
         Stage stage = new Stage();
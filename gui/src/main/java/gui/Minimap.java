@@ -4,6 +4,7 @@ import gui.sub_controllers.ZoomController;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
+import parser.OverviewPyramid;
 
 /**
  * Created by Jasper van Tilburg on 15-6-2017.
@@ -20,6 +21,7 @@ public final class Minimap {
     private static final int TEXT_SIZE = 10;
     private static final int DIVISION_LINE_HEIGHT = 55;
     private static final int CHAR_WIDTH = 3;
+    private static final Color DENSITY_COLOUR = Color.LIGHTSTEELBLUE;
 
     private static Minimap minimap = new Minimap();
     private MenuController menuController;
@@ -30,6 +32,9 @@ public final class Minimap {
     private double width;
     private double value;
     private double xCoordinate;
+    private OverviewPyramid overview;
+    private long[][] density;
+    private long maxDensity;
 
     private Minimap() {
 
@@ -69,6 +74,7 @@ public final class Minimap {
 
         xCoordinate = gc.getCanvas().getWidth() / 2 - width / 2;
 
+        drawDensity(gc);
         drawMapBox(gc);
         drawDivisionLines(gc);
         drawViewBox(gc);
@@ -86,6 +92,31 @@ public final class Minimap {
                 xCoordinate + width - Integer.toString(size).length() * CHAR_WIDTH, TEXT_END_Y);
     }
 
+    /**
+     * Draw the number of bubbles along the sequence, taken from the overview of the graph.
+     *
+     * @param gc The GraphicsContext object needed to draw the minimap
+     */
+    private void drawDensity(GraphicsContext gc) {
+        if (overview == null) {
+            return;
+        }
+        int bins = (int) width;
+        if (density == null || density.length != bins) {
+            density = overview.query(1, size + 1, bins);
+            maxDensity = 1;
+            for (long[] bin : density) {
+                maxDensity = Math.max(maxDensity, bin[OverviewPyramid.BUBBLES]);
+            }
+        }
+        gc.setFill(DENSITY_COLOUR);
+        for (int i = 0; i < bins; i++) {
+            double height = MINIMAP_HEIGHT * density[i][OverviewPyramid.BUBBLES]
+                    / (double) maxDensity;
+            gc.fillRect(xCoordinate + i, MINIMAP_Y + MINIMAP_HEIGHT - height, 1, height);
+        }
+    }
+
     /**
      * Draw the interval lines.
      *
@@ -149,6 +180,11 @@ public final class Minimap {
                 && pressedY >= MINIMAP_Y && pressedY <= MINIMAP_Y + MINIMAP_HEIGHT;
     }
 
+    void setOverview(OverviewPyramid overview) {
+        this.overview = overview;
+        this.density = null;
+    }
+
     void setAmountVisible(double amountVisible) {
         this.amountVisible = amountVisible;
     }
@@ -0,0 +1,166 @@
+package gui;
+
+import gui.sub_controllers.ZoomController;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import parser.OverviewPyramid;
+
+/**
+ * A window with an overview of the whole graph, drawn from the OverviewPyramid.
+ * <p>
+ * It shows the number of nodes, bubbles, genome coverage and sequence length along the graph.
+ * Scrolling zooms in and out, clicking goes to that place in the graph.
+ */
+final class OverviewWindow {
+
+    private static final double WIDTH = 1000;
+    private static final double MARGIN = 20;
+    private static final double TRACK_HEIGHT = 60;
+    private static final double TRACK_GAP = 25;
+    private static final double LABEL_OFFSET = 5;
+    private static final double ZOOM_FACTOR = 1.25;
+    private static final int MIN_RANGE = 100;
+    private static final String[] TRACK_NAMES =
+            {"Nodes", "Bubbles", "Genome coverage", "Sequence length"};
+    private static final Color[] TRACK_COLOURS =
+            {Color.GRAY, Color.CRIMSON, Color.STEELBLUE, Color.DARKGREEN};
+
+    private final OverviewPyramid overview;
+    private final MenuController menuController;
+    private final Canvas canvas;
+    private int from;
+    private int to;
+
+    /**
+     * Constructor.
+     *
+     * @param overview       The overview of the graph.
+     * @param menuController The menuController, used to go to a clicked node.
+     */
+    OverviewWindow(OverviewPyramid overview, MenuController menuController) {
+        this.overview = overview;
+        this.menuController = menuController;
+        this.from = 1;
+        this.to = overview.getMaxNodeId() + 1;
+        this.canvas = new Canvas(WIDTH + 2 * MARGIN,
+                MARGIN + TRACK_NAMES.length * (TRACK_HEIGHT + TRACK_GAP));
+        canvas.setOnScroll(this::scroll);
+        canvas.setOnMouseClicked(this::click);
+    }
+
+    /**
+     * Opens the window.
+     */
+    void show() {
+        Stage stage = new Stage();
+        stage.setScene(new Scene(new Pane(canvas)));
+        stage.setTitle("Overview");
+        stage.setResizable(false);
+        stage.focusedProperty().addListener((observable, oldValue, newValue) -> draw());
+        stage.show();
+        draw();
+    }
+
+    /**
+     * Draws all tracks and the part of the graph that is on screen.
+     */
+    private void draw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        long[][] bins = overview.query(from, to, (int) WIDTH);
+        for (int track = 0; track < TRACK_NAMES.length; track++) {
+            drawTrack(gc, bins, track);
+        }
+        drawViewBox(gc);
+    }
+
+    /**
+     * Draws one track as a bar per pixel, scaled to the highest bar.
+     *
+     * @param gc    The GraphicsContext to draw on.
+     * @param bins  The summaries per pixel.
+     * @param track The track, which is also the field in the summaries.
+     */
+    private void drawTrack(GraphicsContext gc, long[][] bins, int track) {
+        double top = MARGIN + track * (TRACK_HEIGHT + TRACK_GAP);
+        long max = 1;
+        for (long[] bin : bins) {
+            max = Math.max(max, bin[track]);
+        }
+        gc.setFill(TRACK_COLOURS[track]);
+        for (int i = 0; i < bins.length; i++) {
+            double height = TRACK_HEIGHT * bins[i][track] / (double) max;
+            gc.fillRect(MARGIN + i, top + TRACK_HEIGHT - height, 1, height);
+        }
+        gc.setFill(Color.BLACK);
+        gc.fillText(TRACK_NAMES[track] + " (max " + max + " per pixel)", MARGIN,
+                top - LABEL_OFFSET);
+        gc.fillText(from + " - " + (to - 1), MARGIN + WIDTH - 2 * TRACK_HEIGHT,
+                top - LABEL_OFFSET);
+    }
+
+    /**
+     * Draws a box around the part of the graph that is on the screen.
+     *
+     * @param gc The GraphicsContext to draw on.
+     */
+    private void drawViewBox(GraphicsContext gc) {
+        GraphDrawer drawer = GraphDrawer.getInstance();
+        if (drawer.getMostLeftNode() == null || drawer.getMostRightNode() == null) {
+            return;
+        }
+        double left = nodeToX(drawer.getMostLeftNode().getId());
+        double right = nodeToX(drawer.getMostRightNode().getId());
+        gc.setStroke(Color.RED);
+        gc.setLineWidth(1);
+        gc.strokeRect(left, MARGIN / 2, Math.max(right - left, 1), canvas.getHeight() - MARGIN);
+    }
+
+    /**
+     * Zooms in or out around the node under the mouse.
+     *
+     * @param event The scroll event.
+     */
+    private void scroll(ScrollEvent event) {
+        if (event.getDeltaY() == 0) {
+            return;
+        }
+        double centre = xToNode(event.getX());
+        double factor = event.getDeltaY() > 0 ? 1 / ZOOM_FACTOR : ZOOM_FACTOR;
+        int max = overview.getMaxNodeId() + 1;
+        int range = (int) Math.max(Math.min((to - from) * factor, max - 1), MIN_RANGE);
+        int newFrom = (int) (centre - (centre - from) * range / (double) (to - from));
+        from = Math.max(1, Math.min(newFrom, max - range));
+        to = Math.min(from + range, max);
+        draw();
+    }
+
+    /**
+     * Goes to the clicked node in the graph.
+     *
+     * @param event The mouse event.
+     */
+    private void click(MouseEvent event) {
+        int node = (int) xToNode(event.getX());
+        ZoomController.getInstance().traverseGraphClicked(node, menuController.getRadius());
+        GraphDrawer.getInstance().highlightNode(node);
+        menuController.updateRadius();
+        draw();
+    }
+
+    private double xToNode(double x) {
+        double fraction = Math.max(0, Math.min((x - MARGIN) / WIDTH, 1));
+        return from + fraction * (to - 1 - from);
+    }
+
+    private double nodeToX(int node) {
+        double fraction = Math.max(0, Math.min((node - from) / (double) (to - from), 1));
+        return MARGIN + fraction * WIDTH;
+    }
+}
@@ -0,0 +1,86 @@
+package gui;
+
+import javafx.scene.paint.Color;
+
+/**
+ * The drawing operations the GraphDrawer needs to render a frame.
+ * <p>
+ * Implemented by the CanvasPainter, which draws directly on the JavaFX canvas,
+ * and the BufferPainter, which rasterises into an off-screen pixel buffer.
+ */
+interface Painter {
+
+    /**
+     * @return the width of the drawing surface in pixels.
+     */
+    double getWidth();
+
+    /**
+     * @return the height of the drawing surface in pixels.
+     */
+    double getHeight();
+
+    /**
+     * Clears a rectangle to fully transparent.
+     *
+     * @param x      x-coordinate of the upper left corner.
+     * @param y      y-coordinate of the upper left corner.
+     * @param width  width of the rectangle.
+     * @param height height of the rectangle.
+     */
+    void clearRect(double x, double y, double width, double height);
+
+    void setFill(Color colour);
+
+    void setStroke(Color colour);
+
+    void setLineWidth(double lineWidth);
+
+    /**
+     * Fills a rectangle with the current fill colour.
+     *
+     * @param x      x-coordinate of the upper left corner.
+     * @param y      y-coordinate of the upper left corner.
+     * @param width  width of the rectangle.
+     * @param height height of the rectangle.
+     */
+    void fillRect(double x, double y, double width, double height);
+
+    /**
+     * Strokes the outline of a rectangle with the current stroke colour and line width.
+     *
+     * @param x      x-coordinate of the upper left corner.
+     * @param y      y-coordinate of the upper left corner.
+     * @param width  width of the rectangle.
+     * @param height height of the rectangle.
+     */
+    void strokeRect(double x, double y, double width, double height);
+
+    /**
+     * Strokes a line with the current stroke colour and line width.
+     *
+     * @param x1 x-coordinate of the start point.
+     * @param y1 y-coordinate of the start point.
+     * @param x2 x-coordinate of the end point.
+     * @param y2 y-coordinate of the end point.
+     */
+    void strokeLine(double x1, double y1, double x2, double y2);
+
+    /**
+     * Fills a polygon with the current fill colour.
+     *
+     * @param xPoints the x-coordinates of the points.
+     * @param yPoints the y-coordinates of the points.
+     * @param nPoints the number of points.
+     */
+    void fillPolygon(double[] xPoints, double[] yPoints, int nPoints);
+
+    /**
+     * Strokes the outline of a polygon with the current stroke colour and line width.
+     *
+     * @param xPoints the x-coordinates of the points.
+     * @param yPoints the y-coordinates of the points.
+     * @param nPoints the number of points.
+     */
+    void strokePolygon(double[] xPoints, double[] yPoints, int nPoints);
+}
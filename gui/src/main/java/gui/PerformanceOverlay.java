@@ -0,0 +1,63 @@
+package gui;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import perf.PerformanceMonitor;
+import perf.Phase;
+
+/**
+ * Draws the timings of the PerformanceMonitor in the upper right corner of the canvas.
+ * Every phase shows the median, 95th percentile and maximum of its recent timings.
+ */
+final class PerformanceOverlay {
+
+    private static final double WIDTH = 280;
+    private static final double MARGIN = 10;
+    private static final double LINE_HEIGHT = 14;
+    private static final int TEXT_SIZE = 11;
+    private static final double MEDIAN = 50;
+    private static final double HIGH = 95;
+    private static final double MAX = 100;
+    private static final double BYTES_PER_MB = 1024 * 1024;
+    private static final Color BACKGROUND = Color.rgb(255, 255, 255, 0.85);
+
+    private PerformanceOverlay() {
+    }
+
+    /**
+     * Draws the overlay.
+     *
+     * @param gc The GraphicsContext of the canvas.
+     */
+    static void draw(GraphicsContext gc) {
+        PerformanceMonitor monitor = PerformanceMonitor.getInstance();
+        int lines = Phase.values().length + 3;
+        double x = gc.getCanvas().getWidth() - WIDTH - MARGIN;
+        double y = MARGIN;
+        gc.setFill(BACKGROUND);
+        gc.fillRect(x, y, WIDTH, (lines + 1) * LINE_HEIGHT);
+        gc.setFill(Color.BLACK);
+        gc.setFont(new Font("Monospaced", TEXT_SIZE));
+        y += LINE_HEIGHT;
+        gc.fillText(String.format("%-17s %6s %6s %6s", "ms", "p50", "p95", "max"), x + MARGIN, y);
+        for (Phase phase : Phase.values()) {
+            y += LINE_HEIGHT;
+            gc.fillText(String.format("%-17s %6s %6s %6s", phase.getLabel(),
+                    format(monitor.percentile(phase, MEDIAN)),
+                    format(monitor.percentile(phase, HIGH)),
+                    format(monitor.percentile(phase, MAX))), x + MARGIN, y);
+        }
+        y += LINE_HEIGHT;
+        gc.fillText(String.format("Nodes %d  Edges %d  Draw calls %d", monitor.getFrameNodes(),
+                monitor.getFrameEdges(), monitor.getFrameDrawCalls()), x + MARGIN, y);
+        y += LINE_HEIGHT;
+        double rate = monitor.getAllocationRate();
+        gc.fillText(rate < 0 ? "Allocation rate unavailable"
+                : String.format("Allocation %.1f MB/s", rate / BYTES_PER_MB), x + MARGIN, y);
+    }
+
+    private static String format(double millis) {
+        return millis < 0 ? "-" : String.format("%.1f", millis);
+    }
+}
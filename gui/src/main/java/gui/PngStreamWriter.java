@@ -0,0 +1,155 @@
+package gui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a PNG image row by row, so the whole image never has to be in memory.
+ * <p>
+ * Rows are compressed as they come in and written in IDAT chunks of limited size.
+ * The image is 8 bit RGBA without filtering.
+ */
+final class PngStreamWriter implements Closeable {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int BIT_DEPTH = 8;
+    private static final int COLOUR_TYPE_RGBA = 6;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final DataOutputStream out;
+    private final int width;
+    private final int height;
+    private final byte[] row;
+    private final DeflaterOutputStream deflater;
+    private int rowsWritten;
+
+    /**
+     * Constructor, writes the header of the image.
+     *
+     * @param out    The stream to write the image to.
+     * @param width  The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @throws IOException when the header can not be written.
+     */
+    PngStreamWriter(OutputStream out, int width, int height) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.width = width;
+        this.height = height;
+        this.row = new byte[1 + width * BYTES_PER_PIXEL];
+        this.out.write(SIGNATURE);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(width);
+        headerData.writeInt(height);
+        headerData.writeByte(BIT_DEPTH);
+        headerData.writeByte(COLOUR_TYPE_RGBA);
+        headerData.writeByte(0);
+        headerData.writeByte(0);
+        headerData.writeByte(0);
+        writeChunk("IHDR", header.toByteArray(), header.size());
+        this.deflater = new DeflaterOutputStream(new ChunkStream(),
+                new Deflater(Deflater.DEFAULT_COMPRESSION), CHUNK_SIZE);
+    }
+
+    /**
+     * Writes rows of ARGB pixels.
+     *
+     * @param pixels The pixels, row by row, width pixels per row.
+     * @param rows   The number of rows to write.
+     * @throws IOException when the rows can not be written.
+     */
+    void writeRows(int[] pixels, int rows) throws IOException {
+        for (int y = 0; y < rows && rowsWritten < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                int argb = pixels[offset + x];
+                int index = 1 + x * BYTES_PER_PIXEL;
+                row[index] = (byte) (argb >> 16);
+                row[index + 1] = (byte) (argb >> 8);
+                row[index + 2] = (byte) argb;
+                row[index + 3] = (byte) (argb >>> 24);
+            }
+            deflater.write(row);
+            rowsWritten++;
+        }
+    }
+
+    /**
+     * Finishes the image data and writes the end of the image.
+     *
+     * @throws IOException when the image can not be finished.
+     */
+    @Override
+    public void close() throws IOException {
+        deflater.finish();
+        deflater.flush();
+        writeChunk("IEND", new byte[0], 0);
+        out.flush();
+        out.close();
+    }
+
+    /**
+     * Writes a chunk with its length and checksum.
+     *
+     * @param type   The type of the chunk.
+     * @param data   The data of the chunk.
+     * @param length The number of bytes of data.
+     * @throws IOException when the chunk can not be written.
+     */
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes("US-ASCII");
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Collects compressed data and writes it as IDAT chunks.
+     */
+    private final class ChunkStream extends OutputStream {
+
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private int size;
+
+        @Override
+        public void write(int b) throws IOException {
+            buffer[size++] = (byte) b;
+            if (size == buffer.length) {
+                flush();
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                int part = Math.min(length, buffer.length - size);
+                System.arraycopy(bytes, offset, buffer, size, part);
+                size += part;
+                offset += part;
+                length -= part;
+                if (size == buffer.length) {
+                    flush();
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (size > 0) {
+                writeChunk("IDAT", buffer, size);
+                size = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package gui;
+
+import graph.SequenceGraph;
+import graph.SequenceNode;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exports a range of nodes at any resolution to a PNG or SVG file.
+ * <p>
+ * The range is loaded as a separate sub graph and drawn by an off-screen GraphDrawer,
+ * so the view on screen is not affected. The sub graph is created on the thread that exports,
+ * so a large region does not freeze the user interface. PNG images are drawn tile by tile into a band of
+ * rows that is written to the file before the next band is drawn, so the memory used
+ * does not depend on the height of the image and stays small for very wide images.
+ * SVG images are streamed to the file shape by shape.
+ */
+final class RegionExporter {
+
+    private static final int TILE_WIDTH = 2048;
+    private static final int MAX_BAND_HEIGHT = 256;
+    private static final int MIN_BAND_HEIGHT = 16;
+    private static final int MAX_BAND_PIXELS = 1 << 22;
+
+    private final GraphDrawer drawer;
+    private final SequenceGraph region;
+    private final int fromNode;
+    private final int toNode;
+    private final int width;
+    private double xStart;
+    private double stepSize;
+    private int height;
+
+    /**
+     * Constructor. Must be called on the JavaFX thread, because it copies the settings of the
+     * GraphDrawer on screen.
+     *
+     * @param graph    The graph on screen, the sub graph is created from its full graph.
+     * @param fromNode The first node to export.
+     * @param toNode   The last node to export.
+     * @param width    The width of the image in pixels.
+     */
+    RegionExporter(SequenceGraph graph, int fromNode, int toNode, int width) {
+        this.region = graph.copy();
+        this.drawer = GraphDrawer.getInstance().createOffscreen();
+        this.fromNode = fromNode;
+        this.toNode = toNode;
+        this.width = Math.max(width, 1);
+    }
+
+    /**
+     * Loads the sub graph of the range and lays it out.
+     */
+    private void load() {
+        region.createSubGraph((fromNode + toNode) / 2, (toNode - fromNode) / 2 + 1);
+        drawer.setGraph(region);
+        int lastColumn = region.getColumns().size() - 1;
+        xStart = drawer.getColumnWidth(columnOf(region, fromNode, 0));
+        double xEnd = drawer.getColumnWidth(columnOf(region, toNode, lastColumn) + 1);
+        stepSize = width / Math.max(xEnd - xStart, 1);
+        height = (int) Math.ceil(drawer.getExportHeight());
+    }
+
+    /**
+     * Finds the column of a node.
+     *
+     * @param region        The sub graph.
+     * @param nodeID        The id of the node.
+     * @param defaultColumn The column to use if the node is not in the sub graph.
+     * @return The column of the node.
+     */
+    private static int columnOf(SequenceGraph region, int nodeID, int defaultColumn) {
+        SequenceNode node = region.getNode(nodeID);
+        return node == null ? defaultColumn : node.getColumn();
+    }
+
+    /**
+     * Loads the region and writes the image. The format is chosen by the extension of the file.
+     *
+     * @param file The file to write to, ending in .png or .svg.
+     * @throws IOException when the file can not be written.
+     */
+    void export(File file) throws IOException {
+        load();
+        if (file.getName().toLowerCase().endsWith(".svg")) {
+            exportSvg(file);
+        } else {
+            exportPng(file);
+        }
+    }
+
+    /**
+     * Draws the image band by band and streams every band into the PNG file.
+     *
+     * @param file The file to write to.
+     * @throws IOException when the file can not be written.
+     */
+    private void exportPng(File file) throws IOException {
+        int bandHeight = Math.max(MIN_BAND_HEIGHT,
+                Math.min(MAX_BAND_HEIGHT, MAX_BAND_PIXELS / width));
+        int[] band = new int[width * bandHeight];
+        BufferPainter tile = new BufferPainter(TILE_WIDTH, bandHeight);
+        try (PngStreamWriter png = new PngStreamWriter(
+                new BufferedOutputStream(new FileOutputStream(file)), width, height)) {
+            for (int top = 0; top < height; top += bandHeight) {
+                int rows = Math.min(bandHeight, height - top);
+                for (int left = 0; left < width; left += TILE_WIDTH) {
+                    int columns = Math.min(TILE_WIDTH, width - left);
+                    tile.resize(columns, rows);
+                    drawer.drawTile(tile, xStart + left / stepSize,
+                            drawer.getExportyDifference() + top, stepSize);
+                    for (int y = 0; y < rows; y++) {
+                        System.arraycopy(tile.getPixels(), y * columns,
+                                band, y * width + left, columns);
+                    }
+                }
+                png.writeRows(band, rows);
+            }
+        }
+    }
+
+    /**
+     * Streams the image as SVG shapes.
+     *
+     * @param file The file to write to.
+     * @throws IOException when the file can not be written.
+     */
+    private void exportSvg(File file) throws IOException {
+        SvgPainter svg = new SvgPainter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8)), width, height);
+        drawer.drawTile(svg, xStart, drawer.getExportyDifference(), stepSize);
+        svg.close();
+    }
+}
@@ -0,0 +1,143 @@
+package gui;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid of the rectangles drawn in one frame, used for hit-testing.
+ * <p>
+ * Rectangles are added while a frame is drawn. After build() each grid cell knows which
+ * rectangles overlap it, so a point query only has to look at the few rectangles
+ * in a single cell instead of at every node and annotation in the graph.
+ */
+final class SpatialIndex {
+
+    /**
+     * The kind of shape a rectangle belongs to.
+     */
+    static final int NODE = 0;
+    static final int ANNOTATION = 1;
+
+    private static final int CELL_SIZE = 32;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int columns;
+    private final int rows;
+    private final double width;
+    private final double height;
+
+    private int size;
+    private int[] kinds = new int[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private double[] bounds = new double[INITIAL_CAPACITY * 4];
+
+    private int[] cellStart;
+    private int[] cellEntries;
+
+    /**
+     * Constructor.
+     *
+     * @param width  width of the area that is indexed.
+     * @param height height of the area that is indexed.
+     */
+    SpatialIndex(double width, double height) {
+        this.width = Math.max(width, 1);
+        this.height = Math.max(height, 1);
+        this.columns = (int) Math.ceil(this.width / CELL_SIZE);
+        this.rows = (int) Math.ceil(this.height / CELL_SIZE);
+    }
+
+    /**
+     * Adds a rectangle. Rectangles that fall completely outside the area are ignored.
+     *
+     * @param kind the kind of shape, NODE or ANNOTATION.
+     * @param id   the id of the node or annotation.
+     * @param minX the left side.
+     * @param minY the top side.
+     * @param maxX the right side.
+     * @param maxY the bottom side.
+     */
+    void add(int kind, int id, double minX, double minY, double maxX, double maxY) {
+        if (maxX < 0 || maxY < 0 || minX > width || minY > height) {
+            return;
+        }
+        if (size == ids.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+            bounds = Arrays.copyOf(bounds, size * 2 * 4);
+        }
+        kinds[size] = kind;
+        ids[size] = id;
+        bounds[size * 4] = minX;
+        bounds[size * 4 + 1] = minY;
+        bounds[size * 4 + 2] = maxX;
+        bounds[size * 4 + 3] = maxY;
+        size++;
+    }
+
+    /**
+     * Distributes the added rectangles over the grid cells. Must be called before querying.
+     */
+    void build() {
+        cellStart = new int[columns * rows + 1];
+        for (int i = 0; i < size; i++) {
+            for (int row = rowOf(bounds[i * 4 + 1]); row <= rowOf(bounds[i * 4 + 3]); row++) {
+                for (int col = columnOf(bounds[i * 4]); col <= columnOf(bounds[i * 4 + 2]); col++) {
+                    cellStart[row * columns + col + 1]++;
+                }
+            }
+        }
+        for (int i = 1; i < cellStart.length; i++) {
+            cellStart[i] += cellStart[i - 1];
+        }
+        cellEntries = new int[cellStart[cellStart.length - 1]];
+        int[] filled = Arrays.copyOf(cellStart, cellStart.length - 1);
+        for (int i = 0; i < size; i++) {
+            for (int row = rowOf(bounds[i * 4 + 1]); row <= rowOf(bounds[i * 4 + 3]); row++) {
+                for (int col = columnOf(bounds[i * 4]); col <= columnOf(bounds[i * 4 + 2]); col++) {
+                    cellEntries[filled[row * columns + col]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the ids of the shapes of a kind that contain a point, in the order they were added.
+     *
+     * @param kind the kind of shape, NODE or ANNOTATION.
+     * @param x    x-coordinate of the point.
+     * @param y    y-coordinate of the point.
+     * @return the ids of the shapes containing the point.
+     */
+    int[] query(int kind, double x, double y) {
+        if (cellStart == null || x < 0 || y < 0 || x > width || y > height) {
+            return new int[0];
+        }
+        int cell = rowOf(y) * columns + columnOf(x);
+        int[] result = new int[cellStart[cell + 1] - cellStart[cell]];
+        int found = 0;
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            int entry = cellEntries[i];
+            if (kinds[entry] == kind
+                    && x > bounds[entry * 4] && x < bounds[entry * 4 + 2]
+                    && y > bounds[entry * 4 + 1] && y < bounds[entry * 4 + 3]) {
+                result[found++] = ids[entry];
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    /**
+     * @return the number of rectangles in the index.
+     */
+    int size() {
+        return size;
+    }
+
+    private int columnOf(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) (x / CELL_SIZE)));
+    }
+
+    private int rowOf(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) (y / CELL_SIZE)));
+    }
+}
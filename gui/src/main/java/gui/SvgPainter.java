@@ -0,0 +1,146 @@
+package gui;
+
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Painter that writes every shape as an SVG element to a stream.
+ * Nothing is kept in memory, so it can export graphs of any size.
+ */
+class SvgPainter implements Painter {
+
+    private static final int CHANNEL = 255;
+
+    private final Writer out;
+    private final double width;
+    private final double height;
+    private String fill = "fill=\"none\"";
+    private String stroke = "fill=\"none\"";
+    private double lineWidth = 1;
+
+    /**
+     * Constructor, writes the start of the document.
+     *
+     * @param out    The stream to write to.
+     * @param width  The width of the image.
+     * @param height The height of the image.
+     */
+    SvgPainter(Writer out, double width, double height) {
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        write(format("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%.1f\" height=\"%.1f\""
+                + " viewBox=\"0 0 %.1f %.1f\">\n", width, height, width, height));
+    }
+
+    /**
+     * Writes the end of the document and closes the stream.
+     *
+     * @throws IOException when the stream can not be closed.
+     */
+    void close() throws IOException {
+        write("</svg>\n");
+        out.close();
+    }
+
+    @Override
+    public double getWidth() {
+        return width;
+    }
+
+    @Override
+    public double getHeight() {
+        return height;
+    }
+
+    @Override
+    public void clearRect(double x, double y, double w, double h) {
+    }
+
+    @Override
+    public void setFill(Color colour) {
+        this.fill = toSvg(colour);
+    }
+
+    @Override
+    public void setStroke(Color colour) {
+        this.stroke = toSvg(colour);
+    }
+
+    @Override
+    public void setLineWidth(double lineWidth) {
+        this.lineWidth = lineWidth;
+    }
+
+    @Override
+    public void fillRect(double x, double y, double w, double h) {
+        write(format("<rect x=\"%.2f\" y=\"%.2f\" width=\"%.2f\" height=\"%.2f\" %s/>\n",
+                x, y, w, h, fill));
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double w, double h) {
+        write(format("<rect x=\"%.2f\" y=\"%.2f\" width=\"%.2f\" height=\"%.2f\""
+                + " fill=\"none\" %s/>\n", x, y, w, h, strokeAttributes()));
+    }
+
+    @Override
+    public void strokeLine(double x1, double y1, double x2, double y2) {
+        write(format("<line x1=\"%.2f\" y1=\"%.2f\" x2=\"%.2f\" y2=\"%.2f\" %s/>\n",
+                x1, y1, x2, y2, strokeAttributes()));
+    }
+
+    @Override
+    public void fillPolygon(double[] xPoints, double[] yPoints, int nPoints) {
+        write("<polygon points=\"" + points(xPoints, yPoints, nPoints) + "\" " + fill + "/>\n");
+    }
+
+    @Override
+    public void strokePolygon(double[] xPoints, double[] yPoints, int nPoints) {
+        write("<polygon points=\"" + points(xPoints, yPoints, nPoints) + "\" fill=\"none\" "
+                + strokeAttributes() + "/>\n");
+    }
+
+    private String strokeAttributes() {
+        return stroke.replace("fill", "stroke") + format(" stroke-width=\"%.2f\"", lineWidth);
+    }
+
+    private static String points(double[] xPoints, double[] yPoints, int nPoints) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < nPoints; i++) {
+            builder.append(format("%.2f,%.2f ", xPoints[i], yPoints[i]));
+        }
+        return builder.toString().trim();
+    }
+
+    /**
+     * Converts a colour to fill attributes.
+     *
+     * @param colour The colour.
+     * @return The fill and fill-opacity attributes.
+     */
+    private static String toSvg(Color colour) {
+        if (colour == null) {
+            return "fill=\"none\"";
+        }
+        return format("fill=\"rgb(%d,%d,%d)\" fill-opacity=\"%.3f\"",
+                Math.round(colour.getRed() * CHANNEL), Math.round(colour.getGreen() * CHANNEL),
+                Math.round(colour.getBlue() * CHANNEL), colour.getOpacity());
+    }
+
+    private static String format(String format, Object... args) {
+        return String.format(Locale.ROOT, format, args);
+    }
+
+    private void write(String text) {
+        try {
+            out.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package gui.sub_controllers;
+
+import graph.SequenceGraph;
+import gui.GraphDrawer;
+import javafx.application.Platform;
+import structures.Annotation;
+import structures.AnnotationIndex;
+import structures.AnnotationSet;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Steps through the selected annotations of the active annotation set, in the order of
+ * their starts.
+ * <p>
+ * The nodes of an annotation are found with the coordinate index of the genome of its set.
+ * After every step the sub graphs around the next few annotations are created and laid out
+ * on a background thread, so the next step only has to show a graph that is ready.
+ * A sub graph is used once, as the drawer changes the nodes it shows.
+ */
+public final class AnnotationNavigator {
+
+    private static final int PREFETCHED = 3;
+    private static final int MAX_RADIUS = 4000;
+    private static final int MIN_RADIUS = 7;
+    private static final double RADIUS_MARGIN = 1.2;
+    private static final ExecutorService PREFETCHER = Executors.newSingleThreadExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "annotation-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final AnnotationNavigator NAVIGATOR = new AnnotationNavigator();
+
+    private final Map<Integer, CompletableFuture<SequenceGraph>> subGraphs =
+            new LinkedHashMap<>();
+    private String setName;
+    private int position = -1;
+    private int steps;
+
+    private AnnotationNavigator() {
+    }
+
+    /**
+     * @return the navigator.
+     */
+    public static AnnotationNavigator getInstance() {
+        return NAVIGATOR;
+    }
+
+    /**
+     * Goes to the next selected annotation of the active set.
+     */
+    public void next() {
+        step(1);
+    }
+
+    /**
+     * Goes to the previous selected annotation of the active set.
+     */
+    public void previous() {
+        step(-1);
+    }
+
+    /**
+     * Forgets the prefetched sub graphs, for example when another graph is opened.
+     */
+    public void reset() {
+        subGraphs.clear();
+        setName = null;
+        position = -1;
+    }
+
+    private void step(int direction) {
+        AnnotationSet set = GraphDrawer.getInstance().getActiveAnnotations();
+        if (set == null || set.getGenome() < 0) {
+            return;
+        }
+        AnnotationIndex annotations = set.getAnnotations();
+        int from = position;
+        if (!set.getName().equals(setName)) {
+            from = direction > 0 ? -1 : annotations.size();
+        }
+        int next = annotations.nextSelected(from, direction);
+        if (next >= 0) {
+            goTo(set, annotations.getAll().get(next));
+            prefetch(set, next, direction);
+        }
+    }
+
+    /**
+     * Goes to an annotation and highlights it. The next step starts from this annotation.
+     *
+     * @param set        the set of the annotation.
+     * @param annotation the annotation.
+     */
+    public void goTo(AnnotationSet set, Annotation annotation) {
+        setName = set.getName();
+        position = set.getAnnotations().indexOf(annotation.getId());
+        int[] view;
+        try {
+            view = findView(set, annotation);
+        } catch (StackOverflowError e) {
+            AnnotationPopUpController popUp = new AnnotationPopUpController();
+            popUp.loadNoAnnotationFound("Sorry, can't find this annotation.");
+            System.err.println("Sorry, too many nodes without ref to hold in memory.");
+            return;
+        }
+        final int step = ++steps;
+        if (GraphDrawer.getInstance().getGraph().getNodes().containsKey(view[0])) {
+            show(view, null, annotation);
+            return;
+        }
+        CompletableFuture<SequenceGraph> subGraph = subGraphs.remove(view[0]);
+        if (subGraph == null) {
+            subGraph = createSubGraph(view[0]);
+        }
+        subGraph.whenComplete((graph, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Can not go to the annotation: " + error.getMessage());
+            } else if (step == steps) {
+                show(view, graph, annotation);
+            }
+        }));
+    }
+
+    /**
+     * Finds the part of the graph to show an annotation in.
+     *
+     * @param set        the set of the annotation.
+     * @param annotation the annotation.
+     * @return the centre node and the radius around it.
+     * @throws StackOverflowError when the graph is too complex to find the nodes.
+     */
+    private static int[] findView(AnnotationSet set, Annotation annotation)
+            throws StackOverflowError {
+        GraphDrawer drawer = GraphDrawer.getInstance();
+        int startNodeID = drawer.hongerInAfrika(annotation.getStart(), set.getGenome());
+        int endNodeID = drawer.hongerInAfrika(annotation.getEnd(), set.getGenome());
+        int radius = (int) ((endNodeID - startNodeID) * RADIUS_MARGIN);
+        if (radius > MAX_RADIUS) {
+            return new int[] {startNodeID, MAX_RADIUS};
+        }
+        return new int[] {(endNodeID + startNodeID) / 2, Math.max(radius, MIN_RADIUS)};
+    }
+
+    /**
+     * Shows the view of an annotation.
+     *
+     * @param view       the centre node and the radius around it.
+     * @param graph      the sub graph around the centre node, or null if it is shown already.
+     * @param annotation the annotation to highlight.
+     */
+    private static void show(int[] view, SequenceGraph graph, Annotation annotation) {
+        GraphDrawer drawer = GraphDrawer.getInstance();
+        if (graph != null && !drawer.getGraph().getNodes().containsKey(view[0])) {
+            drawer.setGraph(graph);
+            drawer.setxDifference(0);
+        }
+        ZoomController.getInstance().traverseGraphClicked(view[0], view[1]);
+        drawer.highlightAnnotation(annotation);
+    }
+
+    /**
+     * Creates the sub graphs around the next annotations in the background,
+     * and forgets the ones that were created for other annotations.
+     *
+     * @param set       the annotation set.
+     * @param position  the position of the annotation that is shown.
+     * @param direction the direction that is stepped in.
+     */
+    private void prefetch(AnnotationSet set, int position, int direction) {
+        AnnotationIndex annotations = set.getAnnotations();
+        Set<Integer> wanted = new HashSet<>();
+        int next = position;
+        for (int i = 0; i < PREFETCHED; i++) {
+            next = annotations.nextSelected(next, direction);
+            if (next < 0) {
+                break;
+            }
+            int centre;
+            try {
+                centre = findView(set, annotations.getAll().get(next))[0];
+            } catch (StackOverflowError e) {
+                break;
+            }
+            wanted.add(centre);
+            if (!GraphDrawer.getInstance().getGraph().getNodes().containsKey(centre)
+                    && !subGraphs.containsKey(centre)) {
+                subGraphs.put(centre, createSubGraph(centre));
+            }
+        }
+        subGraphs.keySet().retainAll(wanted);
+    }
+
+    /**
+     * Creates and lays out a sub graph on the prefetch thread.
+     *
+     * @param centre the centre node of the sub graph.
+     * @return the sub graph, when it is ready.
+     */
+    private static CompletableFuture<SequenceGraph> createSubGraph(int centre) {
+        SequenceGraph graph = GraphDrawer.getInstance().getGraph().copy();
+        return CompletableFuture.supplyAsync(() -> {
+            graph.createSubGraph(centre, PanningController.RENDER_RANGE);
+            return graph;
+        }, PREFETCHER);
+    }
+}
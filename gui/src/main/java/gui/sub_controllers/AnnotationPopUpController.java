@@ -37,8 +37,18 @@ public class AnnotationPopUpController {
     }
 
     public void loadNoAnnotationFound(String message) {
+        loadMessage("Annotation not found.", message);
+    }
+
+    /**
+     * Shows a message in a pop up with an Ok button.
+     *
+     * @param title   The title of the pop up.
+     * @param message The message to display.
+     */
+    public void loadMessage(String title, String message) {
         try {
-            popUp();
+            popUp(title);
             Ok.addEventHandler(MouseEvent.MOUSE_CLICKED,
                     new EventHandler<MouseEvent>() {
                         @Override
@@ -53,13 +63,13 @@ public class AnnotationPopUpController {
         }
     }
 
-    private void popUp() throws IOException {
+    private void popUp(String title) throws IOException {
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/FXML/annoPopUp.fxml"));
         loader.setController(this);
         Parent root = loader.load();
         stage = new Stage();
         stage.setScene(new Scene(root));
-        stage.setTitle("Annotation not found.");
+        stage.setTitle(title);
         stage.initModality(Modality.APPLICATION_MODAL);
     }
 
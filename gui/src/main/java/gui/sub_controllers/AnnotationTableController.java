@@ -0,0 +1,285 @@
+package gui.sub_controllers;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.fxml.FXML;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.cell.CheckBoxTableCell;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import structures.Annotation;
+import structures.AnnotationIndex;
+import structures.AnnotationSet;
+import structures.Selection;
+
+import java.util.BitSet;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+
+/**
+ * View-Controller for the genome table.
+ *
+ * @author Marco Jakob -> from http://code.makery.ch/blog/javafx-8-tableview-sorting-filtering/
+ *         Changed to view and change annotations by Jip Rietveld
+ */
+public class AnnotationTableController implements Observer {
+
+    private static final Duration SEARCH_DELAY = Duration.millis(250);
+    private static final ExecutorService SEARCHER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "annotation-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @FXML
+    private TextField filterField;
+    @FXML
+    private TableView<Annotation> annotationTable;
+    @FXML
+    private TableColumn<Annotation, Integer> startColumn;
+    @FXML
+    private TableColumn<Annotation, Integer> endColumn;
+    @FXML
+    private TableColumn<Annotation, String> infoColumn;
+    @FXML
+    private TableColumn<Annotation, Boolean> highlightColumn;
+
+    private FilteredList<Annotation> filteredData;
+    private SortedList<Annotation> sortedData;
+    private AnnotationSet annotationSet;
+    private AnnotationIndex annotations;
+    private boolean allSelected;
+    private final PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
+    private BitSet matches;
+    private int searches;
+
+    /**
+     * Just add some sample data in the constructor.
+     */
+    public AnnotationTableController() {
+    }
+
+    /**
+     * Initializes the controller class.
+     * Needs to be called manually to get the data.
+     * Initializes the table columns and sets up sorting and filtering.
+     *
+     * @param annotationsArg the annotations to load into the table, or null if there are none.
+     */
+    @FXML
+    public void initialize(AnnotationSet annotationsArg) {
+        allSelected = false;
+
+        // 0. Initialize the columns.
+        initializeColumns();
+
+        // 0.1 setRight editable columns
+        setEditable();
+
+        // 1. Search when the user stopped typing for a moment.
+        filterField.textProperty().addListener((observable, oldValue, newValue) -> {
+            searchDelay.setOnFinished(event -> search(newValue));
+            searchDelay.playFromStart();
+        });
+
+        // 2. Show the annotations.
+        setAnnotations(annotationsArg);
+    }
+
+    /**
+     * Shows other annotations, like more annotations of a file that is still being loaded.
+     *
+     * @param annotationsArg the annotations to show, or null if there are none.
+     */
+    private void setAnnotations(AnnotationSet annotationsArg) {
+        this.annotationSet = annotationsArg;
+        this.annotations = annotationsArg == null ? AnnotationIndex.empty()
+                : annotationsArg.getAnnotations();
+
+        // Wraps the annotations instead of copying them, the cells make their properties.
+        ObservableList<Annotation> masterData = FXCollections.observableList(annotations.getAll());
+
+        // 1. Wrap the ObservableList in a FilteredList with the last results.
+        filteredData = new FilteredList<>(masterData, filter(matches));
+
+        // 2. Wrap the FilteredList in a SortedList.
+        sortedData = new SortedList<>(filteredData);
+
+        // 3. Bind the SortedList comparator to the TableView comparator.
+        sortedData.comparatorProperty().bind(annotationTable.comparatorProperty());
+
+        // 4. Add sorted (and filtered) data to the table.
+        annotationTable.setItems(sortedData);
+
+        // 5. Search the new annotations as well.
+        if (!filterField.getText().isEmpty()) {
+            search(filterField.getText());
+        }
+    }
+
+    /**
+     * Searches the annotations on the search thread, and filters the table on the results
+     * unless the text or the annotations changed in the mean time. The search index of a set
+     * of annotations is only built when it is searched the first time.
+     *
+     * @param filterText the text in the filter field.
+     */
+    private void search(String filterText) {
+        final int search = ++searches;
+        final AnnotationIndex searched = annotations;
+        SEARCHER.execute(() -> {
+            BitSet found = filterText == null ? null
+                    : searched.getStore().getSearch().find(filterText);
+            Platform.runLater(() -> {
+                if (search == searches && searched == annotations) {
+                    matches = found;
+                    filteredData.setPredicate(filter(found));
+                }
+            });
+        });
+    }
+
+    /**
+     * @param found the ids of the annotations that were found, or null to show all.
+     * @return the predicate that accepts the annotations that were found.
+     */
+    private static Predicate<Annotation> filter(BitSet found) {
+        if (found == null) {
+            return annotation -> true;
+        }
+        return annotation -> found.get(annotation.getId());
+    }
+
+    @Override
+    public void update(Observable o, Object arg) {
+        if (arg instanceof AnnotationSet) {
+            AnnotationSet set = (AnnotationSet) arg;
+            if (annotationSet == null || annotationSet.getName().equals(set.getName())) {
+                setAnnotations(set);
+            }
+        }
+    }
+
+    /**
+     * Method that sets the columns and table to the correct editable state.
+     */
+    private void setEditable() {
+        annotationTable.setEditable(true);
+        startColumn.setEditable(false);
+        endColumn.setEditable(false);
+        infoColumn.setEditable(false);
+        highlightColumn.setEditable(true);
+    }
+
+    /**
+     * Method that initializes the columns with the right factories.
+     */
+    private void initializeColumns() {
+        startColumn.setCellValueFactory(new PropertyValueFactory<>("start"));
+        endColumn.setCellValueFactory(new PropertyValueFactory<>("end"));
+        infoColumn.setCellValueFactory(new PropertyValueFactory<>("info"));
+        highlightColumn.setCellValueFactory(param -> {
+            Annotation annotation = param.getValue();
+            SimpleBooleanProperty selected = new SimpleBooleanProperty(annotation.isSelected());
+            selected.addListener((observable, oldValue, newValue) ->
+                    annotation.setSelected(newValue));
+            return selected;
+        });
+        highlightColumn.setCellFactory(CheckBoxTableCell.forTableColumn(highlightColumn));
+        annotationTable.setRowFactory(tv -> {
+            TableRow<Annotation> row = new TableRow<>();
+            row.setOnMouseClicked(event -> {
+                if (event.getClickCount() == 2 && (!row.isEmpty())) {
+                    Annotation annotation = row.getItem();
+                    goToAnnotation(annotation);
+                    close();
+                }
+            });
+            return row;
+        });
+    }
+
+    /**
+     * Method that goes to the annotation and highlights it.
+     *
+     * @param annotation the Annotation to go to.
+     */
+    private void goToAnnotation(Annotation annotation) {
+        AnnotationNavigator.getInstance().goTo(annotationSet, annotation);
+    }
+
+    /**
+     * Handles pressing the save button.
+     */
+    @FXML
+    public void saveButtonClicked() {
+        Annotation annotation = annotationTable.getSelectionModel().getSelectedItem();
+        if (annotation != null) {
+            goToAnnotation(annotation);
+        }
+        close();
+    }
+
+    /**
+     * Handles pressing the cancel button.
+     */
+    public void cancelButtonClicked() {
+        close();
+    }
+
+    /**
+     * A general function that closes the stage.
+     */
+    private void close() {
+        Stage stage = (Stage) annotationTable.getScene().getWindow();
+        stage.close();
+    }
+
+    /**
+     * Can select/deselect the entire sortedData at the same time.
+     */
+    @FXML
+    public void selectAllFiltered() {
+        Selection selection = annotations.getStore().getSelection();
+        if (matches == null) {
+            if (allSelected) {
+                selection.clear();
+            } else {
+                selection.selectAll();
+            }
+        } else if (allSelected) {
+            selection.deselect(matches);
+        } else {
+            selection.select(matches);
+        }
+        annotationTable.refresh();
+        allSelected = !allSelected;
+    }
+
+    /**
+     * Inverts which of the annotations in the table are selected.
+     */
+    @FXML
+    public void invertFiltered() {
+        Selection selection = annotations.getStore().getSelection();
+        if (matches == null) {
+            selection.invert();
+        } else {
+            selection.invert(matches);
+        }
+        annotationTable.refresh();
+    }
+}
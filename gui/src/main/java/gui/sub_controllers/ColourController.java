@@ -1,15 +1,18 @@
 package gui.sub_controllers;
 
 import javafx.scene.paint.Color;
+import structures.Selection;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Created by Jip on 8-6-2017.
  * <p>
  * The class handles the colour of the nodes.
  * <p>
- * It takes a int[] representing the selected genomes.
+ * It takes a selection of genomes, and ranks the selected genomes by their id once,
+ * so finding the colour of a genome is a lookup instead of a search.
  * If it's empty it will always return the base.
  * If it is small it will find the correct colours for the relevant genomes.
  * If it is large it will choose a colour red wich is intense or not based on overlap.
@@ -22,7 +25,9 @@ public class ColourController {
     private static final Color EDGE_BASE_COLOUR = Color.BLACK;
     private static final Color NODE_BASE_COLOUR = Color.gray(0.5098);
 
-    private int[] selectedGenomes;
+    private Selection selectedGenomes;
+    private int[] positions;
+    private int selectedCount;
     private boolean rainbowView;
     private int lowerPart;
     private int middlePart;
@@ -34,10 +39,10 @@ public class ColourController {
     /**
      * Constructor of the colourController.
      *
-     * @param allSelectedGenomes A int[] with all the selected genomes.
+     * @param allSelectedGenomes A selection of all the selected genomes.
      * @param rainbowViewArg     A boolean with if rainbowView is turned on or off.
      */
-    public ColourController(int[] allSelectedGenomes, boolean rainbowViewArg) {
+    public ColourController(Selection allSelectedGenomes, boolean rainbowViewArg) {
         selectedGenomes = allSelectedGenomes;
         this.rainbowView = rainbowViewArg;
         initialize();
@@ -47,7 +52,13 @@ public class ColourController {
      * Initializes the colourController.
      */
     private void initialize() {
-        int size = selectedGenomes.length;
+        positions = new int[selectedGenomes.size()];
+        Arrays.fill(positions, -1);
+        int size = 0;
+        for (int genome : selectedGenomes.toArray()) {
+            positions[genome] = size++;
+        }
+        selectedCount = size;
 
         if (size == 0) {
             return;
@@ -85,12 +96,12 @@ public class ColourController {
     /**
      * Gets a colour assigned to the selected genome.
      *
-     * @param positionInSelection an integer representing it's position in the selectedGenomes array
+     * @param positionInSelection an integer representing it's rank among the selected genomes
      * @return A color.
      */
     private Color getSingle(int positionInSelection) {
-        double hue = (360 / selectedGenomes.length) * positionInSelection;
-        double brightness = 0.8 + (0.2 / selectedGenomes.length) * positionInSelection;
+        double hue = (360 / selectedCount) * positionInSelection;
+        double brightness = 0.8 + (0.2 / selectedCount) * positionInSelection;
         return Color.hsb(hue, 1, brightness);
     }
 
@@ -124,7 +135,7 @@ public class ColourController {
     public ArrayList<Color> getNodeColours(int[] genomes) {
         ArrayList<Color> res = new ArrayList<Color>();
         //If there is no selection, it should only be the base colour.
-        if (selectedGenomes.length == 0) {
+        if (selectedCount == 0) {
             res.add(NODE_BASE_COLOUR);
             return res;
         }
@@ -183,7 +194,7 @@ public class ColourController {
     public ArrayList<Color> getEdgeColours(int[] genomes) {
         ArrayList<Color> res = new ArrayList<Color>();
         //If there is no selection, it should only be the base colour.
-        if (selectedGenomes.length == 0) {
+        if (selectedCount == 0) {
             res.add(EDGE_BASE_COLOUR);
             return res;
         }
@@ -208,7 +219,7 @@ public class ColourController {
     public ArrayList<Color> getSNPEdgeColours(int[] genomes) {
         ArrayList<Color> res = new ArrayList<Color>();
         //If there is no selection, it should not be drawn
-        if (selectedGenomes.length == 0) {
+        if (selectedCount == 0) {
             return res;
         }
 
@@ -222,7 +233,7 @@ public class ColourController {
     private int getSizeContained(int[] genomes) {
         int res = 0;
         for (int genome : genomes) {
-            if (contains(selectedGenomes, genome)) {
+            if (positionOf(genome) != -1) {
                 res++;
             }
         }
@@ -238,7 +249,7 @@ public class ColourController {
     private ArrayList<Color> rainbowViewColours(int[] genomes) {
         ArrayList<Color> res = new ArrayList<>();
         for (int genome : genomes) {
-            int check = containsPos(selectedGenomes, genome);
+            int check = positionOf(genome);
             if (check != -1) {
                 res.add(getSingle(check));
             }
@@ -246,7 +257,21 @@ public class ColourController {
         return res;
     }
 
-    public void setSelectedGenomes(int[] selected) {
+    /**
+     * @param genome the id of a genome.
+     * @return the rank of the genome among the selected genomes, or -1 if it is not selected.
+     */
+    private int positionOf(int genome) {
+        return genome >= 0 && genome < positions.length ? positions[genome] : -1;
+    }
+
+    /**
+     * Sets the selected genomes and ranks them. Later changes to the selection are only
+     * shown after it is set again.
+     *
+     * @param selected the selected genomes.
+     */
+    public void setSelectedGenomes(Selection selected) {
         this.selectedGenomes = selected;
         initialize();
     }
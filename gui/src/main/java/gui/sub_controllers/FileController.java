@@ -0,0 +1,339 @@
+package gui.sub_controllers;
+
+import gui.GraphDrawer;
+import structures.AnnotationIndex;
+import structures.AnnotationSet;
+import gui.DrawableCanvas;
+import javafx.application.Platform;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import parser.GfaParser;
+import parser.GraphCache;
+import parser.GffParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Controller for opening a file.
+ */
+public class FileController extends Observable implements Observer {
+
+    private static final int GFF_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService GFF_LOADER = Executors.newCachedThreadPool(
+            runnable -> daemon(runnable, "gff-loader"));
+    private static final ExecutorService GFF_WORKERS = Executors.newFixedThreadPool(
+            GFF_THREADS, runnable -> daemon(runnable, "gff-parser"));
+
+    private File gfaParDirectory;
+    private File gffParDirectory;
+    private final ProgressBarController progressBarController;
+    private Thread parseThread;
+    private final Map<String, GffLoad> gffLoads = new HashMap<>();
+    private final Map<String, GffParser> gffParsers = new HashMap<>();
+
+    /**
+     * Constructor of the FileController object to control the Files.
+     *
+     * @param pbc The progressbar.
+     */
+    public FileController(ProgressBarController pbc) {
+        gfaParDirectory = null;
+        gffParDirectory = null;
+        progressBarController = pbc;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * When 'open gfa file' is clicked this method opens a filechooser from which a gfa.
+     * can be selected and directly be visualised on the screen.
+     *
+     * @param stage The stage on which the fileFinder is shown.
+     * @return returns the file that can be loaded.
+     */
+    public File chooseGfaFile(Stage stage) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Open Resource File");
+
+        if (gfaParDirectory == null) {
+            fileChooser.setInitialDirectory(
+                    new File(System.getProperty("user.dir")).getParentFile()
+            );
+        } else {
+            fileChooser.setInitialDirectory(
+                    gfaParDirectory
+            );
+        }
+
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("GFA", "*.gfa")
+        );
+        File res = fileChooser.showOpenDialog(stage);
+        gfaParDirectory = res.getParentFile();
+        return res;
+    }
+
+    /**
+     * When 'open gff file' is clicked this method opens a filechooser from which
+     * one or more gff files can be selected, to load them at the same time.
+     *
+     * @param stage The stage on which the fileFinder is shown.
+     * @return returns the files that can be loaded, or null if none were chosen.
+     */
+    public List<File> chooseGffFiles(Stage stage) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Open Annotation Files");
+
+        if (gffParDirectory == null) {
+            fileChooser.setInitialDirectory(
+                    new File(System.getProperty("user.dir")).getParentFile()
+            );
+        } else {
+            fileChooser.setInitialDirectory(
+                    gffParDirectory
+            );
+        }
+
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("GFF", "*.gff")
+        );
+        List<File> res = fileChooser.showOpenMultipleDialog(stage);
+        if (res != null && !res.isEmpty()) {
+            gffParDirectory = res.get(0).getParentFile();
+        }
+        return res;
+    }
+
+
+    /**
+     * When 'open gfa file' is clicked this method opens a filechooser from which a gfa.
+     * can be selected and directly be visualised on the screen.
+     *
+     * @param filePath the filePath of the file.
+     */
+    public void openGfaFileClicked(String filePath) {
+        unloadAnnotations();
+        if (DrawableCanvas.getInstance().getParser() != null) {
+            DrawableCanvas.getInstance().getParser().close();
+        }
+        GfaParser parser = new GfaParser(filePath);
+        DrawableCanvas.getInstance().setParser(parser);
+        parser.addObserver(this);
+        this.addObserver(DrawableCanvas.getInstance());
+        GraphDrawer.getInstance().setyDifference(0);
+        if (!parser.isInMemory()) {
+            try {
+                GraphCache.Entry entry = parser.getCacheEntry();
+                if (entry.isInterrupted()) {
+                    PopUpController popUpController = new PopUpController();
+                    String message = "Database File is corrupt,"
+                            + " press 'Reload' to reload the file," + "\n"
+                            + "or press 'Resume' to recover the data still available.";
+                    popUpController.loadDbCorruptPopUp(entry, message);
+                }
+            } catch (IOException e) {
+                System.err.println("Can not read " + filePath + ": " + e.getMessage());
+            }
+        }
+        if (this.parseThread != null) {
+            this.parseThread.interrupt();
+        }
+        this.parseThread = new Thread(parser);
+        this.parseThread.start();
+        progressBarController.run();
+    }
+
+    /**
+     * Opens a gff file on a background thread, of which the chunks are parsed in parallel.
+     * Several files can be loaded at the same time, each as its own AnnotationSet.
+     * The annotations are shown while they are loaded, and the observers are notified of
+     * every AnnotationSet. Opening a file again stops loading it the previous time.
+     * The parser of the annotations is closed when they are replaced or unloaded, so the
+     * cache keeps the mapped annotations as long as they are shown.
+     * If the file can not be read the annotations of it are no longer shown.
+     *
+     * @param filePath The filepath where we should open it
+     * @return All the annotations, completed on the JavaFX thread.
+     * Completed exceptionally if the file can not be read or loading it was stopped.
+     */
+    public CompletableFuture<AnnotationSet> openGffFileClicked(String filePath) {
+        GffLoad previous = gffLoads.get(filePath);
+        if (previous != null) {
+            previous.future.cancel(true);
+        }
+        GffParser parser = new GffParser(filePath, DrawableCanvas.getInstance().getParser());
+        parser.addObserver(this);
+        GffLoad load = new GffLoad(parser);
+        gffLoads.put(filePath, load);
+        progressBarController.run();
+        CompletableFuture<AnnotationSet> result = new CompletableFuture<>();
+        load.future = GFF_LOADER.submit(() -> {
+            try {
+                AnnotationIndex annotations = parser.parseGff(GFF_WORKERS, GFF_THREADS);
+                Platform.runLater(() -> loaded(load, new AnnotationSet(filePath,
+                        parser.getSuggestedGenome(), annotations), result));
+            } catch (IOException | RuntimeException e) {
+                Platform.runLater(() -> failed(load, e, result));
+            } finally {
+                Platform.runLater(() -> {
+                    if (gffLoads.remove(filePath, load) && gffLoads.isEmpty()) {
+                        progressBarController.done();
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Keeps the parser of annotations that finished loading, and closes the parser of the
+     * annotations of the same file they replace. Annotations of a load that was stopped
+     * are not shown.
+     *
+     * @param load   the load that finished.
+     * @param set    the annotations.
+     * @param result completed with the annotations.
+     */
+    private void loaded(GffLoad load, AnnotationSet set, CompletableFuture<AnnotationSet> result) {
+        if (gffLoads.get(set.getName()) != load) {
+            load.parser.close();
+            result.completeExceptionally(new InterruptedIOException("Stopped loading"));
+            return;
+        }
+        GffParser previous = gffParsers.put(set.getName(), load.parser);
+        if (previous != null) {
+            previous.close();
+        }
+        result.complete(set);
+    }
+
+    /**
+     * Closes the parser of annotations that could not be loaded. Unless the file is being
+     * loaded again, the annotations of it that were already shown are removed, together
+     * with the annotations it was loaded before.
+     *
+     * @param load   the load that failed.
+     * @param error  why it failed.
+     * @param result completed with the error.
+     */
+    private void failed(GffLoad load, Exception error, CompletableFuture<AnnotationSet> result) {
+        String filePath = load.parser.getFilePath();
+        load.parser.close();
+        if (gffLoads.get(filePath) == load) {
+            GffParser previous = gffParsers.remove(filePath);
+            if (previous != null) {
+                previous.close();
+            }
+            GraphDrawer.getInstance().removeAnnotations(filePath);
+            GraphDrawer.getInstance().redraw();
+        }
+        result.completeExceptionally(error);
+    }
+
+    /**
+     * Stops loading gff files and closes the parsers of the annotations, for example when
+     * another graph is opened.
+     */
+    private void unloadAnnotations() {
+        for (GffLoad load : gffLoads.values()) {
+            load.future.cancel(true);
+        }
+        gffLoads.clear();
+        for (GffParser parser : gffParsers.values()) {
+            parser.close();
+        }
+        gffParsers.clear();
+    }
+
+    /**
+     * Shows the annotations of a file that have been loaded so far, on the genome the file
+     * names. The new annotations are selected.
+     *
+     * @param parser      the parser that loaded the annotations.
+     * @param annotations the annotations.
+     */
+    private void showAnnotations(GffParser parser, AnnotationIndex annotations) {
+        GffLoad load = gffLoads.get(parser.getFilePath());
+        if (load == null || load.parser != parser) {
+            return;
+        }
+        annotations.getStore().select(load.selected, annotations.size());
+        load.selected = annotations.size();
+        AnnotationSet set = new AnnotationSet(parser.getFilePath(),
+                parser.getSuggestedGenome(), annotations);
+        GraphDrawer.getInstance().setAnnotations(set);
+        GraphDrawer.getInstance().redraw();
+        setChanged();
+        notifyObservers(set);
+    }
+
+    /**
+     * Shows the progress of all gff files that are being loaded, as the part of their bytes
+     * that has been parsed, so files that load at the same time do not move the bar back.
+     *
+     * @param parser   the parser that made progress.
+     * @param progress the part of its file that has been parsed.
+     */
+    private void showProgress(GffParser parser, double progress) {
+        GffLoad load = gffLoads.get(parser.getFilePath());
+        if (load == null || load.parser != parser) {
+            return;
+        }
+        load.progress = progress;
+        long totalBytes = 0;
+        double parsedBytes = 0;
+        for (GffLoad each : gffLoads.values()) {
+            totalBytes += each.bytes;
+            parsedBytes += each.progress * each.bytes;
+        }
+        progressBarController.setProgress(totalBytes == 0 ? progress : parsedBytes / totalBytes);
+    }
+
+    @Override
+    public void update(Observable o, Object arg) {
+        if (o instanceof GffParser) {
+            GffParser annotationParser = (GffParser) o;
+            if (arg instanceof Double) {
+                double progress = (Double) arg;
+                Platform.runLater(() -> showProgress(annotationParser, progress));
+            } else if (arg instanceof AnnotationIndex) {
+                Platform.runLater(() ->
+                        showAnnotations(annotationParser, (AnnotationIndex) arg));
+            }
+        }
+        if (o instanceof GfaParser) {
+            if (arg instanceof Integer) {
+                setChanged();
+                notifyObservers(0);
+                progressBarController.done();
+            }
+        }
+    }
+
+    /**
+     * A gff file that is being loaded.
+     */
+    private static final class GffLoad {
+        private final GffParser parser;
+        private final long bytes;
+        private volatile Future<?> future;
+        private int selected;
+        private double progress;
+
+        private GffLoad(GffParser parser) {
+            this.parser = parser;
+            this.bytes = new File(parser.getFilePath()).length();
+        }
+    }
+}
@@ -1,4 +1,4 @@
-package structures;
+package gui.sub_controllers;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
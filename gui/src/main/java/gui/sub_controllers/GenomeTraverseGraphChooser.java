@@ -12,7 +12,6 @@ import javafx.scene.control.cell.CheckBoxTableCell;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import javafx.util.Callback;
-import structures.Genome;
 
 import java.util.ArrayList;
 import java.util.HashMap;
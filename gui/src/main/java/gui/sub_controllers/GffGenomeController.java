@@ -1,7 +1,5 @@
 package gui.sub_controllers;
 
-import structures.Genome;
-import gui.DrawableCanvas;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -139,7 +137,6 @@ public class GffGenomeController {
             temp.add(table.getItems().get(0).getId());
         }
         selectedGenome = temp.get(0);
-        DrawableCanvas.getInstance().setAnnotationGenome(temp.get(0));
         close();
     }
 
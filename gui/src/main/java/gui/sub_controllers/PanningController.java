@@ -1,8 +1,10 @@
 package gui.sub_controllers;
 
 import graph.SequenceGraph;
+import gui.FrameScheduler;
 import gui.GraphDrawer;
 import gui.MenuController;
+import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
@@ -97,13 +99,17 @@ public final class PanningController extends Observable {
                 menuController.zoomInClicked();
             } else if (event.getCode() == KeyCode.DOWN) {
                 menuController.zoomOutClicked();
+            } else if (event.getCode() == KeyCode.N) {
+                menuController.nextAnnotationClicked();
+            } else if (event.getCode() == KeyCode.P) {
+                menuController.previousAnnotationClicked();
             }
             event.consume();
         });
     }
 
     /**
-     * Pan right method.
+     * Pan right method. The redraw is done by the FrameScheduler on the next frame.
      */
     private void panRight() {
         if (!updating) {
@@ -115,19 +121,20 @@ public final class PanningController extends Observable {
                 }
             }
         }
+        FrameScheduler scheduler = FrameScheduler.getInstance();
         if (GraphDrawer.getInstance().getGraph().getNodes()
                 .containsKey(GraphDrawer.getInstance().getGraph().getFullGraphRightBoundID())) {
-            if (GraphDrawer.getInstance().getxDifference() + GraphDrawer.getInstance().getZoomLevel()
+            if (scheduler.getTargetxDifference() + scheduler.getTargetZoomLevel()
                     > GraphDrawer.getInstance().getColumnWidth(GraphDrawer.getInstance().getGraph().getColumns().size())) {
                 return;
             }
         }
-        GraphDrawer.getInstance().moveShapes(GraphDrawer.getInstance().getxDifference()
-                + GraphDrawer.getInstance().getZoomLevel() * PANN_FACTOR);
+        scheduler.moveTo(scheduler.getTargetxDifference()
+                + scheduler.getTargetZoomLevel() * PANN_FACTOR);
     }
 
     /**
-     * Pan left method.
+     * Pan left method. The redraw is done by the FrameScheduler on the next frame.
      */
     private void panLeft() {
         if (!updating) {
@@ -138,14 +145,15 @@ public final class PanningController extends Observable {
                 }
             }
         }
+        FrameScheduler scheduler = FrameScheduler.getInstance();
         if (GraphDrawer.getInstance().getGraph().getNodes()
                 .containsKey(GraphDrawer.getInstance().getGraph().getFullGraphLeftBoundID())) {
-            if (GraphDrawer.getInstance().getxDifference() < 0) {
+            if (scheduler.getTargetxDifference() < 0) {
                 return;
             }
         }
-        GraphDrawer.getInstance().moveShapes(GraphDrawer.getInstance().getxDifference()
-                - GraphDrawer.getInstance().getZoomLevel() * PANN_FACTOR);
+        scheduler.moveTo(scheduler.getTargetxDifference()
+                - scheduler.getTargetZoomLevel() * PANN_FACTOR);
     }
 
     /**
@@ -165,11 +173,16 @@ public final class PanningController extends Observable {
                 } else {
                     newGraph.createSubGraph(centerNodeID - RENDER_SHIFT, RENDER_RANGE);
                 }
-                int leftMostID = GraphDrawer.getInstance().getMostLeftNode().getId();
-                GraphDrawer.getInstance().setGraph(newGraph);
-                GraphDrawer.getInstance().setxDifference(GraphDrawer.getInstance()
-                        .getColumnWidth(GraphDrawer.getInstance().getGraph().getNode(leftMostID).getColumn()));
-                updating = false;
+                Platform.runLater(() -> {
+                    int leftMostID = GraphDrawer.getInstance().getMostLeftNode().getId();
+                    double oldxDifference = GraphDrawer.getInstance().getxDifference();
+                    GraphDrawer.getInstance().setGraph(newGraph);
+                    GraphDrawer.getInstance().setxDifference(GraphDrawer.getInstance()
+                            .getColumnWidth(newGraph.getNode(leftMostID).getColumn()));
+                    FrameScheduler.getInstance().translate(
+                            GraphDrawer.getInstance().getxDifference() - oldxDifference);
+                    updating = false;
+                });
                 return null;
             }
         }).start();
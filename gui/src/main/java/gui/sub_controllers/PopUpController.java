@@ -10,8 +10,8 @@ import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import parser.GraphCache;
 
-import java.io.File;
 import java.io.IOException;
 
 
@@ -40,11 +40,11 @@ public class PopUpController {
     /**
      * The popup for a corrupt database file.
      *
-     * @param partPath The path to the file
-     * @param message  The message to display.
+     * @param entry   The files of the graph in the cache.
+     * @param message The message to display.
      */
     @FXML
-    public void loadDbCorruptPopUp(final String partPath, String message) {
+    public void loadDbCorruptPopUp(final GraphCache.Entry entry, String message) {
         try {
             popUp();
             popUpOK.addEventHandler(MouseEvent.MOUSE_CLICKED,
@@ -56,15 +56,11 @@ public class PopUpController {
             openLoc.addEventHandler(MouseEvent.MOUSE_CLICKED,
                     new EventHandler<MouseEvent>() {
                         public void handle(MouseEvent e) {
-                            File db = new File(partPath + ".database.db");
-                            File child = new File(partPath + ".childArray.txt");
-                            File parent = new File(partPath + ".parentArray.txt");
-                            boolean success = db.delete();
-                            assert success;
-                            success = child.delete();
-                            assert success;
-                            success = parent.delete();
-                            assert success;
+                            try {
+                                entry.clear();
+                            } catch (IOException exception) {
+                                System.err.println(exception.getMessage());
+                            }
                             stage.close();
                         }
                     });
@@ -22,7 +22,7 @@ public class ProgressBarController {
     /**
      * The run method on open File.
      */
-    void run() {
+    public void run() {
         Platform.runLater(new Runnable() {
             public void run() {
                 progressBar.setProgress(-1.0);
@@ -31,10 +31,19 @@ public class ProgressBarController {
         progressBar.setVisible(true);
     }
 
+    /**
+     * Shows how far a file is loaded.
+     *
+     * @param progress the part that is loaded, between 0 and 1.
+     */
+    void setProgress(double progress) {
+        Platform.runLater(() -> progressBar.setProgress(progress));
+    }
+
     /**
      * The method to disable the progressbar after load.
      */
-    void done() {
+    public void done() {
         Platform.runLater(new Runnable() {
             public void run() {
                 progressBar.setProgress(1.0);
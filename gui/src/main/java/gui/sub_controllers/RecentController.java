@@ -1,6 +1,6 @@
 package gui.sub_controllers;
 
-import gui.CustomProperties;
+import parser.CustomProperties;
 import javafx.scene.control.MenuItem;
 
 /**
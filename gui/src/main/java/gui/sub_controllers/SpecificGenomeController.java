@@ -1,6 +1,7 @@
 package gui.sub_controllers;
 
 import gui.DrawableCanvas;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -15,15 +16,18 @@ import javafx.scene.control.cell.CheckBoxTableCell;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import javafx.util.Callback;
-import structures.Genome;
+import structures.Selection;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 
 /**
  * Created by Jip on 7-6-2017.
  * <p>
  * This class handles choosing a specific genome and the tableView that accompanies it.
+ * The check boxes show and change a selection of genome ids, so selecting all genomes
+ * that pass the filter does not have to visit every row.
  */
 public class SpecificGenomeController {
 
@@ -38,7 +42,9 @@ public class SpecificGenomeController {
     @FXML
     private TableColumn highlightCol;
     private SortedList<Genome> sortedData;
-    private int[] selectedGenomes;
+    private Selection selectedGenomes;
+    private Selection editing;
+    private BitSet filtered;
     private boolean allSelected;
 
     /**
@@ -48,11 +54,14 @@ public class SpecificGenomeController {
      * @param hashMap       data on the different genomes.
      * @param alreadyChosen data on what genomes want to be viewed.
      */
-    public void initialize(HashMap<Integer, String> hashMap, int[] alreadyChosen) {
+    public void initialize(HashMap<Integer, String> hashMap, Selection alreadyChosen) {
         selectedGenomes = alreadyChosen;
+        editing = alreadyChosen.copy(hashMap.size());
+        filtered = new BitSet(hashMap.size());
+        filtered.set(0, hashMap.size());
         allSelected = false;
 
-        ArrayList<Genome> realData = createData(hashMap, alreadyChosen);
+        ArrayList<Genome> realData = createData(hashMap);
         final ObservableList<Genome> data = FXCollections.observableArrayList(realData);
 
         initializeColumns();
@@ -63,15 +72,13 @@ public class SpecificGenomeController {
 
         // 2. Set the filter Predicate whenever the filter changes.
         filterField.textProperty().addListener((observable, oldValue, newValue) -> {
+            filtered.clear();
             filteredData.setPredicate(genome -> {
                 // If filter text is empty, display all annotations.
-                if (newValue == null || newValue.isEmpty()) {
-                    return true;
-                }
-                String lowerCaseFilter = newValue.toLowerCase();
-
-                //Check the info, but also co-ordinates.
-                return genome.getName().toLowerCase().contains(lowerCaseFilter);
+                boolean shown = newValue == null || newValue.isEmpty()
+                        || genome.getName().toLowerCase().contains(newValue.toLowerCase());
+                filtered.set(genome.getId(), shown);
+                return shown;
             });
         });
 
@@ -88,21 +95,13 @@ public class SpecificGenomeController {
     /**
      * Translates the hasMap into dataSet that can be used in the table.
      *
-     * @param hashMap       The hashMap of data
-     * @param alreadyChosen The array of already chosen genomes.
+     * @param hashMap The hashMap of data
      * @return ArrayList of Genomes, usable in the tableView.
      */
-    private ArrayList<Genome> createData(HashMap<Integer, String> hashMap, int[] alreadyChosen) {
+    private ArrayList<Genome> createData(HashMap<Integer, String> hashMap) {
         ArrayList<Genome> res = new ArrayList<>();
         for (int i = 0; i < hashMap.size(); i++) {
-            Genome genome = new Genome(i, hashMap.get(i));
-            for (int hasBeenSelected : alreadyChosen) {
-                if (i == hasBeenSelected) {
-                    genome.setSelected(true);
-                    break;
-                }
-            }
-            res.add(genome);
+            res.add(new Genome(i, hashMap.get(i)));
         }
         return res;
     }
@@ -123,7 +122,12 @@ public class SpecificGenomeController {
                     @Override
                     public ObservableValue<Boolean> call(
                             TableColumn.CellDataFeatures<Genome, Boolean> param) {
-                        return param.getValue().getSelectedProperty();
+                        int id = param.getValue().getId();
+                        SimpleBooleanProperty selected =
+                                new SimpleBooleanProperty(editing.isSelected(id));
+                        selected.addListener((observable, oldValue, newValue) ->
+                                editing.setSelected(id, newValue));
+                        return selected;
                     }
                 });
         highlightCol.setCellFactory(CheckBoxTableCell.forTableColumn(highlightCol));
@@ -132,8 +136,9 @@ public class SpecificGenomeController {
             TableRow<Genome> row = new TableRow<>();
             row.setOnMouseClicked(event -> {
                 if (event.getClickCount() == 2 && (!row.isEmpty())) {
-                    Genome rowData = row.getItem();
-                    rowData.setSelected(!rowData.getSelectedProperty().getValue());
+                    int id = row.getItem().getId();
+                    editing.setSelected(id, !editing.isSelected(id));
+                    table.refresh();
                 }
             });
             return row;
@@ -141,12 +146,11 @@ public class SpecificGenomeController {
     }
 
     /**
-     * Gets the int[] of selected genomes.
-     * All integers in the list represent the ID of a selected genome.
+     * Gets the selected genomes, which only changes when the selection is saved.
      *
-     * @return a int[] representing the genomes
+     * @return the selection of genome ids
      */
-    public int[] getSelectedGenomes() {
+    public Selection getSelectedGenomes() {
         return selectedGenomes;
     }
 
@@ -156,22 +160,9 @@ public class SpecificGenomeController {
      */
     @FXML
     public void saveSelected() {
-        ArrayList<Integer> temp = new ArrayList<Integer>();
-
-        for (int i = 0; i < table.getItems().size(); i++) {
-            Genome genome = table.getItems().get(i);
-            if (genome.isSelected()) {
-                temp.add(genome.getId());
-            }
-        }
-
-        selectedGenomes = new int[temp.size()];
-        for (int i = 0; i < selectedGenomes.length; i++) {
-            selectedGenomes[i] = temp.get(i);
-        }
-
+        selectedGenomes = editing;
         close();
-        DrawableCanvas.getInstance().getRecentGenomeController().saving(selectedGenomes);
+        DrawableCanvas.getInstance().getRecentGenomeController().saving(selectedGenomes.toArray());
     }
 
     /**
@@ -194,25 +185,29 @@ public class SpecificGenomeController {
      * Can select/deselect the entire sortedData at the same time.
      */
     public void selectAllFiltered() {
-        for (Genome genome : sortedData) {
-            if (allSelected) {
-                genome.setSelected(false);
-            } else {
-                genome.setSelected(true);
-            }
+        if (allSelected) {
+            editing.deselect(filtered);
+        } else {
+            editing.select(filtered);
         }
-        table.setItems(sortedData);
+        table.refresh();
         allSelected = !allSelected;
     }
 
+    /**
+     * Inverts which of the genomes in the table are selected.
+     */
+    public void invertFiltered() {
+        editing.invert(filtered);
+        table.refresh();
+    }
+
     /**
      * Makes sure all the genomes are unselected.
      */
     public void resetPressed() {
-        for (Genome genome : sortedData) {
-            genome.setSelected(false);
-        }
-        table.setItems(sortedData);
+        editing.clear();
+        table.refresh();
     }
 }
 
@@ -1,6 +1,7 @@
 package gui.sub_controllers;
 
 import graph.SequenceGraph;
+import gui.FrameScheduler;
 import gui.GraphDrawer;
 import gui.MenuController;
 
@@ -33,23 +34,21 @@ public final class ZoomController {
     }
 
     /**
-     * Zooms in.
+     * Zooms in. The redraw is done by the FrameScheduler on the next frame.
      *
      * @param column the column to zoom in on.
      */
     public void zoomIn(int column) {
-        GraphDrawer.getInstance().zoom(SCROLL_ZOOM_IN_FACTOR, column);
-        menuController.updateRadius();
+        FrameScheduler.getInstance().zoom(SCROLL_ZOOM_IN_FACTOR, column);
     }
 
     /**
-     * Zooms out.
+     * Zooms out. The redraw is done by the FrameScheduler on the next frame.
      *
      * @param column the column to zoom out on.
      */
     public void zoomOut(int column) {
-        GraphDrawer.getInstance().zoom(SCROLL_ZOOM_OUT_FACTOR, column);
-        menuController.updateRadius();
+        FrameScheduler.getInstance().zoom(SCROLL_ZOOM_OUT_FACTOR, column);
     }
 
     /**
@@ -59,6 +58,7 @@ public final class ZoomController {
      * @param radius     Moves to the correct place in the graph
      */
     public void traverseGraphClicked(int centreNode, int radius) {
+        FrameScheduler.getInstance().cancel();
         if (!GraphDrawer.getInstance().getGraph().getNodes().containsKey(centreNode)) {
             SequenceGraph newGraph = GraphDrawer.getInstance().getGraph().copy();
             newGraph.createSubGraph(centreNode, PanningController.RENDER_RANGE);
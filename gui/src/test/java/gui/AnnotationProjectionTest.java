@@ -0,0 +1,63 @@
+package gui;
+
+import org.junit.Before;
+import org.junit.Test;
+import structures.AnnotationIndex;
+import structures.AnnotationSet;
+import structures.AnnotationStore;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+
+public class AnnotationProjectionTest {
+
+    private AnnotationProjection projection;
+
+    @Before
+    public void setUp() {
+        projection = new AnnotationProjection(Arrays.asList(set("first", 3), set("second", 2)));
+        projection.startNode(4);
+        projection.add(0, 1, 10, 0.0, 0.5, 0);
+        projection.add(0, 2, 12, 0.2, 1.0, 2);
+        projection.add(1, 0, 500, 0.0, 1.0, 0);
+        projection.startNode(9);
+        projection.add(1, 1, 600, 0.5, 1.0, 1);
+        projection.finish();
+    }
+
+    private static AnnotationSet set(String name, int size) {
+        AnnotationStore.Builder builder = new AnnotationStore.Builder();
+        for (int i = 0; i < size; i++) {
+            builder.add(i, i + 1, name);
+        }
+        return new AnnotationSet(name, 0, new AnnotationIndex(builder.build()));
+    }
+
+    @Test
+    public void recordsPerNode() {
+        assertEquals(0, projection.first(4));
+        assertEquals(3, projection.end(4));
+        assertEquals(3, projection.first(9));
+        assertEquals(4, projection.end(9));
+        assertEquals(0, projection.end(5));
+    }
+
+    @Test
+    public void setsGetTheirOwnBandOfLanes() {
+        assertEquals(1, projection.getLane(0));
+        assertEquals(3, projection.getLane(1));
+        assertEquals(4, projection.getLane(2));
+        assertEquals(5, projection.getLane(3));
+    }
+
+    @Test
+    public void globalIdsFollowThePreviousSets() {
+        assertEquals(2, projection.getGlobalId(1));
+        assertEquals(3, projection.getGlobalId(2));
+        assertEquals(4, projection.getGlobalId(3));
+        assertEquals("second", projection.getAnnotationSet(3).getName());
+        assertEquals(1, projection.getAnnotationId(3));
+    }
+}
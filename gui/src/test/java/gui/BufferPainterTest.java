@@ -0,0 +1,148 @@
+package gui;
+
+import javafx.scene.paint.Color;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class BufferPainterTest {
+
+    private static final int RED = 0xFFFF0000;
+    private static final int WHITE = 0xFFFFFFFF;
+
+    private BufferPainter painter;
+
+    @Before
+    public void setUp() {
+        painter = new BufferPainter(4, 4);
+        painter.clearRect(0, 0, 4, 4);
+        painter.setFill(Color.RED);
+    }
+
+    private int pixel(int x, int y) {
+        return painter.getPixels()[y * 4 + x];
+    }
+
+    private int filled() {
+        int count = 0;
+        for (int i = 0; i < 16; i++) {
+            if (painter.getPixels()[i] != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void fillRectIsClippedToBuffer() {
+        painter.fillRect(-2, -2, 4, 4);
+        assertEquals(RED, pixel(0, 0));
+        assertEquals(RED, pixel(1, 1));
+        assertEquals(0, pixel(2, 0));
+        assertEquals(0, pixel(0, 2));
+        assertEquals(4, filled());
+
+        painter.fillRect(3, 3, 10, 10);
+        assertEquals(RED, pixel(3, 3));
+        assertEquals(5, filled());
+    }
+
+    @Test
+    public void fillRectOutsideBufferDrawsNothing() {
+        painter.fillRect(10, 1, 5, 5);
+        painter.fillRect(1, -8, 2, 5);
+        assertEquals(0, filled());
+    }
+
+    @Test
+    public void thinRectIsOnePixelWide() {
+        painter.fillRect(1.2, 0, 0.1, 4);
+        for (int y = 0; y < 4; y++) {
+            assertEquals(RED, pixel(1, y));
+        }
+        assertEquals(4, filled());
+    }
+
+    @Test
+    public void fillPolygonFillsPixelCentres() {
+        painter.fillPolygon(new double[]{0, 4, 0}, new double[]{0, 0, 4}, 3);
+        assertEquals(RED, pixel(2, 0));
+        assertEquals(0, pixel(3, 0));
+        assertEquals(RED, pixel(1, 1));
+        assertEquals(0, pixel(2, 1));
+        assertEquals(RED, pixel(0, 3));
+        assertEquals(0, pixel(1, 3));
+        assertEquals(7, filled());
+    }
+
+    @Test
+    public void fillPolygonIsClippedToBuffer() {
+        painter.fillPolygon(new double[]{-10, 10, 10, -10}, new double[]{-10, -10, 10, 10}, 4);
+        assertEquals(16, filled());
+    }
+
+    @Test
+    public void fillPolygonNeedsThreePoints() {
+        painter.fillPolygon(new double[]{0, 4}, new double[]{0, 4}, 2);
+        assertEquals(0, filled());
+    }
+
+    @Test
+    public void blendsOverOpaquePixel() {
+        painter.setFill(Color.WHITE);
+        painter.fillRect(0, 0, 4, 4);
+        painter.setFill(Color.color(0, 0, 0, 0.5));
+        painter.fillRect(0, 0, 1, 1);
+        assertEquals(0xFF7F7F7F, pixel(0, 0));
+        assertEquals(WHITE, pixel(1, 0));
+    }
+
+    @Test
+    public void blendsOverTransparentPixel() {
+        painter.setFill(Color.color(1, 0, 0, 0.5));
+        painter.fillRect(0, 0, 1, 1);
+        assertEquals(0x80FF0000, pixel(0, 0));
+    }
+
+    @Test
+    public void transparentFillDrawsNothing() {
+        painter.fillRect(0, 0, 4, 4);
+        painter.setFill(Color.TRANSPARENT);
+        painter.fillRect(0, 0, 4, 4);
+        assertEquals(RED, pixel(2, 2));
+    }
+
+    @Test
+    public void longLinesAreClippedToBuffer() {
+        painter.setStroke(Color.RED);
+        painter.strokeLine(-1e9, 1.5, 1e9, 1.5);
+        for (int x = 0; x < 4; x++) {
+            assertEquals(RED, pixel(x, 1));
+        }
+        assertEquals(4, filled());
+
+        painter.strokeLine(-1e9, -1e9 + 10, 1e9, 1e9 + 10);
+        assertEquals(4, filled());
+    }
+
+    @Test
+    public void linesInsideBufferAreNotClipped() {
+        painter.setStroke(Color.RED);
+        painter.strokeLine(0.5, 0.5, 3.5, 3.5);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(RED, pixel(i, i));
+        }
+        assertEquals(4, filled());
+    }
+
+    @Test
+    public void clearRectClearsPart() {
+        painter.fillRect(0, 0, 4, 4);
+        painter.clearRect(0, 0, 2, 4);
+        assertEquals(0, pixel(1, 3));
+        assertEquals(RED, pixel(2, 3));
+        assertEquals(8, filled());
+    }
+}
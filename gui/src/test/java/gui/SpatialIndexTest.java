@@ -0,0 +1,64 @@
+package gui;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class SpatialIndexTest {
+
+    private SpatialIndex index;
+
+    @Before
+    public void setUp() {
+        index = new SpatialIndex(200, 100);
+        index.add(SpatialIndex.NODE, 1, 10, 10, 20, 20);
+        index.add(SpatialIndex.NODE, 2, 15, 15, 150, 30);
+        index.add(SpatialIndex.ANNOTATION, 7, 10, 10, 20, 20);
+        index.add(SpatialIndex.NODE, 3, -50, -50, -10, -10);
+        index.build();
+    }
+
+    @Test
+    public void queryHit() throws Exception {
+        assertArrayEquals(new int[]{1}, index.query(SpatialIndex.NODE, 12, 12));
+    }
+
+    @Test
+    public void queryOverlapInInsertionOrder() throws Exception {
+        assertArrayEquals(new int[]{1, 2}, index.query(SpatialIndex.NODE, 17, 17));
+    }
+
+    @Test
+    public void querySpansCells() throws Exception {
+        assertArrayEquals(new int[]{2}, index.query(SpatialIndex.NODE, 140, 25));
+    }
+
+    @Test
+    public void queryKind() throws Exception {
+        assertArrayEquals(new int[]{7}, index.query(SpatialIndex.ANNOTATION, 12, 12));
+    }
+
+    @Test
+    public void queryBorderIsOutside() throws Exception {
+        assertEquals(0, index.query(SpatialIndex.NODE, 10, 12).length);
+    }
+
+    @Test
+    public void queryOutsideArea() throws Exception {
+        assertEquals(0, index.query(SpatialIndex.NODE, 250, 12).length);
+    }
+
+    @Test
+    public void offscreenIgnored() throws Exception {
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void queryBeforeBuild() throws Exception {
+        SpatialIndex empty = new SpatialIndex(100, 100);
+        empty.add(SpatialIndex.NODE, 1, 10, 10, 20, 20);
+        assertEquals(0, empty.query(SpatialIndex.NODE, 12, 12).length);
+    }
+}